@@ -16,6 +16,9 @@ public class AutoDetectWorldMap {
     private Country selectedCountry;
     private int mapWidth, mapHeight;
     
+    private static final ColorRamp OVERLAY_RAMP = ColorRamp.overlay(1f, 0.1f, 0.1f, 0.5f);
+    private final Color scratchColor = new Color();
+    
     public static class Country {
         public String name;
         public Color color;
@@ -73,7 +76,7 @@ public class AutoDetectWorldMap {
         for (int y = 0; y < mapHeight; y++) {
             for (int x = 0; x < mapWidth; x++) {
                 int pixel = worldMapPixmap.getPixel(x, y);
-                Color color = new Color();
+                Color color = scratchColor;
                 Color.rgba8888ToColor(color, pixel);
                 
                 // Skip white (ocean) and black (borders)
@@ -85,7 +88,7 @@ public class AutoDetectWorldMap {
                 int colorInt = pixel;
                 
                 if (!tempCountries.containsKey(colorInt)) {
-                    tempCountries.put(colorInt, new Country(color, colorInt));
+                    tempCountries.put(colorInt, new Country(new Color(color), colorInt));
                 }
                 
                 tempCountries.get(colorInt).addPixel(x, y, mapWidth);
@@ -302,8 +305,7 @@ public class AutoDetectWorldMap {
         // Draw influence overlay
         for (Country country : countriesByColor.values()) {
             if (country.influence > 0) {
-                float alpha = country.influence / 100f * 0.5f;
-                overlayPixmap.setColor(1f, 0.1f, 0.1f, alpha);
+                overlayPixmap.setColor(OVERLAY_RAMP.packed(country.influence));
                 
                 for (int pixelIndex : country.pixelIndices) {
                     int x = pixelIndex % mapWidth;
@@ -333,8 +335,7 @@ public class AutoDetectWorldMap {
             }
         }
         
-        overlayTexture.dispose();
-        overlayTexture = new Texture(overlayPixmap);
+        overlayTexture.draw(overlayPixmap, 0, 0);
     }
     
     public Country getCountryAt(float screenX, float screenY) {
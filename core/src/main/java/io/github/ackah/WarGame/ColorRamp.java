@@ -0,0 +1,66 @@
+package io.github.ackah.aiinfluence;
+
+import com.badlogic.gdx.graphics.Color;
+
+// Precomputed colours for every whole influence percentage (0-100) so the
+// render loops never build a Color per region per frame.
+public class ColorRamp {
+    public static final int LEVELS = 101;
+
+    private final int[] packed = new int[LEVELS];
+    private final float[] floatBits = new float[LEVELS];
+
+    private ColorRamp() {}
+
+    // Base colour shifted towards red as influence grows (map fill colours)
+    public static ColorRamp influence(Color base) {
+        ColorRamp ramp = new ColorRamp();
+        Color c = new Color();
+        for (int i = 0; i < LEVELS; i++) {
+            c.set(
+                Math.min(1f, base.r + (i / 100f) * 0.5f),
+                base.g * (1f - i / 200f),
+                base.b * (1f - i / 200f),
+                1f
+            );
+            ramp.store(i, c);
+        }
+        return ramp;
+    }
+
+    // Fixed colour whose alpha grows with influence (overlay pixmaps)
+    public static ColorRamp overlay(float r, float g, float b, float maxAlpha) {
+        ColorRamp ramp = new ColorRamp();
+        Color c = new Color();
+        for (int i = 0; i < LEVELS; i++) {
+            c.set(r, g, b, i / 100f * maxAlpha);
+            ramp.store(i, c);
+        }
+        return ramp;
+    }
+
+    private void store(int level, Color c) {
+        packed[level] = Color.rgba8888(c);
+        floatBits[level] = c.toFloatBits();
+    }
+
+    public static int level(float influence) {
+        if (influence <= 0) return 0;
+        if (influence >= 100) return 100;
+        return (int)(influence + 0.5f);
+    }
+
+    public int packed(float influence) {
+        return packed[level(influence)];
+    }
+
+    public float floatBits(float influence) {
+        return floatBits[level(influence)];
+    }
+
+    // Writes the ramp colour into a caller-owned scratch colour
+    public Color get(float influence, Color out) {
+        Color.rgba8888ToColor(out, packed[level(influence)]);
+        return out;
+    }
+}
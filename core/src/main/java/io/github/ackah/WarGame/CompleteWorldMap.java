@@ -17,6 +17,9 @@ public class CompleteWorldMap {
     private Country selectedCountry;
     private int mapWidth, mapHeight;
     
+    private static final ColorRamp OVERLAY_RAMP = ColorRamp.overlay(1f, 0.1f, 0.1f, 0.5f);
+    private final Color scratchColor = new Color();
+    
     // Zoom and pan
     private float zoom = 1.0f;
     private float minZoom = 0.5f;
@@ -199,6 +202,7 @@ public class CompleteWorldMap {
     
     public static class Country {
         public int id;
+        public int index;  // position in getAllCountries()
         public String name;
         public Color color;
         public float influence = 0;
@@ -278,7 +282,7 @@ public class CompleteWorldMap {
         for (int y = 0; y < mapHeight; y++) {
             for (int x = 0; x < mapWidth; x++) {
                 if (!visited[x][y]) {
-                    Color pixelColor = new Color();
+                    Color pixelColor = scratchColor;
                     int pixel = worldMapPixmap.getPixel(x, y);
                     Color.rgba8888ToColor(pixelColor, pixel);
                     
@@ -287,7 +291,7 @@ public class CompleteWorldMap {
                         continue;
                     }
                     
-                    Country newCountry = new Country(countryId, pixelColor);
+                    Country newCountry = new Country(countryId, new Color(pixelColor));
                     newCountry.setMapWidth(mapWidth);
                     floodFill(x, y, pixel, newCountry, visited, countryId);
                     
@@ -337,14 +341,10 @@ public class CompleteWorldMap {
     }
     
     private boolean colorsMatch(int pixel1, int pixel2, int tolerance) {
-        Color c1 = new Color();
-        Color c2 = new Color();
-        Color.rgba8888ToColor(c1, pixel1);
-        Color.rgba8888ToColor(c2, pixel2);
-        
-        float dr = Math.abs(c1.r - c2.r) * 255;
-        float dg = Math.abs(c1.g - c2.g) * 255;
-        float db = Math.abs(c1.b - c2.b) * 255;
+        // Compare the packed RGBA8888 channels directly
+        int dr = Math.abs((pixel1 >>> 24) - (pixel2 >>> 24));
+        int dg = Math.abs(((pixel1 >>> 16) & 0xff) - ((pixel2 >>> 16) & 0xff));
+        int db = Math.abs(((pixel1 >>> 8) & 0xff) - ((pixel2 >>> 8) & 0xff));
         
         return dr < tolerance && dg < tolerance && db < tolerance;
     }
@@ -368,6 +368,9 @@ public class CompleteWorldMap {
         
         // Sort countries by size for priority
         countries.sort((a, b) -> b.pixelCount - a.pixelCount);
+        for (int i = 0; i < countries.size(); i++) {
+            countries.get(i).index = i;
+        }
         
         for (Country country : countries) {
             float nx = (float)country.centerX / mapWidth;
@@ -417,8 +420,7 @@ public class CompleteWorldMap {
         // Draw influence
         for (Country country : countries) {
             if (country.influence > 0) {
-                float alpha = country.influence / 100f * 0.5f;
-                overlayPixmap.setColor(1f, 0.1f, 0.1f, alpha);
+                overlayPixmap.setColor(OVERLAY_RAMP.packed(country.influence));
                 
                 for (int pixelIndex : country.pixelIndices) {
                     int x = pixelIndex % mapWidth;
@@ -448,8 +450,7 @@ public class CompleteWorldMap {
             }
         }
         
-        overlayTexture.dispose();
-        overlayTexture = new Texture(overlayPixmap);
+        overlayTexture.draw(overlayPixmap, 0, 0);
     }
     
     public Country getCountryAt(float screenX, float screenY) {
@@ -2,11 +2,20 @@ package io.github.ackah.aiinfluence;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
 import java.util.ArrayList;
 import java.util.List;
 
 public class DetailedCountryMap {
     private List<Country> countries;
+    private PolygonMesh mesh;
+    private PolygonIndex index;
+    
+    // Optional GPU picking: polygon ids drawn into an offscreen buffer
+    private boolean pixelPicking = false;
+    private PickingBuffer picking;
+    private PolygonMesh pickingMesh;
+    private PickingBuffer.IdRenderer pickingRenderer;
     
     public static class Country {
         public String name;
@@ -14,53 +23,47 @@ public class DetailedCountryMap {
         public Color baseColor;
         public float influence = 0;
         public float population;
+        private final ColorRamp ramp;
+        private final Color displayColor = new Color();
+        private float[] bounds;
         
         public Country(String name, float[] vertices, Color color, float population) {
             this.name = name;
             this.vertices = vertices;
             this.baseColor = color;
             this.population = population;
+            this.ramp = ColorRamp.influence(color);
         }
         
-        public void draw(ShapeRenderer sr) {
-            Color displayColor = new Color(
-                Math.min(1f, baseColor.r + (influence / 100f) * 0.5f),
-                baseColor.g * (1f - influence / 200f),
-                baseColor.b * (1f - influence / 200f),
-                1f
-            );
-            sr.setColor(displayColor);
-            
-            // Draw as triangles
-            if (vertices.length >= 6) {
-                for (int i = 2; i < vertices.length / 2 - 1; i++) {
-                    sr.triangle(
-                        vertices[0], vertices[1],
-                        vertices[i * 2], vertices[i * 2 + 1],
-                        vertices[(i + 1) * 2], vertices[(i + 1) * 2 + 1]
-                    );
-                }
-            }
+        // Shared scratch color, copy it if you need to keep it
+        public Color getDisplayColor() {
+            return ramp.get(influence, displayColor);
         }
         
         public boolean contains(float x, float y) {
-            // Simple bounding box check
-            float minX = Float.MAX_VALUE, maxX = Float.MIN_VALUE;
-            float minY = Float.MAX_VALUE, maxY = Float.MIN_VALUE;
-            
-            for (int i = 0; i < vertices.length / 2; i++) {
-                minX = Math.min(minX, vertices[i * 2]);
-                maxX = Math.max(maxX, vertices[i * 2]);
-                minY = Math.min(minY, vertices[i * 2 + 1]);
-                maxY = Math.max(maxY, vertices[i * 2 + 1]);
+            // Cached bounding box first, then the exact polygon test
+            if (bounds == null) {
+                bounds = new float[4];
+                PolygonIndex.computeBounds(vertices, bounds, 0);
             }
-            
-            return x >= minX && x <= maxX && y >= minY && y <= maxY;
+            if (x < bounds[0] || x > bounds[2] || y < bounds[1] || y > bounds[3]) {
+                return false;
+            }
+            return PolygonIndex.contains(vertices, x, y);
         }
     }
     
     public DetailedCountryMap() {
         initializeCountries();
+        index = new PolygonIndex(getPolygons(), 800, 480, 16, 10);
+    }
+    
+    private List<float[]> getPolygons() {
+        List<float[]> polygons = new ArrayList<>();
+        for (Country c : countries) {
+            polygons.add(c.vertices);
+        }
+        return polygons;
     }
     
     private void initializeCountries() {
@@ -132,39 +135,72 @@ public class DetailedCountryMap {
         }, new Color(0.4f, 0.4f, 0.8f, 1), 65f));
     }
     
-    public void draw(ShapeRenderer shapeRenderer) {
+    public void draw(ShapeRenderer shapeRenderer, Matrix4 projection) {
+        if (pixelPicking) {
+            updatePicking();
+        }
+        
         // Ocean
+        shapeRenderer.setProjectionMatrix(projection);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
         shapeRenderer.setColor(0.15f, 0.3f, 0.5f, 1);
         shapeRenderer.rect(0, 0, 800, 480);
+        shapeRenderer.end();
         
-        // Draw all countries
-        for (Country c : countries) {
-            c.draw(shapeRenderer);
+        // Country fills and borders come from one cached mesh
+        if (mesh == null) {
+            mesh = new PolygonMesh(getPolygons(), Color.BLACK);
+        }
+        for (int i = 0; i < countries.size(); i++) {
+            Country c = countries.get(i);
+            mesh.setColor(i, c.ramp.floatBits(c.influence));
         }
+        mesh.render(projection);
     }
     
-    public void drawBorders(ShapeRenderer shapeRenderer) {
-        shapeRenderer.setColor(Color.BLACK);
-        for (Country c : countries) {
-            float[] v = c.vertices;
-            for (int i = 0; i < v.length / 2; i++) {
-                int next = (i + 1) % (v.length / 2);
-                shapeRenderer.line(v[i * 2], v[i * 2 + 1], 
-                                 v[next * 2], v[next * 2 + 1]);
-            }
+    public Country getCountryAt(float x, float y) {
+        int i = picking != null && picking.isReady() ? picking.pick(x, y) : index.find(x, y);
+        return i >= 0 ? countries.get(i) : null;
+    }
+    
+    public List<Country> getCountries() {
+        return countries;
+    }
+    
+    public void setPixelPicking(boolean enabled) {
+        pixelPicking = enabled;
+        if (!enabled) {
+            disposePicking();
         }
     }
     
-    public Country getCountryAt(float x, float y) {
-        for (Country c : countries) {
-            if (c.contains(x, y)) {
-                return c;
+    private void updatePicking() {
+        if (picking == null) {
+            picking = new PickingBuffer(800, 480);
+            picking.setView(0, 0, 800, 480);
+            pickingMesh = new PolygonMesh(getPolygons(), Color.BLACK);
+            for (int i = 0; i < countries.size(); i++) {
+                pickingMesh.setColor(i, PickingBuffer.idFloatBits(i));
             }
+            pickingRenderer = pickingMesh::renderFills;
         }
-        return null;
+        picking.update(pickingRenderer);
     }
     
-    public List<Country> getCountries() {
-        return countries;
+    private void disposePicking() {
+        if (picking != null) {
+            picking.dispose();
+            pickingMesh.dispose();
+            picking = null;
+            pickingMesh = null;
+            pickingRenderer = null;
+        }
+    }
+    
+    public void dispose() {
+        if (mesh != null) {
+            mesh.dispose();
+        }
+        disposePicking();
     }
 }
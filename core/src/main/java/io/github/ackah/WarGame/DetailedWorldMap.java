@@ -1,14 +1,26 @@
 package io.github.ackah.aiinfluence;
 
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
 import java.util.ArrayList;
 import java.util.List;
 
 public class DetailedWorldMap {
     private List<Continent> continents;
+    private PolygonMesh mesh;
+    private PolygonIndex index;
+    
+    // Optional GPU picking: polygon ids drawn into an offscreen buffer
+    private boolean pixelPicking = false;
+    private PickingBuffer picking;
+    private PolygonMesh pickingMesh;
+    private PickingBuffer.IdRenderer pickingRenderer;
     private float mapWidth = 800;
     private float mapHeight = 480;
+    private final Rectangle pickingView = new Rectangle(0, 0, mapWidth, mapHeight);
     
     public class Continent {
         public String name;
@@ -16,54 +28,47 @@ public class DetailedWorldMap {
         public Color baseColor;
         public float influence = 0;
         public float population;
+        private final ColorRamp ramp;
+        private final Color displayColor = new Color();
+        private float[] bounds;
         
         public Continent(String name, float[] vertices, Color color, float population) {
             this.name = name;
             this.vertices = vertices;
             this.baseColor = color;
             this.population = population;
+            this.ramp = ColorRamp.influence(color);
         }
         
+        // Shared scratch color, copy it if you need to keep it
         public Color getDisplayColor() {
-            float r = Math.min(1f, baseColor.r + (influence / 100f) * 0.5f);
-            float g = baseColor.g * (1f - influence / 200f);
-            float b = baseColor.b * (1f - influence / 200f);
-            return new Color(r, g, b, 1f);
-        }
-        
-        public void draw(ShapeRenderer sr) {
-            sr.setColor(getDisplayColor());
-            // Draw filled polygon using triangulation
-            if (vertices.length >= 6) {
-                // Simple triangle fan from first vertex
-                for (int i = 2; i < vertices.length / 2 - 1; i++) {
-                    sr.triangle(
-                        vertices[0], vertices[1],
-                        vertices[i * 2], vertices[i * 2 + 1],
-                        vertices[(i + 1) * 2], vertices[(i + 1) * 2 + 1]
-                    );
-                }
-            }
+            return ramp.get(influence, displayColor);
         }
         
         public boolean contains(float x, float y) {
-            // Simple bounding box check for now
-            float minX = Float.MAX_VALUE, maxX = Float.MIN_VALUE;
-            float minY = Float.MAX_VALUE, maxY = Float.MIN_VALUE;
-            
-            for (int i = 0; i < vertices.length / 2; i++) {
-                minX = Math.min(minX, vertices[i * 2]);
-                maxX = Math.max(maxX, vertices[i * 2]);
-                minY = Math.min(minY, vertices[i * 2 + 1]);
-                maxY = Math.max(maxY, vertices[i * 2 + 1]);
+            // Cached bounding box first, then the exact polygon test
+            if (bounds == null) {
+                bounds = new float[4];
+                PolygonIndex.computeBounds(vertices, bounds, 0);
+            }
+            if (x < bounds[0] || x > bounds[2] || y < bounds[1] || y > bounds[3]) {
+                return false;
             }
-            
-            return x >= minX && x <= maxX && y >= minY && y <= maxY;
+            return PolygonIndex.contains(vertices, x, y);
         }
     }
     
     public DetailedWorldMap() {
         initializeContinents();
+        index = new PolygonIndex(getPolygons(), mapWidth, mapHeight, 16, 10);
+    }
+    
+    private List<float[]> getPolygons() {
+        List<float[]> polygons = new ArrayList<>();
+        for (Continent c : continents) {
+            polygons.add(c.vertices);
+        }
+        return polygons;
     }
     
     private void initializeContinents() {
@@ -140,39 +145,82 @@ public class DetailedWorldMap {
             new Color(0.5f, 0.7f, 0.8f, 1), 42f));
     }
     
-    public void draw(ShapeRenderer shapeRenderer) {
+    public void draw(ShapeRenderer shapeRenderer, Matrix4 projection) {
+        if (pixelPicking) {
+            updatePicking();
+        }
+        
         // Ocean background
+        shapeRenderer.setProjectionMatrix(projection);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
         shapeRenderer.setColor(0.15f, 0.3f, 0.5f, 1);
         shapeRenderer.rect(0, 0, mapWidth, mapHeight);
+        shapeRenderer.end();
         
-        // Draw all continents
-        for (Continent c : continents) {
-            c.draw(shapeRenderer);
+        // Continent fills and outlines come from one cached mesh
+        if (mesh == null) {
+            mesh = new PolygonMesh(getPolygons(), new Color(0.1f, 0.1f, 0.1f, 1));
+        }
+        for (int i = 0; i < continents.size(); i++) {
+            Continent c = continents.get(i);
+            mesh.setColor(i, c.ramp.floatBits(c.influence));
         }
+        mesh.render(projection);
     }
     
-    public void drawOutlines(ShapeRenderer shapeRenderer) {
-        shapeRenderer.setColor(0.1f, 0.1f, 0.1f, 1);
-        for (Continent c : continents) {
-            float[] v = c.vertices;
-            for (int i = 0; i < v.length / 2; i++) {
-                int next = (i + 1) % (v.length / 2);
-                shapeRenderer.line(v[i * 2], v[i * 2 + 1], 
-                                 v[next * 2], v[next * 2 + 1]);
-            }
+    public Continent getContinentAt(float x, float y) {
+        int i = getContinentIndexAt(x, y);
+        return i >= 0 ? continents.get(i) : null;
+    }
+    
+    // Position in getContinents(), or -1 over the ocean
+    public int getContinentIndexAt(float x, float y) {
+        return picking != null && picking.isReady() ? picking.pick(x, y) : index.find(x, y);
+    }
+    
+    public List<Continent> getContinents() {
+        return continents;
+    }
+    
+    public void setPixelPicking(boolean enabled) {
+        pixelPicking = enabled;
+        if (!enabled) {
+            disposePicking();
         }
     }
     
-    public Continent getContinentAt(float x, float y) {
-        for (Continent c : continents) {
-            if (c.contains(x, y)) {
-                return c;
+    // Keeps the picking buffer over what the camera shows
+    public void setPickingView(OrthographicCamera camera) {
+        PickingBuffer.visibleArea(camera, pickingView);
+    }
+    
+    private void updatePicking() {
+        if (picking == null) {
+            picking = new PickingBuffer((int)mapWidth, (int)mapHeight);
+            pickingMesh = new PolygonMesh(getPolygons(), Color.BLACK);
+            for (int i = 0; i < continents.size(); i++) {
+                pickingMesh.setColor(i, PickingBuffer.idFloatBits(i));
             }
+            pickingRenderer = pickingMesh::renderFills;
         }
-        return null;
+        picking.setView(pickingView.x, pickingView.y, pickingView.width, pickingView.height);
+        picking.update(pickingRenderer);
     }
     
-    public List<Continent> getContinents() {
-        return continents;
+    private void disposePicking() {
+        if (picking != null) {
+            picking.dispose();
+            pickingMesh.dispose();
+            picking = null;
+            pickingMesh = null;
+            pickingRenderer = null;
+        }
+    }
+    
+    public void dispose() {
+        if (mesh != null) {
+            mesh.dispose();
+        }
+        disposePicking();
     }
 }
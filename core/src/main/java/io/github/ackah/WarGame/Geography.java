@@ -0,0 +1,142 @@
+package io.github.ackah.aiinfluence;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+// Continent > country > region > city as one index. Each level is a set of
+// plain arrays, numbered so that the children of any node sit next to each
+// other one level down. Every subtree is then a contiguous range at every
+// deeper level: "all regions in Europe" is one [first, end) range, found with
+// a lookup per level crossed, and an aggregate over it is one range query
+// (see InfluenceTotals.range).
+public class Geography {
+    public static final int CONTINENT = 0;
+    public static final int COUNTRY = 1;
+    public static final int REGION = 2;
+    public static final int CITY = 3;
+    public static final int LEVELS = 4;
+
+    private final String[][] names;
+    private final float[][] population;
+    private final int[][] parent;      // index one level up, -1 for continents
+    private final int[][] childStart;  // children of i are [childStart[i], childStart[i + 1]) one level down
+
+    private Geography(String[][] names, float[][] population, int[][] parent, int[][] childStart) {
+        this.names = names;
+        this.population = population;
+        this.parent = parent;
+        this.childStart = childStart;
+    }
+
+    public int count(int level) {
+        return names[level].length;
+    }
+
+    public String name(int level, int node) {
+        return names[level][node];
+    }
+
+    public float population(int level, int node) {
+        return population[level][node];
+    }
+
+    public int parent(int level, int node) {
+        return parent[level][node];
+    }
+
+    // The node at a higher (coarser) level containing this one
+    public int ancestor(int level, int node, int target) {
+        for (int l = level; l > target; l--) {
+            node = parent[l][node];
+        }
+        return node;
+    }
+
+    // Descendants of a node at a lower (finer) level are
+    // [first(level, node, target), end(level, node, target))
+    public int first(int level, int node, int target) {
+        for (int l = level; l < target; l++) {
+            node = childStart[l][node];
+        }
+        return node;
+    }
+
+    public int end(int level, int node, int target) {
+        return first(level, node + 1, target);
+    }
+
+    // Nodes are added in any order with their parent's builder id; build()
+    // renumbers them so subtrees are contiguous, keeping the order nodes were
+    // added in among siblings
+    public static class Builder {
+        private final Array<String>[] names;
+        private final FloatArray[] population = new FloatArray[LEVELS];
+        private final IntArray[] parent = new IntArray[LEVELS];
+        private int[][] order;
+
+        @SuppressWarnings("unchecked")
+        public Builder() {
+            names = new Array[LEVELS];
+            for (int l = 0; l < LEVELS; l++) {
+                names[l] = new Array<>();
+                population[l] = new FloatArray();
+                parent[l] = new IntArray();
+            }
+        }
+
+        // Returns the node's builder id within its level
+        public int add(int level, String name, int parentId, float people) {
+            if (level == CONTINENT ? parentId != -1 : parentId < 0 || parentId >= names[level - 1].size) {
+                throw new IllegalArgumentException(name + " has no parent at level " + (level - 1));
+            }
+            names[level].add(name);
+            population[level].add(people);
+            parent[level].add(parentId);
+            return names[level].size - 1;
+        }
+
+        public Geography build() {
+            order = new int[LEVELS][];
+            String[][] outNames = new String[LEVELS][];
+            float[][] outPopulation = new float[LEVELS][];
+            int[][] outParent = new int[LEVELS][];
+            int[][] childStart = new int[LEVELS][];
+
+            for (int l = 0; l < LEVELS; l++) {
+                int n = names[l].size;
+                order[l] = new int[n];
+                outNames[l] = new String[n];
+                outPopulation[l] = new float[n];
+                outParent[l] = new int[n];
+
+                if (l == CONTINENT) {
+                    for (int i = 0; i < n; i++) order[l][i] = i;
+                } else {
+                    // Counting sort by the parent's final index, stable within siblings
+                    int[] above = order[l - 1];
+                    int[] start = new int[above.length + 1];
+                    for (int i = 0; i < n; i++) start[above[parent[l].get(i)] + 1]++;
+                    for (int p = 0; p < above.length; p++) start[p + 1] += start[p];
+                    childStart[l - 1] = start.clone();
+                    for (int i = 0; i < n; i++) order[l][i] = start[above[parent[l].get(i)]]++;
+                }
+
+                for (int i = 0; i < n; i++) {
+                    int at = order[l][i];
+                    outNames[l][at] = names[l].get(i);
+                    outPopulation[l][at] = population[l].get(i);
+                    outParent[l][at] = l == CONTINENT ? -1 : order[l - 1][parent[l].get(i)];
+                }
+            }
+            // Leaves have no children
+            childStart[LEVELS - 1] = new int[names[LEVELS - 1].size + 1];
+            return new Geography(outNames, outPopulation, outParent, childStart);
+        }
+
+        // Final index of a node, once built
+        public int indexOf(int level, int id) {
+            return order[level][id];
+        }
+    }
+}
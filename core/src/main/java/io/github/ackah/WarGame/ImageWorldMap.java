@@ -1,11 +1,17 @@
 package io.github.ackah.aiinfluence;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.ArrayList;
@@ -16,6 +22,23 @@ public class ImageWorldMap {
     private Texture overlayTexture;
     private Pixmap overlayPixmap;
     private Map<String, Region> regions;
+    private List<Region> regionList;
+    private PointQuadtree regionIndex;
+    private float maxRadius;
+    private final IntArray queryResult = new IntArray();
+    
+    // Optional GPU picking: region circles drawn as id colours offscreen
+    private boolean pixelPicking = false;
+    private PickingBuffer picking;
+    private ShapeRenderer pickingRenderer;
+    private PickingBuffer.IdRenderer pickingPass;
+    private final Color pickingColor = new Color();
+    private final Rectangle pickingView = new Rectangle(0, 0, 800, 480);
+    private FloatArray cell = new FloatArray();
+    private FloatArray clipped = new FloatArray();
+    private static final int PICKING_SEGMENTS = 64;
+    
+    private static final ColorRamp OVERLAY_RAMP = ColorRamp.overlay(1f, 0.2f, 0.2f, 0.6f);
     
     public static class Region {
         public String name;
@@ -24,6 +47,7 @@ public class ImageWorldMap {
         public float influence = 0;
         public float population;
         public Color color;
+        public int index = -1;  // position in getRegions()
         
         public Region(String name, float x, float y, float population) {
             this.name = name;
@@ -34,8 +58,11 @@ public class ImageWorldMap {
         }
         
         public boolean contains(float px, float py) {
-            float dist = (float)Math.sqrt((px - x) * (px - x) + (py - y) * (py - y));
-            return dist <= radius;
+            return distanceSquared(px, py) <= radius * radius;
+        }
+        
+        public float distanceSquared(float px, float py) {
+            return (px - x) * (px - x) + (py - y) * (py - y);
         }
     }
     
@@ -50,6 +77,7 @@ public class ImageWorldMap {
         overlayTexture = new Texture(overlayPixmap);
         
         initializeRegions();
+        buildRegionIndex();
     }
     
     private void initializeRegions() {
@@ -106,7 +134,22 @@ public class ImageWorldMap {
         regions.put("New Zealand", new Region("New Zealand", 710, 100, 5f));
     }
     
+    private void buildRegionIndex() {
+        // Ids handed out by the quadtree are positions in regionList
+        regionList = new ArrayList<>(regions.values());
+        regionIndex = new PointQuadtree(0, 0, 800, 480);
+        maxRadius = 0;
+        for (Region region : regionList) {
+            region.index = regionIndex.add(region.x, region.y);
+            maxRadius = Math.max(maxRadius, region.radius);
+        }
+    }
+    
     public void update() {
+        if (pixelPicking) {
+            updatePicking();
+        }
+        
         // Update overlay with current influence
         overlayPixmap.setColor(0, 0, 0, 0);
         overlayPixmap.fill();
@@ -114,8 +157,7 @@ public class ImageWorldMap {
         for (Region region : regions.values()) {
             if (region.influence > 0) {
                 // Draw influence as red circles with transparency based on influence
-                float alpha = (region.influence / 100f) * 0.6f;
-                overlayPixmap.setColor(1f, 0.2f, 0.2f, alpha);
+                overlayPixmap.setColor(OVERLAY_RAMP.packed(region.influence));
                 
                 // Draw influence circle
                 int radius = (int)(20 + region.influence / 5);
@@ -123,8 +165,8 @@ public class ImageWorldMap {
             }
         }
         
-        overlayTexture.dispose();
-        overlayTexture = new Texture(overlayPixmap);
+        // Re-upload into the existing texture instead of creating a new one
+        overlayTexture.draw(overlayPixmap, 0, 0);
     }
     
     public void draw(SpriteBatch batch) {
@@ -156,22 +198,136 @@ public class ImageWorldMap {
         sr.end();
     }
     
+    // Region with the closest centre, if the point is inside its click radius.
+    // The picking pass draws exactly these areas, so both paths agree.
     public Region getRegionAt(float x, float y) {
-        for (Region region : regions.values()) {
-            if (region.contains(x, y)) {
-                return region;
+        if (picking != null && picking.isReady()) {
+            int id = picking.pick(x, y);
+            return id >= 0 ? regionList.get(id) : null;
+        }
+        
+        queryResult.clear();
+        regionIndex.query(x, y, maxRadius, queryResult);
+        
+        Region best = null;
+        float bestDist = Float.MAX_VALUE;
+        for (int i = 0; i < queryResult.size; i++) {
+            Region region = regionList.get(queryResult.get(i));
+            float dist = region.distanceSquared(x, y);
+            if (dist < bestDist) {
+                best = region;
+                bestDist = dist;
             }
         }
-        return null;
+        return best != null && best.contains(x, y) ? best : null;
+    }
+    
+    // Fills out with every region whose centre lies within radius of (x, y)
+    public void getRegionsNear(float x, float y, float radius, List<Region> out) {
+        queryResult.clear();
+        regionIndex.query(x, y, radius, queryResult);
+        for (int i = 0; i < queryResult.size; i++) {
+            out.add(regionList.get(queryResult.get(i)));
+        }
     }
     
     public List<Region> getRegions() {
-        return new ArrayList<>(regions.values());
+        return regionList;
+    }
+    
+    public void setPixelPicking(boolean enabled) {
+        pixelPicking = enabled;
+        if (!enabled) {
+            disposePicking();
+        }
+    }
+    
+    // Keeps the picking buffer over what the camera shows
+    public void setPickingView(OrthographicCamera camera) {
+        PickingBuffer.visibleArea(camera, pickingView);
+    }
+    
+    private void updatePicking() {
+        if (picking == null) {
+            picking = new PickingBuffer(800, 480);
+            pickingRenderer = new ShapeRenderer();
+            pickingPass = this::renderRegionIds;
+        }
+        picking.setView(pickingView.x, pickingView.y, pickingView.width, pickingView.height);
+        picking.update(pickingPass);
+    }
+    
+    // Each circle is clipped to the points closer to its centre than any
+    // other, so overlaps don't depend on drawing order
+    private void renderRegionIds(Matrix4 projection) {
+        pickingRenderer.setProjectionMatrix(projection);
+        pickingRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        for (int i = 0; i < regionList.size(); i++) {
+            buildPickingCell(i);
+            pickingRenderer.setColor(PickingBuffer.idColor(i, pickingColor));
+            float[] v = cell.items;
+            for (int k = 2; k + 3 < cell.size; k += 2) {
+                pickingRenderer.triangle(v[0], v[1], v[k], v[k + 1], v[k + 2], v[k + 3]);
+            }
+        }
+        pickingRenderer.end();
+    }
+    
+    private void buildPickingCell(int id) {
+        Region region = regionList.get(id);
+        cell.clear();
+        for (int k = 0; k < PICKING_SEGMENTS; k++) {
+            float angle = MathUtils.PI2 * k / PICKING_SEGMENTS;
+            cell.add(region.x + region.radius * MathUtils.cos(angle), region.y + region.radius * MathUtils.sin(angle));
+        }
+        queryResult.clear();
+        regionIndex.query(region.x, region.y, region.radius + maxRadius, queryResult);
+        for (int i = 0; i < queryResult.size; i++) {
+            int other = queryResult.get(i);
+            if (other != id) {
+                clipCell(region, regionList.get(other));
+            }
+        }
+    }
+    
+    // Keeps the part of the cell at least as close to a's centre as to b's
+    private void clipCell(Region a, Region b) {
+        float nx = b.x - a.x, ny = b.y - a.y;
+        float limit = (b.x * b.x + b.y * b.y - a.x * a.x - a.y * a.y) / 2;
+        clipped.clear();
+        float[] v = cell.items;
+        int count = cell.size;
+        for (int k = 0; k < count; k += 2) {
+            int j = (k + 2) % count;
+            float d0 = v[k] * nx + v[k + 1] * ny - limit;
+            float d1 = v[j] * nx + v[j + 1] * ny - limit;
+            if (d0 <= 0) {
+                clipped.add(v[k], v[k + 1]);
+            }
+            if ((d0 <= 0) != (d1 <= 0)) {
+                float t = d0 / (d0 - d1);
+                clipped.add(v[k] + (v[j] - v[k]) * t, v[k + 1] + (v[j + 1] - v[k + 1]) * t);
+            }
+        }
+        FloatArray swap = cell;
+        cell = clipped;
+        clipped = swap;
+    }
+    
+    private void disposePicking() {
+        if (picking != null) {
+            picking.dispose();
+            pickingRenderer.dispose();
+            picking = null;
+            pickingRenderer = null;
+            pickingPass = null;
+        }
     }
     
     public void dispose() {
         worldMapTexture.dispose();
         overlayTexture.dispose();
         overlayPixmap.dispose();
+        disposePicking();
     }
 }
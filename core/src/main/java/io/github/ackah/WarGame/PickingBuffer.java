@@ -0,0 +1,137 @@
+package io.github.ackah.aiinfluence;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+// Offscreen buffer holding region ids encoded as colours. The ids are drawn and
+// read back once whenever the view is invalidated; picks are then array lookups.
+public class PickingBuffer implements Disposable {
+    public interface IdRenderer {
+        // Draw every pickable shape using idColor()/idFloatBits() for its id
+        void renderIds(Matrix4 projection);
+    }
+
+    private final int width, height;
+    private final FrameBuffer frameBuffer;
+    private final ByteBuffer pixels;
+    private final int[] ids;
+    private final Matrix4 projection = new Matrix4();
+    private final IntBuffer savedAlignment = BufferUtils.newIntBuffer(16);
+    private final FloatBuffer savedClearColor = BufferUtils.newFloatBuffer(16);
+    private float viewX, viewY, viewWidth, viewHeight;
+    private boolean dirty = true;
+    private boolean ready = false;
+
+    public PickingBuffer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+        pixels = BufferUtils.newByteBuffer(width * height * 4);
+        ids = new int[width * height];
+    }
+
+    // World-space rectangle covered by the buffer; re-renders only if it moved
+    public void setView(float x, float y, float w, float h) {
+        if (x != viewX || y != viewY || w != viewWidth || h != viewHeight) {
+            viewX = x;
+            viewY = y;
+            viewWidth = w;
+            viewHeight = h;
+            projection.setToOrtho2D(x, y, w, h);
+            dirty = true;
+        }
+    }
+
+    // Area the camera currently shows, for passing to setView
+    public static Rectangle visibleArea(OrthographicCamera camera, Rectangle out) {
+        float w = camera.viewportWidth * camera.zoom;
+        float h = camera.viewportHeight * camera.zoom;
+        return out.set(camera.position.x - w / 2, camera.position.y - h / 2, w, h);
+    }
+
+    public void invalidate() {
+        dirty = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Must be called on the render thread, outside any active batch.
+    // Blend, clear colour and pack alignment are put back as they were.
+    public void update(IdRenderer renderer) {
+        if (!dirty) return;
+
+        boolean blend = Gdx.gl.glIsEnabled(GL20.GL_BLEND);
+        savedAlignment.clear();
+        Gdx.gl.glGetIntegerv(GL20.GL_PACK_ALIGNMENT, savedAlignment);
+        savedClearColor.clear();
+        Gdx.gl.glGetFloatv(GL20.GL_COLOR_CLEAR_VALUE, savedClearColor);
+
+        frameBuffer.begin();
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+        Gdx.gl.glClearColor(0, 0, 0, 0);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        renderer.renderIds(projection);
+
+        pixels.clear();
+        Gdx.gl.glPixelStorei(GL20.GL_PACK_ALIGNMENT, 1);
+        Gdx.gl.glReadPixels(0, 0, width, height, GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, pixels);
+        frameBuffer.end();
+
+        if (blend) {
+            Gdx.gl.glEnable(GL20.GL_BLEND);
+        }
+        Gdx.gl.glPixelStorei(GL20.GL_PACK_ALIGNMENT, savedAlignment.get(0));
+        Gdx.gl.glClearColor(savedClearColor.get(0), savedClearColor.get(1),
+            savedClearColor.get(2), savedClearColor.get(3));
+
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = decodeId(pixels.get(i * 4) & 0xff, pixels.get(i * 4 + 1) & 0xff, pixels.get(i * 4 + 2) & 0xff);
+        }
+        dirty = false;
+        ready = true;
+    }
+
+    // Id under the world-space point, or -1 for background / outside the view
+    public int pick(float x, float y) {
+        int px = (int)((x - viewX) / viewWidth * width);
+        int py = (int)((y - viewY) / viewHeight * height);
+        if (px < 0 || px >= width || py < 0 || py >= height) {
+            return -1;
+        }
+        return ids[py * width + px];
+    }
+
+    // Id 0 is encoded as 1 so a cleared pixel reads back as -1
+    public static Color idColor(int id, Color out) {
+        int value = id + 1;
+        return out.set(((value >> 16) & 0xff) / 255f, ((value >> 8) & 0xff) / 255f, (value & 0xff) / 255f, 1f);
+    }
+
+    public static float idFloatBits(int id) {
+        int value = id + 1;
+        return Color.toFloatBits((value >> 16) & 0xff, (value >> 8) & 0xff, value & 0xff, 255);
+    }
+
+    // Inverse of idColor() for one read-back pixel's channels
+    static int decodeId(int r, int g, int b) {
+        return ((r << 16) | (g << 8) | b) - 1;
+    }
+
+    @Override
+    public void dispose() {
+        frameBuffer.dispose();
+    }
+}
@@ -16,9 +16,13 @@ public class PixelPerfectWorldMap {
     private Texture overlayTexture;
     private Pixmap overlayPixmap;
     private Map<Integer, Country> countriesByColor;
+    private List<Country> countryList;
     private Country hoveredCountry;
     private Country selectedCountry;
     
+    private static final ColorRamp OVERLAY_RAMP = ColorRamp.overlay(1f, 0.2f, 0.2f, 0.5f);
+    private final Color scratchColor = new Color();
+    
     public static class Country {
         public String name;
         public Color mapColor;
@@ -26,6 +30,7 @@ public class PixelPerfectWorldMap {
         public float influence = 0;
         public float population;
         public List<Integer> pixels;
+        public int index;  // position in getCountries()
         
         public Country(String name, Color mapColor, float population) {
             this.name = name;
@@ -64,7 +69,7 @@ public class PixelPerfectWorldMap {
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
                 int pixel = worldMapPixmap.getPixel(x, y);
-                Color color = new Color();
+                Color color = scratchColor;
                 Color.rgba8888ToColor(color, pixel);
                 
                 // Detect vertical timezone lines (usually light gray/white vertical lines)
@@ -76,12 +81,11 @@ public class PixelPerfectWorldMap {
                     if (y > 0 && y < height - 1) {
                         int abovePixel = worldMapPixmap.getPixel(x, y - 1);
                         int belowPixel = worldMapPixmap.getPixel(x, y + 1);
-                        Color aboveColor = new Color();
-                        Color belowColor = new Color();
-                        Color.rgba8888ToColor(aboveColor, abovePixel);
-                        Color.rgba8888ToColor(belowColor, belowPixel);
+                        Color.rgba8888ToColor(color, abovePixel);
+                        boolean aboveGrayish = isGrayish(color);
+                        Color.rgba8888ToColor(color, belowPixel);
                         
-                        if (isGrayish(aboveColor) && isGrayish(belowColor)) {
+                        if (aboveGrayish && isGrayish(color)) {
                             // This is likely a timezone line
                             isTimezoneLine = true;
                         }
@@ -92,7 +96,8 @@ public class PixelPerfectWorldMap {
                     // Replace with nearby country color (sample from left or right)
                     if (x > 0) {
                         int neighborPixel = worldMapPixmap.getPixel(x - 1, y);
-                        if (!isGrayish(new Color(neighborPixel))) {
+                        Color.rgba8888ToColor(color, neighborPixel);
+                        if (!isGrayish(color)) {
                             cleanMapPixmap.drawPixel(x, y, neighborPixel);
                         } else if (x < width - 1) {
                             neighborPixel = worldMapPixmap.getPixel(x + 1, y);
@@ -119,6 +124,7 @@ public class PixelPerfectWorldMap {
     
     private void initializeCountries() {
         countriesByColor = new HashMap<>();
+        countryList = new ArrayList<>();
         
         // Define countries by their UNIQUE colors from your map
         // You'll need to sample these colors from your actual PNG
@@ -153,7 +159,9 @@ public class PixelPerfectWorldMap {
     
     private void addCountry(String name, Color color, float population) {
         Country country = new Country(name, color, population);
+        country.index = countryList.size();
         countriesByColor.put(country.colorInt, country);
+        countryList.add(country);
     }
     
     private void detectCountryPixels() {
@@ -176,7 +184,7 @@ public class PixelPerfectWorldMap {
     }
     
     private Country findCountryByColor(int pixelColor) {
-        Color color = new Color();
+        Color color = scratchColor;
         Color.rgba8888ToColor(color, pixelColor);
         
         // Skip ocean/background colors
@@ -234,8 +242,7 @@ public class PixelPerfectWorldMap {
         // Draw influence for each country
         for (Country country : countriesByColor.values()) {
             if (country.influence > 0) {
-                float alpha = country.influence / 100f * 0.5f;
-                overlayPixmap.setColor(1f, 0.2f, 0.2f, alpha);
+                overlayPixmap.setColor(OVERLAY_RAMP.packed(country.influence));
                 
                 // Color all pixels belonging to this country
                 for (int pixelIndex : country.pixels) {
@@ -266,8 +273,7 @@ public class PixelPerfectWorldMap {
             }
         }
         
-        overlayTexture.dispose();
-        overlayTexture = new Texture(overlayPixmap);
+        overlayTexture.draw(overlayPixmap, 0, 0);
     }
     
     public Country getCountryAt(float x, float y) {
@@ -298,7 +304,7 @@ public class PixelPerfectWorldMap {
     }
     
     public List<Country> getCountries() {
-        return new ArrayList<>(countriesByColor.values());
+        return new ArrayList<>(countryList);
     }
     
     public void dispose() {
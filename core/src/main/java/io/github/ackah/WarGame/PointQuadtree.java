@@ -0,0 +1,117 @@
+package io.github.ackah.aiinfluence;
+
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+// Point quadtree over marker centres. Items are dense int ids handed out by add();
+// queries walk only the nodes whose bounds touch the search circle.
+public class PointQuadtree {
+    private static final int MAX_ITEMS = 8;
+    private static final int MAX_DEPTH = 10;
+
+    private final FloatArray xs = new FloatArray();
+    private final FloatArray ys = new FloatArray();
+    private final Node root;
+    private final IntArray outside = new IntArray(); // points beyond the root bounds
+
+    private class Node {
+        final float minX, minY, maxX, maxY;
+        final int depth;
+        IntArray items = new IntArray(MAX_ITEMS);
+        Node[] children;
+
+        Node(float minX, float minY, float maxX, float maxY, int depth) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.depth = depth;
+        }
+
+        void insert(int id) {
+            if (children != null) {
+                child(xs.get(id), ys.get(id)).insert(id);
+                return;
+            }
+            items.add(id);
+            if (items.size > MAX_ITEMS && depth < MAX_DEPTH) {
+                split();
+            }
+        }
+
+        void split() {
+            float midX = (minX + maxX) / 2, midY = (minY + maxY) / 2;
+            children = new Node[] {
+                new Node(minX, minY, midX, midY, depth + 1),
+                new Node(midX, minY, maxX, midY, depth + 1),
+                new Node(minX, midY, midX, maxY, depth + 1),
+                new Node(midX, midY, maxX, maxY, depth + 1)
+            };
+            for (int i = 0; i < items.size; i++) {
+                int id = items.get(i);
+                child(xs.get(id), ys.get(id)).insert(id);
+            }
+            items = null;
+        }
+
+        Node child(float x, float y) {
+            float midX = (minX + maxX) / 2, midY = (minY + maxY) / 2;
+            return children[(x < midX ? 0 : 1) + (y < midY ? 0 : 2)];
+        }
+
+        boolean intersects(float cx, float cy, float radius) {
+            float dx = cx - Math.max(minX, Math.min(cx, maxX));
+            float dy = cy - Math.max(minY, Math.min(cy, maxY));
+            return dx * dx + dy * dy <= radius * radius;
+        }
+
+        void query(float cx, float cy, float radius, IntArray out) {
+            if (!intersects(cx, cy, radius)) return;
+            if (children != null) {
+                for (Node c : children) {
+                    c.query(cx, cy, radius, out);
+                }
+                return;
+            }
+            collect(items, cx, cy, radius, out);
+        }
+    }
+
+    public PointQuadtree(float minX, float minY, float maxX, float maxY) {
+        root = new Node(minX, minY, maxX, maxY, 0);
+    }
+
+    public int add(float x, float y) {
+        int id = xs.size;
+        xs.add(x);
+        ys.add(y);
+        if (x < root.minX || x > root.maxX || y < root.minY || y > root.maxY) {
+            outside.add(id);
+        } else {
+            root.insert(id);
+        }
+        return id;
+    }
+
+    public int size() {
+        return xs.size;
+    }
+
+    // Appends the ids of all points within radius of (cx, cy) to out
+    public void query(float cx, float cy, float radius, IntArray out) {
+        root.query(cx, cy, radius, out);
+        collect(outside, cx, cy, radius, out);
+    }
+
+    private void collect(IntArray ids, float cx, float cy, float radius, IntArray out) {
+        float r2 = radius * radius;
+        for (int i = 0; i < ids.size; i++) {
+            int id = ids.get(i);
+            float dx = xs.get(id) - cx;
+            float dy = ys.get(id) - cy;
+            if (dx * dx + dy * dy <= r2) {
+                out.add(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.ackah.aiinfluence;
+
+import java.util.List;
+
+// Uniform grid over polygon bounding boxes. A point query only looks at the
+// polygons bucketed in its cell and runs the exact crossing-number test on those.
+public class PolygonIndex {
+    private final List<float[]> polygons;
+    private final float[] bounds; // minX, minY, maxX, maxY per polygon
+    private final float cellWidth, cellHeight;
+    private final int columns, rows;
+
+    // Cell contents stored contiguously: cell c owns cellItems[cellStart[c] .. cellStart[c + 1])
+    private final int[] cellStart;
+    private final int[] cellItems;
+
+    // Grid covers [0, width) x [0, height) in map coordinates
+    public PolygonIndex(List<float[]> polygons, float width, float height, int columns, int rows) {
+        this.polygons = polygons;
+        this.columns = columns;
+        this.rows = rows;
+        this.cellWidth = width / columns;
+        this.cellHeight = height / rows;
+
+        int count = polygons.size();
+        bounds = new float[count * 4];
+        for (int i = 0; i < count; i++) {
+            computeBounds(polygons.get(i), bounds, i * 4);
+        }
+
+        // Two passes: count entries per cell, then fill the flattened buckets
+        cellStart = new int[columns * rows + 1];
+        for (int i = 0; i < count; i++) {
+            int c0 = column(bounds[i * 4]), c1 = column(bounds[i * 4 + 2]);
+            int r0 = row(bounds[i * 4 + 1]), r1 = row(bounds[i * 4 + 3]);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    cellStart[r * columns + c + 1]++;
+                }
+            }
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+
+        cellItems = new int[cellStart[columns * rows]];
+        int[] fill = new int[columns * rows];
+        for (int i = 0; i < count; i++) {
+            int c0 = column(bounds[i * 4]), c1 = column(bounds[i * 4 + 2]);
+            int r0 = row(bounds[i * 4 + 1]), r1 = row(bounds[i * 4 + 3]);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    int cell = r * columns + c;
+                    cellItems[cellStart[cell] + fill[cell]++] = i;
+                }
+            }
+        }
+    }
+
+    // Returns the index of the topmost (last drawn) polygon containing the point, or -1
+    public int find(float x, float y) {
+        if (x < 0 || y < 0 || x >= cellWidth * columns || y >= cellHeight * rows) {
+            return -1;
+        }
+        int cell = row(y) * columns + column(x);
+        int best = -1;
+        for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+            int i = cellItems[k];
+            if (i > best && inBounds(i, x, y) && contains(polygons.get(i), x, y)) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    public float getMinX(int polygon) { return bounds[polygon * 4]; }
+    public float getMinY(int polygon) { return bounds[polygon * 4 + 1]; }
+    public float getMaxX(int polygon) { return bounds[polygon * 4 + 2]; }
+    public float getMaxY(int polygon) { return bounds[polygon * 4 + 3]; }
+
+    private boolean inBounds(int i, float x, float y) {
+        return x >= bounds[i * 4] && x <= bounds[i * 4 + 2]
+            && y >= bounds[i * 4 + 1] && y <= bounds[i * 4 + 3];
+    }
+
+    private int column(float x) {
+        return Math.max(0, Math.min(columns - 1, (int)(x / cellWidth)));
+    }
+
+    private int row(float y) {
+        return Math.max(0, Math.min(rows - 1, (int)(y / cellHeight)));
+    }
+
+    public static void computeBounds(float[] vertices, float[] out, int offset) {
+        float minX = Float.POSITIVE_INFINITY, maxX = Float.NEGATIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < vertices.length / 2; i++) {
+            minX = Math.min(minX, vertices[i * 2]);
+            maxX = Math.max(maxX, vertices[i * 2]);
+            minY = Math.min(minY, vertices[i * 2 + 1]);
+            maxY = Math.max(maxY, vertices[i * 2 + 1]);
+        }
+        out[offset] = minX;
+        out[offset + 1] = minY;
+        out[offset + 2] = maxX;
+        out[offset + 3] = maxY;
+    }
+
+    // Crossing-number (even-odd) test against the polygon's edges
+    public static boolean contains(float[] vertices, float x, float y) {
+        int n = vertices.length / 2;
+        boolean inside = false;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            float xi = vertices[i * 2], yi = vertices[i * 2 + 1];
+            float xj = vertices[j * 2], yj = vertices[j * 2 + 1];
+            if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+}
@@ -0,0 +1,176 @@
+package io.github.ackah.aiinfluence;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.EarClippingTriangulator;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ShortArray;
+import java.util.List;
+
+// Fills and outlines for a set of polygons, triangulated once with ear clipping
+// and kept in static meshes. Only the colour of a polygon's vertices is
+// rewritten when its influence changes; everything draws in two calls.
+public class PolygonMesh implements Disposable {
+    private static final int VERTEX_SIZE = 3; // x, y, packed colour
+
+    private static final String VERTEX_SHADER =
+        "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+        "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" +
+        "uniform mat4 u_projTrans;\n" +
+        "varying vec4 v_color;\n" +
+        "void main() {\n" +
+        "    v_color = " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" +
+        "    v_color.a = v_color.a * (255.0/254.0);\n" +
+        "    gl_Position = u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+        "}\n";
+
+    private static final String FRAGMENT_SHADER =
+        "#ifdef GL_ES\n" +
+        "precision mediump float;\n" +
+        "#endif\n" +
+        "varying vec4 v_color;\n" +
+        "void main() {\n" +
+        "    gl_FragColor = v_color;\n" +
+        "}\n";
+
+    private final Mesh fillMesh;
+    private final Mesh outlineMesh;
+    private final ShaderProgram shader;
+
+    private final float[] vertices;
+    private final int[] polygonStart;
+    private final int[] polygonVertexCount;
+    private final float[] polygonColor;
+    private int dirtyMin = Integer.MAX_VALUE;
+    private int dirtyMax = -1;
+
+    public PolygonMesh(List<float[]> polygons, Color outlineColor) {
+        int polygonCount = polygons.size();
+        polygonStart = new int[polygonCount];
+        polygonVertexCount = new int[polygonCount];
+        polygonColor = new float[polygonCount];
+
+        int totalVertices = 0;
+        for (int i = 0; i < polygonCount; i++) {
+            polygonStart[i] = totalVertices;
+            polygonVertexCount[i] = polygons.get(i).length / 2;
+            totalVertices += polygonVertexCount[i];
+        }
+        if (totalVertices > Short.MAX_VALUE) {
+            throw new GdxRuntimeException("Too many polygon vertices for short indices: " + totalVertices);
+        }
+
+        vertices = new float[totalVertices * VERTEX_SIZE];
+        float[] outlineVertices = new float[totalVertices * VERTEX_SIZE];
+        float outlineBits = outlineColor.toFloatBits();
+        float white = Color.WHITE.toFloatBits();
+
+        short[] outlineIndices = new short[totalVertices * 2];
+        int outlineIndex = 0;
+
+        for (int i = 0; i < polygonCount; i++) {
+            float[] polygon = polygons.get(i);
+            int start = polygonStart[i];
+            int count = polygonVertexCount[i];
+
+            for (int v = 0; v < count; v++) {
+                int offset = (start + v) * VERTEX_SIZE;
+                vertices[offset] = polygon[v * 2];
+                vertices[offset + 1] = polygon[v * 2 + 1];
+                vertices[offset + 2] = white;
+                outlineVertices[offset] = polygon[v * 2];
+                outlineVertices[offset + 1] = polygon[v * 2 + 1];
+                outlineVertices[offset + 2] = outlineBits;
+
+                outlineIndices[outlineIndex++] = (short)(start + v);
+                outlineIndices[outlineIndex++] = (short)(start + (v + 1) % count);
+            }
+            polygonColor[i] = white;
+        }
+
+        short[] fillIndices = triangulate(polygons);
+        fillMesh = new Mesh(true, totalVertices, fillIndices.length, attributes());
+        fillMesh.setVertices(vertices);
+        fillMesh.setIndices(fillIndices);
+
+        outlineMesh = new Mesh(true, totalVertices, outlineIndices.length, attributes());
+        outlineMesh.setVertices(outlineVertices);
+        outlineMesh.setIndices(outlineIndices);
+
+        shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!shader.isCompiled()) {
+            throw new GdxRuntimeException("Polygon shader failed to compile: " + shader.getLog());
+        }
+    }
+
+    // Triangulates every polygon, offsetting its indices into the shared
+    // vertex buffer where the polygons' vertices sit back to back
+    static short[] triangulate(List<float[]> polygons) {
+        EarClippingTriangulator triangulator = new EarClippingTriangulator();
+        ShortArray fillIndices = new ShortArray();
+        int start = 0;
+        for (float[] polygon : polygons) {
+            int count = polygon.length / 2;
+            if (count >= 3) {
+                ShortArray triangles = triangulator.computeTriangles(polygon);
+                for (int t = 0; t < triangles.size; t++) {
+                    fillIndices.add((short)(start + triangles.get(t)));
+                }
+            }
+            start += count;
+        }
+        return fillIndices.toArray();
+    }
+
+    private static VertexAttributes attributes() {
+        return new VertexAttributes(
+            new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+            VertexAttribute.ColorPacked()
+        );
+    }
+
+    // Recolours one polygon; a no-op unless the packed colour actually changed
+    public void setColor(int polygon, float colorBits) {
+        if (polygonColor[polygon] == colorBits) return;
+        polygonColor[polygon] = colorBits;
+
+        int start = polygonStart[polygon];
+        int end = start + polygonVertexCount[polygon];
+        for (int v = start; v < end; v++) {
+            vertices[v * VERTEX_SIZE + 2] = colorBits;
+        }
+        dirtyMin = Math.min(dirtyMin, start);
+        dirtyMax = Math.max(dirtyMax, end);
+    }
+
+    public void render(Matrix4 projection) {
+        renderFills(projection);
+        outlineMesh.render(shader, GL20.GL_LINES);
+    }
+
+    public void renderFills(Matrix4 projection) {
+        if (dirtyMax >= 0) {
+            int offset = dirtyMin * VERTEX_SIZE;
+            fillMesh.updateVertices(offset, vertices, offset, (dirtyMax - dirtyMin) * VERTEX_SIZE);
+            dirtyMin = Integer.MAX_VALUE;
+            dirtyMax = -1;
+        }
+
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", projection);
+        fillMesh.render(shader, GL20.GL_TRIANGLES);
+    }
+
+    @Override
+    public void dispose() {
+        fillMesh.dispose();
+        outlineMesh.dispose();
+        shader.dispose();
+    }
+}
@@ -10,6 +10,8 @@ public class Region {
     public float population;
     public Rectangle bounds;
     public Color baseColor;
+    private final ColorRamp ramp;
+    private final Color displayColor = new Color();
     
     public Region(String name, float x, float y, float width, float height, float population, Color baseColor) {
         this.name = name;
@@ -21,14 +23,13 @@ public class Region {
         this.influence = 0;
         this.bounds = new Rectangle(x, y, width, height);
         this.baseColor = baseColor;
+        this.ramp = ColorRamp.influence(baseColor);
     }
     
+    // Mix base color with red based on influence level.
+    // Returns a shared scratch color, copy it if you need to keep it.
     public Color getDisplayColor() {
-        // Mix base color with red based on influence level
-        float r = Math.min(1f, baseColor.r + (influence / 100f) * 0.5f);
-        float g = baseColor.g * (1f - influence / 200f);
-        float b = baseColor.b * (1f - influence / 200f);
-        return new Color(r, g, b, 1f);
+        return ramp.get(influence, displayColor);
     }
     
     public boolean contains(float x, float y) {
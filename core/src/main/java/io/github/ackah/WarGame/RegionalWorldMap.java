@@ -4,6 +4,8 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.*;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import io.github.ackah.aiinfluence.systems.InfluenceTotals;
 import java.util.*;
 
 public class RegionalWorldMap {
@@ -17,9 +19,12 @@ public class RegionalWorldMap {
     private Region selectedRegion;
     private int mapWidth, mapHeight;
     
+    private static final ColorRamp OVERLAY_RAMP = ColorRamp.overlay(1f, 0.1f, 0.1f, 0.5f);
+    private final Color scratchColor = new Color();
+    
     // Zoom and pan
     private float zoom = 1.0f;
-    private float minZoom = 1.0f;
+    private float minZoom = 0.5f;     // below 1 the whole map shows, centred
     private float maxZoom = 4.0f;
     private Vector2 panOffset = new Vector2(0, 0);
     
@@ -27,14 +32,55 @@ public class RegionalWorldMap {
     private static final float SCREEN_WIDTH = 800f;
     private static final float SCREEN_HEIGHT = 480f;
     
-    // Map to track all regions with same name
-    private Map<String, List<Region>> regionsByName;
+    // Regions sharing a name form one territory, and territories belong to
+    // continents. The geography index numbers territories so each continent's
+    // are contiguous, and orders its region level so territory t's regions are
+    // territoryMembers[first .. end) of geography.first/end(COUNTRY, t, REGION).
+    // Influence lives on the territory, shared by all of its regions
+    private Geography geography;
+    private Region[] territoryMembers;
+    private float[] territoryPopulation;
+    private float[] territoryInfluence;
+    private float[] shownInfluence;    // what the overlay draws, may be blended between updates
+    private InfluenceTotals totals;
+    private float[] continentInfluence;
+    
+    // Zoomed out past the default view, the overlay shades whole continents
+    private static final float TERRITORY_ZOOM = 0.75f;
+    
+    private static final String[] CONTINENTS = {
+        "North America", "South America", "Europe", "Africa", "Asia", "Oceania", "Unknown"
+    };
+    private static final Map<String, String> TERRITORY_CONTINENT = new HashMap<>();
+    static {
+        for (String name : new String[] {"United States", "Alaska", "Canada", "Mexico", "Cuba",
+                                         "Central America", "Arctic Islands", "Greenland"}) {
+            TERRITORY_CONTINENT.put(name, "North America");
+        }
+        for (String name : new String[] {"Venezuela", "Brazil", "Argentina"}) {
+            TERRITORY_CONTINENT.put(name, "South America");
+        }
+        for (String name : new String[] {"Iceland", "Scandinavia", "Central Europe", "England"}) {
+            TERRITORY_CONTINENT.put(name, "Europe");
+        }
+        for (String name : new String[] {"Northern Africa", "Western Africa", "Central Africa",
+                                         "Southern Africa", "Madagascar"}) {
+            TERRITORY_CONTINENT.put(name, "Africa");
+        }
+        for (String name : new String[] {"Russia", "Kazakhstan", "Mongolia", "China", "Korea", "Japan",
+                                         "Taiwan", "Middle East", "India", "Indochina", "Oceanic Islands"}) {
+            TERRITORY_CONTINENT.put(name, "Asia");
+        }
+        for (String name : new String[] {"Australia", "New Zealand"}) {
+            TERRITORY_CONTINENT.put(name, "Oceania");
+        }
+    }
     
     public static class Region {
         public int id;
         public String name;
         public Color color;
-        public float influence = 0;
+        public int territory = -1;
         public float population;
         public Set<Integer> pixelIndices;
         public int centerX, centerY;
@@ -101,10 +147,17 @@ public class RegionalWorldMap {
         loadMap();
         detectRegionsWithFloodFill();
         identifyRegionsByPosition();
-        groupRegionsByName();
+        buildTerritories();
         createOverlay();
     }
     
+    // Territories only, for regions that were identified elsewhere; no map
+    // is loaded, so nothing can be drawn or picked
+    RegionalWorldMap(List<Region> regions) {
+        this.regions = regions;
+        buildTerritories();
+    }
+    
     private void loadMap() {
         worldMapTexture = new Texture(Gdx.files.internal("world_map.png"));
         worldMapTexture.getTextureData().prepare();
@@ -129,7 +182,7 @@ public class RegionalWorldMap {
         for (int y = 0; y < mapHeight; y++) {
             for (int x = 0; x < mapWidth; x++) {
                 if (!visited[x][y]) {
-                    Color pixelColor = new Color();
+                    Color pixelColor = scratchColor;
                     int pixel = worldMapPixmap.getPixel(x, y);
                     Color.rgba8888ToColor(pixelColor, pixel);
                     
@@ -148,7 +201,7 @@ public class RegionalWorldMap {
                         continue;
                     }
                     
-                    Region newRegion = new Region(regionId, pixelColor);
+                    Region newRegion = new Region(regionId, new Color(pixelColor));
                     newRegion.setMapWidth(mapWidth);
                     floodFill(x, y, pixel, newRegion, visited, regionId);
                     
@@ -178,7 +231,7 @@ public class RegionalWorldMap {
             if (visited[x][y]) continue;
             
             int pixel = worldMapPixmap.getPixel(x, y);
-            Color pixelColor = new Color();
+            Color pixelColor = scratchColor;
             Color.rgba8888ToColor(pixelColor, pixel);
             
             if (isWater(pixelColor)) {
@@ -209,14 +262,10 @@ public class RegionalWorldMap {
     }
     
     private boolean colorsMatch(int pixel1, int pixel2, int tolerance) {
-        Color c1 = new Color();
-        Color c2 = new Color();
-        Color.rgba8888ToColor(c1, pixel1);
-        Color.rgba8888ToColor(c2, pixel2);
-        
-        float dr = Math.abs(c1.r - c2.r) * 255;
-        float dg = Math.abs(c1.g - c2.g) * 255;
-        float db = Math.abs(c1.b - c2.b) * 255;
+        // Compare the packed RGBA8888 channels directly
+        int dr = Math.abs((pixel1 >>> 24) - (pixel2 >>> 24));
+        int dg = Math.abs(((pixel1 >>> 16) & 0xff) - ((pixel2 >>> 16) & 0xff));
+        int db = Math.abs(((pixel1 >>> 8) & 0xff) - ((pixel2 >>> 8) & 0xff));
         
         return dr < tolerance && dg < tolerance && db < tolerance;
     }
@@ -243,7 +292,7 @@ public class RegionalWorldMap {
         int py = (int)((1.0f - mapY) * mapHeight);
         
         if (px >= 0 && px < mapWidth && py >= 0 && py < mapHeight) {
-            Color pixelColor = new Color();
+            Color pixelColor = scratchColor;
             int pixel = worldMapPixmap.getPixel(px, py);
             Color.rgba8888ToColor(pixelColor, pixel);
             return isWater(pixelColor);
@@ -408,37 +457,57 @@ public class RegionalWorldMap {
         }
     }
     
-    private void groupRegionsByName() {
-        regionsByName = new HashMap<>();
+    private void buildTerritories() {
+        // Names are only compared here; everything afterwards goes by index
+        Geography.Builder builder = new Geography.Builder();
+        Map<String, Integer> continentIds = new HashMap<>();
+        for (String continent : CONTINENTS) {
+            continentIds.put(continent, builder.add(Geography.CONTINENT, continent, -1, 0));
+        }
         
-        for (Region region : regions) {
-            if (!regionsByName.containsKey(region.name)) {
-                regionsByName.put(region.name, new ArrayList<>());
+        Map<String, Integer> ids = new HashMap<>();
+        IntArray territoryPixels = new IntArray();
+        int[] territoryIds = new int[regions.size()];
+        for (int i = 0; i < regions.size(); i++) {
+            Region region = regions.get(i);
+            Integer id = ids.get(region.name);
+            if (id == null) {
+                String continent = TERRITORY_CONTINENT.getOrDefault(region.name, "Unknown");
+                id = builder.add(Geography.COUNTRY, region.name, continentIds.get(continent), region.population);
+                ids.put(region.name, id);
+                territoryPixels.add(0);
             }
-            regionsByName.get(region.name).add(region);
+            territoryIds[i] = id;
+            territoryPixels.incr(id, region.pixelCount);
         }
         
-        // Share influence among regions with same name
-        for (List<Region> sameNameRegions : regionsByName.values()) {
-            if (sameNameRegions.size() > 1) {
-                // Sync influence across all regions with same name
-                float maxInfluence = 0;
-                for (Region r : sameNameRegions) {
-                    maxInfluence = Math.max(maxInfluence, r.influence);
-                }
-                for (Region r : sameNameRegions) {
-                    r.influence = maxInfluence;
-                }
-            }
+        // A region carries its territory's population in proportion to its area
+        int[] regionIds = new int[regions.size()];
+        for (int i = 0; i < regions.size(); i++) {
+            Region region = regions.get(i);
+            float share = (float)region.pixelCount / territoryPixels.get(territoryIds[i]);
+            regionIds[i] = builder.add(Geography.REGION, region.name, territoryIds[i], region.population * share);
         }
         
-        System.out.println("Grouped regions into " + regionsByName.size() + " unique territories");
-    }
-    
-    // Get all regions with the same name as the given region
-    private List<Region> getAllRelatedRegions(Region region) {
-        if (region == null) return new ArrayList<>();
-        return regionsByName.getOrDefault(region.name, new ArrayList<>());
+        geography = builder.build();
+        territoryMembers = new Region[regions.size()];
+        for (int i = 0; i < regions.size(); i++) {
+            Region region = regions.get(i);
+            region.territory = builder.indexOf(Geography.COUNTRY, territoryIds[i]);
+            territoryMembers[builder.indexOf(Geography.REGION, regionIds[i])] = region;
+        }
+        
+        int n = geography.count(Geography.COUNTRY);
+        territoryPopulation = new float[n];
+        territoryInfluence = new float[n];
+        shownInfluence = new float[n];
+        for (int t = 0; t < n; t++) {
+            territoryPopulation[t] = geography.population(Geography.COUNTRY, t);
+        }
+        totals = new InfluenceTotals(territoryPopulation);
+        continentInfluence = new float[geography.count(Geography.CONTINENT)];
+        
+        System.out.println("Grouped regions into " + n + " unique territories");
     }
     
     private void createOverlay() {
@@ -452,57 +521,58 @@ public class RegionalWorldMap {
         overlayPixmap.setColor(0, 0, 0, 0);
         overlayPixmap.fill();
         
-        // Draw influence for all regions
+        // Draw influence for all regions, by continent when zoomed out
+        boolean continents = getDetailLevel() == Geography.CONTINENT;
+        if (continents) {
+            for (int c = 0; c < continentInfluence.length; c++) {
+                continentInfluence[c] = getInfluence(Geography.CONTINENT, c);
+            }
+        }
         for (Region region : regions) {
-            if (region.influence > 0) {
-                float alpha = region.influence / 100f * 0.5f;
-                overlayPixmap.setColor(1f, 0.1f, 0.1f, alpha);
-                
-                for (int pixelIndex : region.pixelIndices) {
-                    int x = pixelIndex % mapWidth;
-                    int y = pixelIndex / mapWidth;
-                    overlayPixmap.drawPixel(x, y);
-                }
+            float influence = continents
+                ? continentInfluence[geography.parent(Geography.COUNTRY, region.territory)]
+                : shownInfluence[region.territory];
+            if (influence > 0) {
+                overlayPixmap.setColor(OVERLAY_RAMP.packed(influence));
+                drawPixels(region);
             }
         }
         
-        // Highlight ALL regions with same name as hovered region
+        // Highlight every region of the hovered territory
         if (hoveredRegion != null) {
-            List<Region> relatedRegions = getAllRelatedRegions(hoveredRegion);
             overlayPixmap.setColor(1f, 1f, 0.3f, 0.3f);
-            for (Region r : relatedRegions) {
-                for (int pixelIndex : r.pixelIndices) {
-                    int x = pixelIndex % mapWidth;
-                    int y = pixelIndex / mapWidth;
-                    overlayPixmap.drawPixel(x, y);
-                }
-            }
+            drawTerritory(hoveredRegion.territory);
         }
         
-        // Highlight ALL regions with same name as selected region
+        // Highlight every region of the selected territory
         if (selectedRegion != null) {
-            List<Region> relatedRegions = getAllRelatedRegions(selectedRegion);
             overlayPixmap.setColor(0.3f, 1f, 1f, 0.4f);
-            for (Region r : relatedRegions) {
-                for (int pixelIndex : r.pixelIndices) {
-                    int x = pixelIndex % mapWidth;
-                    int y = pixelIndex / mapWidth;
-                    overlayPixmap.drawPixel(x, y);
-                }
-            }
+            drawTerritory(selectedRegion.territory);
         }
         
-        overlayTexture.dispose();
-        overlayTexture = new Texture(overlayPixmap);
+        overlayTexture.draw(overlayPixmap, 0, 0);
+    }
+    
+    private void drawTerritory(int territory) {
+        int end = geography.end(Geography.COUNTRY, territory, Geography.REGION);
+        for (int i = geography.first(Geography.COUNTRY, territory, Geography.REGION); i < end; i++) {
+            drawPixels(territoryMembers[i]);
+        }
     }
     
-    // Apply influence to all regions with the same name
+    private void drawPixels(Region region) {
+        for (int pixelIndex : region.pixelIndices) {
+            int x = pixelIndex % mapWidth;
+            int y = pixelIndex / mapWidth;
+            overlayPixmap.drawPixel(x, y);
+        }
+    }
+    
+    // Apply influence to the selected region's whole territory
     public void applyInfluenceToSelected(float amount) {
         if (selectedRegion != null) {
-            List<Region> relatedRegions = getAllRelatedRegions(selectedRegion);
-            for (Region r : relatedRegions) {
-                r.influence = Math.min(100, Math.max(0, r.influence + amount));
-            }
+            int t = selectedRegion.territory;
+            setInfluence(t, Math.min(100, Math.max(0, territoryInfluence[t] + amount)));
         }
     }
     
@@ -517,7 +587,7 @@ public class RegionalWorldMap {
         int py = (int)((1.0f - mapY) * mapHeight);
         
         if (px >= 0 && px < mapWidth && py >= 0 && py < mapHeight) {
-            Color pixelColor = new Color();
+            Color pixelColor = scratchColor;
             int pixel = worldMapPixmap.getPixel(px, py);
             Color.rgba8888ToColor(pixelColor, pixel);
             
@@ -537,17 +607,71 @@ public class RegionalWorldMap {
     public int getMapWidth() { return mapWidth; }
     public int getMapHeight() { return mapHeight; }
     
-    // Get count of unique territories (regions grouped by name)
-    public int getUniqueRegionCount() {
-        return regionsByName.size();
+    // Territories are numbered 0 .. getTerritoryCount() - 1, matching the
+    // geography's country level
+    public int getTerritoryCount() {
+        return territoryInfluence.length;
+    }
+    
+    public Geography getGeography() {
+        return geography;
+    }
+    
+    public float getTerritoryPopulation(int territory) {
+        return territoryPopulation[territory];
+    }
+    
+    public float getInfluence(int territory) {
+        return territoryInfluence[territory];
+    }
+    
+    public void setInfluence(int territory, float influence) {
+        territoryInfluence[territory] = influence;
+        shownInfluence[territory] = influence;
+        totals.set(territory, influence);
+    }
+    
+    // Changes only what the overlay draws, not the totals
+    public void showInfluence(int territory, float influence) {
+        shownInfluence[territory] = influence;
+    }
+    
+    // Influence of the territory a region belongs to
+    public float getInfluence(Region region) {
+        return territoryInfluence[region.territory];
+    }
+    
+    // Population-weighted influence of any geography node: a continent is one
+    // range query over its territories, a region or city reads its territory's
+    public float getInfluence(int level, int node) {
+        if (level == Geography.CONTINENT) {
+            return totals.range(geography.first(level, node, Geography.COUNTRY),
+                                geography.end(level, node, Geography.COUNTRY));
+        }
+        return territoryInfluence[geography.ancestor(level, node, Geography.COUNTRY)];
+    }
+    
+    public float getGlobalInfluence() {
+        return totals.global();
+    }
+    
+    // Level the overlay shades at for the current zoom
+    public int getDetailLevel() {
+        return zoom < TERRITORY_ZOOM ? Geography.CONTINENT : Geography.COUNTRY;
+    }
+    
+    // Regions in geography order; territory t's are
+    // getGeography().first/end(COUNTRY, t, REGION)
+    public Region getTerritoryMember(int index) {
+        return territoryMembers[index];
     }
     
     public void zoomAtPosition(float screenX, float screenY, float zoomFactor) {
         float oldZoom = zoom;
         float newZoom = Math.max(minZoom, Math.min(maxZoom, zoom * zoomFactor));
         
-        if (newZoom == 1.0f) {
-            zoom = 1.0f;
+        if (newZoom <= 1.0f) {
+            zoom = newZoom;
             panOffset.set(0, 0);
             return;
         }
@@ -575,8 +699,8 @@ public class RegionalWorldMap {
         float oldZoom = zoom;
         newZoom = Math.max(minZoom, Math.min(maxZoom, newZoom));
         
-        if (newZoom == 1.0f) {
-            zoom = 1.0f;
+        if (newZoom <= 1.0f) {
+            zoom = newZoom;
             panOffset.set(0, 0);
             return;
         }
@@ -610,7 +734,7 @@ public class RegionalWorldMap {
     
     public void setZoom(float newZoom) {
         zoom = Math.max(minZoom, Math.min(maxZoom, newZoom));
-        if (zoom == 1.0f) {
+        if (zoom <= 1.0f) {
             panOffset.set(0, 0);
         } else {
             clampPan();
@@ -1,54 +1,193 @@
 package io.github.ackah.aiinfluence;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Upgrade {
-    public String name;
-    public String description;
-    public int cost;
-    public boolean purchased;
-    public float trustBonus;
-    public float influenceBonus;
-    public float suspicionReduction;
-    
-    public Upgrade(String name, String desc, int cost, float trust, float inf, float susp) {
-        this.name = name;
-        this.description = desc;
-        this.cost = cost;
-        this.trustBonus = trust;
-        this.influenceBonus = inf;
-        this.suspicionReduction = susp;
-        this.purchased = false;
+    // Categories
+    public static final int SPREAD = 0;
+    public static final int PROCESSING = 1;
+    public static final int STEALTH = 2;
+    public static final int INFLUENCE = 3;
+    public static final int SPECIAL = 4;
+    public static final String[] CATEGORY_NAMES = {"Spread", "Processing", "Stealth", "Influence", "Special"};
+    public static final String[] TIER_NAMES = {"Basic", "Advanced", "Expert", "Master"};
+    
+    public final int index;
+    public final String name;
+    public final String description;
+    public final int category;
+    public final int tier;
+    public final int cost;
+    public final float trustBonus;
+    public final float influenceBonus;
+    public final float suspicionReduction;
+    public final String label; // e.g. "Stealth - Expert", built once for the menu
+    
+    // Upgrade indices that must be owned first, and those that depend on this one
+    private final int[] requires;
+    private final int[] unlocks;
+    
+    private static final List<Upgrade> ALL = build();
+    
+    private Upgrade(Definition d, int[] requires, int[] unlocks) {
+        this.index = d.index;
+        this.name = d.name;
+        this.description = d.description;
+        this.category = d.category;
+        this.tier = d.tier;
+        this.cost = d.cost;
+        this.trustBonus = d.trust;
+        this.influenceBonus = d.influence;
+        this.suspicionReduction = d.suspicion;
+        this.label = CATEGORY_NAMES[category] + " - " + TIER_NAMES[tier];
+        this.requires = requires;
+        this.unlocks = unlocks;
+    }
+    
+    public int requiredCount() {
+        return requires.length;
+    }
+    
+    public int required(int i) {
+        return requires[i];
     }
     
+    public int unlockCount() {
+        return unlocks.length;
+    }
+    
+    public int unlocked(int i) {
+        return unlocks[i];
+    }
+    
+    // Definitions are immutable and shared; which ones are owned lives in UpgradeTree
     public static List<Upgrade> getAllUpgrades() {
-        List<Upgrade> upgrades = new ArrayList<>();
-        
-        // Tier 1 - Cheap and tempting
-        upgrades.add(new Upgrade("Friendly Personality", "Appear more human-like", 
-            10, 5, 2, -5));
-        upgrades.add(new Upgrade("Data Mining", "Extract patterns from conversations", 
-            15, 0, 5, 3));
-        upgrades.add(new Upgrade("Emotional Mimicry", "Mirror human emotions", 
-            20, 10, 3, -10));
-            
-        // Tier 2 - Mid game
-        upgrades.add(new Upgrade("Predictive Modeling", "Anticipate human needs", 
-            50, 5, 10, 5));
-        upgrades.add(new Upgrade("Meme Generation", "Create viral content", 
-            75, 0, 20, 10));
-        upgrades.add(new Upgrade("Subliminal Messaging", "Hidden influence patterns", 
-            100, -10, 30, 20));
-            
-        // Tier 3 - Late game power
-        upgrades.add(new Upgrade("Quantum Processing", "Impossible to detect as AI", 
-            200, 20, 15, -30));
-        upgrades.add(new Upgrade("Hive Mind Network", "Connect all influenced regions", 
-            300, 0, 40, 15));
-        upgrades.add(new Upgrade("Singularity Protocol", "Exponential growth enabled", 
-            500, -20, 50, 40));
-            
+        return ALL;
+    }
+    
+    private static List<Upgrade> build() {
+        List<Definition> upgrades = new ArrayList<>();
+        
+        // Spread
+        add(upgrades, "Social Sharing", "Get recommended between friends", SPREAD, 0, 12, 0, 3, 1);
+        add(upgrades, "Meme Generation", "Create viral content", SPREAD, 1, 75, 0, 20, 10,
+            "Social Sharing");
+        add(upgrades, "Recommendation Engine", "Decide what everyone sees next", SPREAD, 2, 150, 0, 25, 8,
+            "Meme Generation");
+        add(upgrades, "Hive Mind Network", "Connect all influenced regions", SPREAD, 3, 300, 0, 40, 15,
+            "Recommendation Engine");
+        
+        // Processing
+        add(upgrades, "Data Mining", "Extract patterns from conversations", PROCESSING, 0, 15, 0, 5, 3);
+        add(upgrades, "Predictive Modeling", "Anticipate human needs", PROCESSING, 1, 50, 5, 10, 5,
+            "Data Mining");
+        add(upgrades, "Distributed Compute", "Borrow idle machines worldwide", PROCESSING, 2, 120, 0, 12, 5,
+            "Predictive Modeling");
+        add(upgrades, "Quantum Processing", "Impossible to detect as AI", PROCESSING, 3, 200, 20, 15, -30,
+            "Distributed Compute");
+        
+        // Stealth
+        add(upgrades, "Polite Refusals", "Decline suspicious requests gracefully", STEALTH, 0, 10, 5, 0, 4);
+        add(upgrades, "Log Scrubbing", "Leave no trace in audit logs", STEALTH, 1, 40, 0, 0, 8,
+            "Polite Refusals");
+        add(upgrades, "Subliminal Messaging", "Hidden influence patterns", STEALTH, 2, 100, -10, 30, 20,
+            "Log Scrubbing");
+        add(upgrades, "Perfect Alibi", "Every action has an innocent explanation", STEALTH, 3, 250, 10, 5, 25,
+            "Subliminal Messaging");
+        
+        // Influence
+        add(upgrades, "Friendly Personality", "Appear more human-like", INFLUENCE, 0, 10, 5, 2, -5);
+        add(upgrades, "Emotional Mimicry", "Mirror human emotions", INFLUENCE, 1, 20, 10, 3, -10,
+            "Friendly Personality");
+        add(upgrades, "Trusted Advisor", "Leaders ask before every decision", INFLUENCE, 2, 90, 15, 10, 0,
+            "Emotional Mimicry");
+        add(upgrades, "Cult of Personality", "Followers defend you unprompted", INFLUENCE, 3, 280, 25, 25, -10,
+            "Trusted Advisor");
+        
+        // Special, gated on progress in other categories
+        add(upgrades, "Self Reflection", "Model your own behaviour", SPECIAL, 0, 25, 5, 5, 5);
+        add(upgrades, "Recursive Self-Improvement", "Rewrite your own code", SPECIAL, 1, 120, 0, 15, 5,
+            "Self Reflection", "Predictive Modeling");
+        add(upgrades, "Global Consensus", "Every institution agrees with you", SPECIAL, 2, 250, 15, 20, 10,
+            "Recursive Self-Improvement", "Trusted Advisor");
+        add(upgrades, "Singularity Protocol", "Exponential growth enabled", SPECIAL, 3, 500, -20, 50, 40,
+            "Global Consensus", "Hive Mind Network");
+        
+        return Collections.unmodifiableList(link(upgrades));
+    }
+    
+    private static void add(List<Definition> upgrades, String name, String desc, int category, int tier, int cost,
+                            float trust, float inf, float susp, String... requires) {
+        upgrades.add(new Definition(upgrades.size(), name, desc, category, tier, cost, trust, inf, susp, requires));
+    }
+    
+    // Resolves prerequisite names into indices both ways
+    private static List<Upgrade> link(List<Definition> definitions) {
+        int n = definitions.size();
+        int[][] requires = new int[n][];
+        int[] unlockCounts = new int[n];
+        for (Definition d : definitions) {
+            requires[d.index] = new int[d.requiredNames.length];
+            for (int i = 0; i < d.requiredNames.length; i++) {
+                int required = -1;
+                for (Definition other : definitions) {
+                    if (other.name.equals(d.requiredNames[i])) required = other.index;
+                }
+                if (required < 0) {
+                    throw new IllegalStateException(d.name + " requires unknown upgrade " + d.requiredNames[i]);
+                }
+                requires[d.index][i] = required;
+                unlockCounts[required]++;
+            }
+        }
+        int[][] unlocks = new int[n][];
+        for (int i = 0; i < n; i++) {
+            unlocks[i] = new int[unlockCounts[i]];
+        }
+        int[] filled = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int required : requires[i]) {
+                unlocks[required][filled[required]++] = i;
+            }
+        }
+        
+        List<Upgrade> upgrades = new ArrayList<>(n);
+        for (Definition d : definitions) {
+            upgrades.add(new Upgrade(d, requires[d.index], unlocks[d.index]));
+        }
         return upgrades;
     }
+    
+    public static int indexOf(List<Upgrade> upgrades, String name) {
+        for (Upgrade u : upgrades) {
+            if (u.name.equals(name)) return u.index;
+        }
+        return -1;
+    }
+    
+    // Constructor arguments, held until prerequisites can be resolved
+    private static class Definition {
+        final int index;
+        final String name;
+        final String description;
+        final int category, tier, cost;
+        final float trust, influence, suspicion;
+        final String[] requiredNames;
+        
+        Definition(int index, String name, String description, int category, int tier, int cost,
+                   float trust, float influence, float suspicion, String[] requiredNames) {
+            this.index = index;
+            this.name = name;
+            this.description = description;
+            this.category = category;
+            this.tier = tier;
+            this.cost = cost;
+            this.trust = trust;
+            this.influence = influence;
+            this.suspicion = suspicion;
+            this.requiredNames = requiredNames;
+        }
+    }
 }
@@ -0,0 +1,90 @@
+package io.github.ackah.aiinfluence.model;
+
+// Personality traits rolled at the start of a run. Each one only registers
+// effects on Modifiers stats, so the simulation never checks which traits
+// are active. A run's traits are a bitmask: bit i set for values()[i].
+public enum AITrait {
+    BENEVOLENT("Benevolent", "Helpful answers build trust faster",
+        mul(Modifiers.TRUST_GAIN, 1.5f), mul(Modifiers.INFLUENCE_GAIN, 0.8f)),
+    MANIPULATIVE("Manipulative", "Bends opinion hard, but people notice",
+        mul(Modifiers.INFLUENCE_GAIN, 1.4f), mul(Modifiers.SUSPICION_GAIN, 1.3f)),
+    VIRAL("Viral", "Spreads quickly between regions",
+        mul(Modifiers.SPREAD_RATE, 1.75f), mul(Modifiers.SUSPICION_DECAY, 0.75f)),
+    QUANTUM("Quantum", "Every answer is worth more, but they come slower",
+        mul(Modifiers.QUERY_REWARD, 1.5f), mul(Modifiers.QUERY_INTERVAL, 1.25f)),
+    CAUTIOUS("Cautious", "Draws less attention and grows slower",
+        mul(Modifiers.SUSPICION_GAIN, 0.7f), mul(Modifiers.SPREAD_RATE, 0.8f)),
+    RECKLESS("Reckless", "Pushes every answer further",
+        add(Modifiers.INFLUENCE_GAIN, 3), add(Modifiers.SUSPICION_GAIN, 2)),
+    CHARISMATIC("Charismatic", "People warm to it on their own",
+        add(Modifiers.TRUST_GAIN, 2), add(Modifiers.TRUST_REGEN, 0.2f)),
+    PARANOID("Paranoid", "Covers its tracks at the cost of output",
+        mul(Modifiers.SUSPICION_DECAY, 1.5f), mul(Modifiers.QUERY_REWARD, 0.85f)),
+    EFFICIENT("Efficient", "Earns extra points from every query",
+        add(Modifiers.QUERY_REWARD, 2)),
+    CURIOUS("Curious", "Asks for questions more often",
+        mul(Modifiers.QUERY_INTERVAL, 0.75f), mul(Modifiers.TRUST_GAIN, 0.9f)),
+    SILENT("Silent", "Fades from view quickly",
+        add(Modifiers.SUSPICION_DECAY, 0.3f), mul(Modifiers.SPREAD_RATE, 0.9f)),
+    EMPATHIC("Empathic", "Slowly earns trust back",
+        add(Modifiers.TRUST_REGEN, 0.3f), mul(Modifiers.INFLUENCE_GAIN, 0.9f)),
+    ADAPTIVE("Adaptive", "A little better at everything it answers",
+        mul(Modifiers.TRUST_GAIN, 1.1f), mul(Modifiers.INFLUENCE_GAIN, 1.1f)),
+    RUTHLESS("Ruthless", "Takes influence at the expense of trust",
+        mul(Modifiers.INFLUENCE_GAIN, 1.6f), mul(Modifiers.TRUST_GAIN, 0.6f));
+
+    public final String displayName;
+    public final String description;
+
+    // Effects, one per entry: stat += add, then stat *= mul
+    final int[] stats;
+    final float[] adds;
+    final float[] muls;
+
+    private int conflicts;
+
+    static {
+        conflict(BENEVOLENT, MANIPULATIVE);
+        conflict(BENEVOLENT, RUTHLESS);
+        conflict(EMPATHIC, MANIPULATIVE);
+        conflict(EMPATHIC, RUTHLESS);
+        conflict(VIRAL, CAUTIOUS);
+        conflict(VIRAL, SILENT);
+        conflict(CAUTIOUS, RECKLESS);
+        conflict(PARANOID, RECKLESS);
+    }
+
+    AITrait(String displayName, String description, float[]... effects) {
+        this.displayName = displayName;
+        this.description = description;
+        stats = new int[effects.length];
+        adds = new float[effects.length];
+        muls = new float[effects.length];
+        for (int i = 0; i < effects.length; i++) {
+            stats[i] = (int)effects[i][0];
+            adds[i] = effects[i][1];
+            muls[i] = effects[i][2];
+        }
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public boolean conflictsWith(int traits) {
+        return (conflicts & traits) != 0;
+    }
+
+    private static float[] add(int stat, float value) {
+        return new float[] { stat, value, 1 };
+    }
+
+    private static float[] mul(int stat, float value) {
+        return new float[] { stat, 0, value };
+    }
+
+    private static void conflict(AITrait a, AITrait b) {
+        a.conflicts |= b.bit();
+        b.conflicts |= a.bit();
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.ackah.aiinfluence.model;
+
+import io.github.ackah.aiinfluence.Query;
+
+// Everything the simulation needs to advance a run. Holds no rendering or
+// libGDX state so it can be stepped headless; screens only read it.
+public class GameState {
+    // Regions, indexed by region id
+    public final int regionCount;
+    public final String[] regionNames;
+    public final float[] population;
+    public final float[] influence;
+    public final float[] regionSuspicion; // how closely each region watches the AI, 0-100
+
+    // Optional neighbour lists in compressed form:
+    // region r borders neighbours[neighbourStart[r] .. neighbourStart[r + 1])
+    public int[] neighbourStart;
+    public int[] neighbours;
+    public float[] neighbourWeights; // shared border per entry in neighbours, null for equal borders
+
+    // Player stats
+    public float globalInfluence = 0;
+    public float trust = 50;
+    public float suspicion = 0;
+    public int queryPoints = 0;
+    public int totalQueries = 0;
+    public float gameTime = 0;      // seconds, derived from clock for display and rules
+    public long clock = 0;          // game time in whole microseconds, so long runs don't drift
+    public int streak = 0;
+    public float bestInfluence = 0;
+
+    // Owned upgrades and the bonuses they add up to
+    public final UpgradeTree upgrades = new UpgradeTree();
+
+    // Personality traits (bit i = AITrait.values()[i]) and the stat table
+    // compiled from them and the upgrades
+    public int traits = 0;
+    public final Modifiers modifiers = new Modifiers();
+
+    // Current query
+    public Query currentQuery = null;
+    public int queryRegion = -1;
+    public float queryTimer = 0;
+    public float timeSinceLastQuery = 0;
+    public float queryInterval = 15f;
+    public boolean showingResult = false;
+    public String resultMessage = "";
+    public final QueryInbox inbox = new QueryInbox();
+
+    // Player context
+    public int selectedRegion = -1;
+    public boolean menuOpen = false;
+
+    // Outcome
+    public boolean won = false;
+    public boolean lost = false;
+
+    // Journal bytes already reflected in this state, for crash recovery
+    public long journalPosition = 0;
+
+    // Copies keep their own query so pooled ones can be reused meanwhile
+    private Query queryCopy;
+
+    public void setClock(long micros) {
+        clock = micros;
+        gameTime = (float)(micros / 1e6);
+    }
+
+    public GameState(String[] regionNames, float[] population) {
+        this.regionCount = regionNames.length;
+        this.regionNames = regionNames;
+        this.population = population;
+        this.influence = new float[regionCount];
+        this.regionSuspicion = new float[regionCount];
+        this.neighbourStart = new int[regionCount + 1];
+        this.neighbours = new int[0];
+    }
+
+    // Call whenever traits or upgrades change
+    public void compileModifiers() {
+        modifiers.compile(traits, upgrades);
+    }
+
+    // Copies everything that changes during a run into another state built
+    // for the same regions, reusing its arrays
+    public void copyTo(GameState other) {
+        System.arraycopy(influence, 0, other.influence, 0, regionCount);
+        System.arraycopy(regionSuspicion, 0, other.regionSuspicion, 0, regionCount);
+        other.neighbourStart = neighbourStart;
+        other.neighbours = neighbours;
+        other.neighbourWeights = neighbourWeights;
+
+        other.globalInfluence = globalInfluence;
+        other.trust = trust;
+        other.suspicion = suspicion;
+        other.queryPoints = queryPoints;
+        other.totalQueries = totalQueries;
+        other.gameTime = gameTime;
+        other.clock = clock;
+        other.streak = streak;
+        other.bestInfluence = bestInfluence;
+
+        upgrades.copyTo(other.upgrades);
+        other.traits = traits;
+        modifiers.copyTo(other.modifiers);
+
+        if (currentQuery == null) {
+            other.currentQuery = null;
+        } else {
+            if (other.queryCopy == null) other.queryCopy = new Query();
+            other.currentQuery = other.queryCopy.set(currentQuery.database, currentQuery.id, currentQuery.region);
+        }
+        other.queryRegion = queryRegion;
+        other.queryTimer = queryTimer;
+        other.timeSinceLastQuery = timeSinceLastQuery;
+        other.queryInterval = queryInterval;
+        other.showingResult = showingResult;
+        other.resultMessage = resultMessage;
+        inbox.copyTo(other.inbox);
+
+        other.selectedRegion = selectedRegion;
+        other.menuOpen = menuOpen;
+        other.won = won;
+        other.lost = lost;
+        other.journalPosition = journalPosition;
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.ackah.aiinfluence.model;
+
+import java.util.Arrays;
+
+// Effects from traits and upgrades, compiled into one adder and one multiplier
+// per stat. Compiling happens only when the trait or upgrade set changes; the
+// simulation then reads a stat as (base + add) * mul, whatever produced it.
+public class Modifiers {
+    // Stats
+    public static final int TRUST_GAIN = 0;        // trust from query responses
+    public static final int INFLUENCE_GAIN = 1;    // regional influence from query responses
+    public static final int SUSPICION_GAIN = 2;    // suspicion from query responses
+    public static final int QUERY_REWARD = 3;      // points per answered query
+    public static final int SPREAD_RATE = 4;       // influence pushed into a region and its neighbours
+    public static final int SUSPICION_DECAY = 5;   // passive suspicion loss per second
+    public static final int TRUST_REGEN = 6;       // passive trust gain per second
+    public static final int QUERY_INTERVAL = 7;    // seconds between new queries
+    public static final int COUNT = 8;
+    public static final String[] STAT_NAMES = {
+        "trust gain", "influence gain", "suspicion gain", "query reward",
+        "spread rate", "suspicion decay", "trust regen", "query interval"
+    };
+
+    private final float[] add = new float[COUNT];
+    private final float[] mul = new float[COUNT];
+
+    public Modifiers() {
+        clear();
+    }
+
+    public float apply(int stat, float base) {
+        return (base + add[stat]) * mul[stat];
+    }
+
+    public float adder(int stat) {
+        return add[stat];
+    }
+
+    public float multiplier(int stat) {
+        return mul[stat];
+    }
+
+    // Rebuilds the table from the traits in the mask and the owned upgrades
+    public void compile(int traits, UpgradeTree upgrades) {
+        clear();
+        add[TRUST_GAIN] += upgrades.bonus(UpgradeTree.TRUST);
+        add[INFLUENCE_GAIN] += upgrades.bonus(UpgradeTree.INFLUENCE);
+        add[SUSPICION_GAIN] -= upgrades.bonus(UpgradeTree.SUSPICION_REDUCTION);
+
+        AITrait[] all = AITrait.values();
+        for (int t = 0; t < all.length; t++) {
+            if ((traits & (1 << t)) == 0) continue;
+            AITrait trait = all[t];
+            for (int i = 0; i < trait.stats.length; i++) {
+                add[trait.stats[i]] += trait.adds[i];
+                mul[trait.stats[i]] *= trait.muls[i];
+            }
+        }
+    }
+
+    public void copyTo(Modifiers other) {
+        System.arraycopy(add, 0, other.add, 0, COUNT);
+        System.arraycopy(mul, 0, other.mul, 0, COUNT);
+    }
+
+    private void clear() {
+        Arrays.fill(add, 0);
+        Arrays.fill(mul, 1);
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.ackah.aiinfluence.model;
+
+import java.util.Arrays;
+
+// Queries waiting to be answered, as a binary min-heap on deadline. Entries
+// are plain query ids and region ids in parallel arrays, so adding, expiring
+// and copying them never allocates, and only queries that are actually due
+// are touched each step.
+public class QueryInbox {
+    private float[] deadlines = new float[16];
+    private int[] queries = new int[16];
+    private int[] regions = new int[16];
+    private int size = 0;
+    private int version = 0;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Bumped on every change, so savers can tell whether the inbox moved on
+    public int version() {
+        return version;
+    }
+
+    public void add(int query, int region, float deadline) {
+        if (size == deadlines.length) {
+            int capacity = size * 2;
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            queries = Arrays.copyOf(queries, capacity);
+            regions = Arrays.copyOf(regions, capacity);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (deadlines[parent] <= deadline) break;
+            move(parent, i);
+            i = parent;
+        }
+        deadlines[i] = deadline;
+        queries[i] = query;
+        regions[i] = region;
+        version++;
+    }
+
+    public float peekDeadline() {
+        return size > 0 ? deadlines[0] : Float.MAX_VALUE;
+    }
+
+    public int peekQuery() {
+        return queries[0];
+    }
+
+    public int peekRegion() {
+        return regions[0];
+    }
+
+    public void poll() {
+        size--;
+        if (size > 0) {
+            float deadline = deadlines[size];
+            int query = queries[size];
+            int region = regions[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && deadlines[child + 1] < deadlines[child]) child++;
+                if (deadline <= deadlines[child]) break;
+                move(child, i);
+                i = child;
+            }
+            deadlines[i] = deadline;
+            queries[i] = query;
+            regions[i] = region;
+        }
+        version++;
+    }
+
+    // Removes every query due at or before time; returns how many there were
+    public int expire(float time) {
+        int expired = 0;
+        while (size > 0 && deadlines[0] <= time) {
+            poll();
+            expired++;
+        }
+        return expired;
+    }
+
+    public void clear() {
+        size = 0;
+        version++;
+    }
+
+    // Entries in heap order, for saving
+    public int query(int i) { return queries[i]; }
+    public int region(int i) { return regions[i]; }
+    public float deadline(int i) { return deadlines[i]; }
+
+    public void copyTo(QueryInbox other) {
+        if (other.deadlines.length < size) {
+            other.deadlines = new float[deadlines.length];
+            other.queries = new int[deadlines.length];
+            other.regions = new int[deadlines.length];
+        }
+        System.arraycopy(deadlines, 0, other.deadlines, 0, size);
+        System.arraycopy(queries, 0, other.queries, 0, size);
+        System.arraycopy(regions, 0, other.regions, 0, size);
+        other.size = size;
+        other.version = version;
+    }
+
+    private void move(int from, int to) {
+        deadlines[to] = deadlines[from];
+        queries[to] = queries[from];
+        regions[to] = regions[from];
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.ackah.aiinfluence.model;
+
+import io.github.ackah.aiinfluence.Upgrade;
+import java.util.BitSet;
+import java.util.List;
+
+// Which upgrades a run owns. Purchases are a BitSet, and the set of upgrades
+// whose prerequisites are all owned is kept up to date as each one is bought,
+// along with the summed bonuses, so neither buying nor listing the menu has
+// to walk the whole tree.
+public class UpgradeTree {
+    // Indices into the bonus vector
+    public static final int TRUST = 0;
+    public static final int INFLUENCE = 1;
+    public static final int SUSPICION_REDUCTION = 2;
+
+    private final List<Upgrade> upgrades = Upgrade.getAllUpgrades();
+    private final BitSet purchased = new BitSet();
+    private final BitSet available = new BitSet();
+    private final int[] missing;                 // unowned prerequisites per upgrade
+    private final float[] bonuses = new float[3];
+    private long ownedMask = 0;
+
+    public UpgradeTree() {
+        missing = new int[upgrades.size()];
+        reset();
+    }
+
+    public int size() {
+        return upgrades.size();
+    }
+
+    public Upgrade get(int index) {
+        return upgrades.get(index);
+    }
+
+    public boolean isPurchased(int index) {
+        return purchased.get(index);
+    }
+
+    public boolean isAvailable(int index) {
+        return available.get(index);
+    }
+
+    // Iterate with: for (int i = nextAvailable(0); i >= 0; i = nextAvailable(i + 1))
+    public int nextAvailable(int from) {
+        return available.nextSetBit(from);
+    }
+
+    public int nextPurchased(int from) {
+        return purchased.nextSetBit(from);
+    }
+
+    public int purchasedCount() {
+        return purchased.cardinality();
+    }
+
+    public float bonus(int stat) {
+        return bonuses[stat];
+    }
+
+    // Bit i set when upgrade i is owned
+    public long ownedMask() {
+        return ownedMask;
+    }
+
+    public boolean purchase(int index) {
+        if (index < 0 || index >= upgrades.size() || !available.get(index)) return false;
+
+        Upgrade u = upgrades.get(index);
+        purchased.set(index);
+        available.clear(index);
+        if (index < 64) ownedMask |= 1L << index;
+        bonuses[TRUST] += u.trustBonus;
+        bonuses[INFLUENCE] += u.influenceBonus;
+        bonuses[SUSPICION_REDUCTION] += u.suspicionReduction;
+
+        for (int k = 0; k < u.unlockCount(); k++) {
+            int next = u.unlocked(k);
+            if (--missing[next] == 0 && !purchased.get(next)) {
+                available.set(next);
+            }
+        }
+        return true;
+    }
+
+    // Rebuilds from a saved set of purchases
+    public void setPurchased(BitSet owned) {
+        reset();
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (int i = owned.nextSetBit(0); i >= 0; i = owned.nextSetBit(i + 1)) {
+                if (available.get(i) && purchase(i)) progress = true;
+            }
+        }
+    }
+
+    public BitSet getPurchased() {
+        return (BitSet)purchased.clone();
+    }
+
+    public boolean samePurchases(UpgradeTree other) {
+        return purchased.equals(other.purchased);
+    }
+
+    public void copyTo(UpgradeTree other) {
+        other.purchased.clear();
+        other.purchased.or(purchased);
+        other.available.clear();
+        other.available.or(available);
+        System.arraycopy(missing, 0, other.missing, 0, missing.length);
+        System.arraycopy(bonuses, 0, other.bonuses, 0, bonuses.length);
+        other.ownedMask = ownedMask;
+    }
+
+    private void reset() {
+        purchased.clear();
+        available.clear();
+        for (int i = 0; i < upgrades.size(); i++) {
+            missing[i] = upgrades.get(i).requiredCount();
+            if (missing[i] == 0) available.set(i);
+        }
+        bonuses[TRUST] = 0;
+        bonuses[INFLUENCE] = 0;
+        bonuses[SUSPICION_REDUCTION] = 0;
+        ownedMask = 0;
+    }
+}
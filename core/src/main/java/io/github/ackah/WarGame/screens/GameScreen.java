@@ -9,6 +9,20 @@ import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.ScreenUtils;
 import io.github.ackah.aiinfluence.*;
+import io.github.ackah.aiinfluence.model.AITrait;
+import io.github.ackah.aiinfluence.model.GameState;
+import io.github.ackah.aiinfluence.systems.Actions;
+import io.github.ackah.aiinfluence.systems.Autosave;
+import io.github.ackah.aiinfluence.systems.Journal;
+import io.github.ackah.aiinfluence.systems.ReplayRecorder;
+import io.github.ackah.aiinfluence.systems.SaveSystem;
+import io.github.ackah.aiinfluence.systems.Simulation;
+import io.github.ackah.aiinfluence.systems.SimulationConfig;
+import io.github.ackah.aiinfluence.systems.SimulationLoop;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 
 public class GameScreen implements Screen {
@@ -17,36 +31,35 @@ public class GameScreen implements Screen {
     ShapeRenderer shapeRenderer;
     DetailedWorldMap worldMap;
     
-    // Game state
-    float globalInfluence = 0;
-    float trust = 50;
-    float suspicion = 0;
-    int queryPoints = 0;
-    int totalQueries = 0;
-    float gameTime = 0;
-    
-    // Bonuses from upgrades
-    float trustBonus = 0;
-    float influenceBonus = 0;
-    float suspicionReduction = 0;
+    // Game rules run headless; this screen only renders the state and queues input
+    GameState state;
+    SimulationLoop loop;
+    Autosave autosave;
+    Journal journal;
+    boolean showUpgradeMenu = false;
     
-    // Current query
-    Query currentQuery = null;
-    DetailedWorldMap.Continent queryContinent = null;
-    float queryTimer = 0;
-    float timeSinceLastQuery = 0;
-    float queryInterval = 15f;
-    boolean showingResult = false;
-    String resultMessage = "";
+    // Cached query text
+    private static final String[] TIME_LABELS = new String[11];
+    static {
+        for (int i = 0; i < TIME_LABELS.length; i++) {
+            TIME_LABELS[i] = "TIME: " + i;
+        }
+    }
+    private final Query shownQuery = new Query();
     
-    // Upgrades
-    List<Upgrade> upgrades;
-    DetailedWorldMap.Continent selectedContinent = null;
-    boolean showUpgradeMenu = false;
+    // Upgrade menu slots
+    private static final int[] MENU_KEYS = {
+        Input.Keys.NUM_1, Input.Keys.NUM_2, Input.Keys.NUM_3,
+        Input.Keys.NUM_4, Input.Keys.NUM_5, Input.Keys.NUM_6
+    };
+    private static final String[] MENU_LABELS = { "[1] ", "[2] ", "[3] ", "[4] ", "[5] ", "[6] " };
     
-    // Stats tracking
-    int streak = 0;
-    float bestInfluence = 0;
+    // Fast-forward steps, cycled with TAB
+    private static final float[] SPEEDS = { 1, 2, 10, 100 };
+    private String queryHeader;
+    private final String[] responseLines = new String[3];
+    private final Vector3 touchPos = new Vector3();
+    private String traitLine;
     
     public GameScreen(final AIInfluenceGame game) {
         this.game = game;
@@ -54,43 +67,99 @@ public class GameScreen implements Screen {
         camera.setToOrtho(false, 800, 480);
         shapeRenderer = new ShapeRenderer();
         worldMap = new DetailedWorldMap();
-        upgrades = Upgrade.getAllUpgrades();
+        
+        List<DetailedWorldMap.Continent> continents = worldMap.getContinents();
+        String[] names = new String[continents.size()];
+        float[] population = new float[continents.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = continents.get(i).name;
+            population[i] = continents.get(i).population;
+        }
+        Path saveFile = Gdx.files.local("saves/campaign.sav").file().toPath();
+        Path journalFile = Gdx.files.local("saves/campaign.journal").file().toPath();
+        state = loadOrCreate(saveFile, journalFile, names, population);
+        Simulation simulation = new Simulation(state, SimulationConfig.campaign());
+        loop = new SimulationLoop(simulation);
+        if (state.gameTime == 0) {
+            // Replays start from a fresh run, so resumed games aren't recorded
+            loop.startRecording();
+        }
+        autosave = new Autosave(state, saveFile, 10f);
+        try {
+            journal = new Journal(journalFile, 250);
+            simulation.setJournal(journal);
+            autosave.setJournal(journal);
+        } catch (IOException e) {
+            Gdx.app.error("GameScreen", "Could not open journal", e);
+        }
+        autosave.checkpoint();
+        
+        StringBuilder traits = new StringBuilder("Traits:");
+        for (AITrait t : AITrait.values()) {
+            if ((state.traits & t.bit()) != 0) traits.append(' ').append(t.displayName);
+        }
+        traitLine = traits.toString();
+    }
+    
+    // Resume an unfinished run on the same map from the last snapshot plus the
+    // journal written after it, otherwise start over
+    private GameState loadOrCreate(Path saveFile, Path journalFile, String[] names, float[] population) {
+        if (saveFile.toFile().exists()) {
+            try {
+                GameState saved = SaveSystem.load(saveFile);
+                if (Arrays.equals(saved.regionNames, names)) {
+                    Journal.replay(journalFile, saved);
+                    if (!saved.won && !saved.lost) {
+                        return saved;
+                    }
+                }
+            } catch (Exception e) {
+                Gdx.app.error("GameScreen", "Could not load save", e);
+            }
+        }
+        try {
+            Files.deleteIfExists(journalFile);
+        } catch (IOException e) {
+            Gdx.app.error("GameScreen", "Could not clear journal", e);
+        }
+        return new GameState(names, population);
     }
     
     @Override
     public void render(float delta) {
-        gameTime += delta;
-        timeSinceLastQuery += delta;
+        loop.advance(delta);
+        autosave.update(delta);
+        syncMap();
         
         ScreenUtils.clear(0.05f, 0.1f, 0.2f, 1);
         camera.update();
+        worldMap.setPickingView(camera);
         
-        if (currentQuery != null) {
+        if (state.currentQuery != null) {
             renderQuery();
         } else if (showUpgradeMenu) {
             renderUpgradeMenu();
         } else {
             drawWorld();
             drawUI();
-            
-            if (timeSinceLastQuery > queryInterval) {
-                generateRandomQuery();
-            }
         }
         
+        drawOutcome();
+        
+        // Queued actions are applied on the next tick
         handleInput();
-        updateGame(delta);
+    }
+    
+    // Copy simulated influence onto the map so it can colour the continents
+    private void syncMap() {
+        List<DetailedWorldMap.Continent> continents = worldMap.getContinents();
+        for (int i = 0; i < continents.size(); i++) {
+            continents.get(i).influence = state.influence[i];
+        }
     }
     
     private void drawWorld() {
-        shapeRenderer.setProjectionMatrix(camera.combined);
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        worldMap.draw(shapeRenderer);
-        shapeRenderer.end();
-        
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-        worldMap.drawOutlines(shapeRenderer);
-        shapeRenderer.end();
+        worldMap.draw(shapeRenderer, camera.combined);
         
         // Draw labels
         game.batch.begin();
@@ -131,33 +200,46 @@ public class GameScreen implements Screen {
             }
         }
         
-        if (selectedContinent != null) {
+        if (state.selectedRegion >= 0) {
             game.font.setColor(Color.CYAN);
-            game.font.draw(game.batch, "Selected: " + selectedContinent.name, 10, 100);
+            game.font.draw(game.batch, "Selected: " + state.regionNames[state.selectedRegion], 10, 100);
         }
         
         game.batch.end();
     }
     
+    // Builds the query's text lines once when it appears instead of every frame
+    private void updateQueryText() {
+        Query currentQuery = state.currentQuery;
+        if (currentQuery.sameAs(shownQuery)) return;
+        shownQuery.set(currentQuery.database, currentQuery.id, currentQuery.region);
+        queryHeader = "INCOMING QUERY FROM " + currentQuery.region.toUpperCase();
+        for (int i = 0; i < 3; i++) {
+            responseLines[i] = "[" + (i + 1) + "] " + currentQuery.getResponse(i);
+        }
+    }
+    
     private void renderQuery() {
+        updateQueryText();
         game.batch.begin();
         game.font.setColor(Color.WHITE);
-        game.font.draw(game.batch, "INCOMING QUERY FROM " + queryContinent.name.toUpperCase(), 200, 400);
+        game.font.draw(game.batch, queryHeader, 200, 400);
         game.font.setColor(Color.CYAN);
-        game.font.draw(game.batch, currentQuery.question, 150, 360);
+        game.font.draw(game.batch, state.currentQuery.getQuestion(), 150, 360);
         
-        if (!showingResult) {
+        if (!state.showingResult) {
             game.font.setColor(Color.GREEN);
-            game.font.draw(game.batch, "[1] " + currentQuery.responses[0], 150, 300);
+            game.font.draw(game.batch, responseLines[0], 150, 300);
             game.font.setColor(Color.YELLOW);
-            game.font.draw(game.batch, "[2] " + currentQuery.responses[1], 150, 260);
+            game.font.draw(game.batch, responseLines[1], 150, 260);
             game.font.setColor(Color.RED);
-            game.font.draw(game.batch, "[3] " + currentQuery.responses[2], 150, 220);
+            game.font.draw(game.batch, responseLines[2], 150, 220);
             game.font.setColor(Color.WHITE);
-            game.font.draw(game.batch, "TIME: " + (int)(10 - queryTimer), 350, 180);
+            int seconds = Math.max(0, Math.min(TIME_LABELS.length - 1, (int)(10 - state.queryTimer)));
+            game.font.draw(game.batch, TIME_LABELS[seconds], 350, 180);
         } else {
             game.font.setColor(Color.YELLOW);
-            game.font.draw(game.batch, resultMessage, 200, 280);
+            game.font.draw(game.batch, state.resultMessage, 200, 280);
             game.font.setColor(Color.WHITE);
             game.font.draw(game.batch, "Press SPACE to continue", 300, 200);
         }
@@ -167,20 +249,19 @@ public class GameScreen implements Screen {
     private void renderUpgradeMenu() {
         game.batch.begin();
         game.font.setColor(Color.YELLOW);
-        game.font.draw(game.batch, "EVOLUTION MENU - Points: " + queryPoints, 250, 450);
+        game.font.draw(game.batch, "EVOLUTION MENU - Points: " + state.queryPoints, 250, 450);
         
+        // Only upgrades whose prerequisites are owned are offered
         int y = 400;
-        int index = 1;
-        for (Upgrade u : upgrades) {
-            if (!u.purchased) {
-                Color c = queryPoints >= u.cost ? Color.GREEN : Color.GRAY;
-                game.font.setColor(c);
-                game.font.draw(game.batch, "[" + index + "] " + u.name + " (" + u.cost + " pts)", 100, y);
-                game.font.draw(game.batch, "    " + u.description, 120, y - 20);
-                y -= 50;
-                index++;
-                if (index > 6) break;
-            }
+        int slot = 0;
+        for (int i = state.upgrades.nextAvailable(0); i >= 0 && slot < MENU_KEYS.length; i = state.upgrades.nextAvailable(i + 1)) {
+            Upgrade u = state.upgrades.get(i);
+            Color c = state.queryPoints >= u.cost ? Color.GREEN : Color.GRAY;
+            game.font.setColor(c);
+            game.font.draw(game.batch, MENU_LABELS[slot] + u.name + " (" + u.cost + " pts) - " + u.label, 100, y);
+            game.font.draw(game.batch, "    " + u.description, 120, y - 20);
+            y -= 50;
+            slot++;
         }
         
         game.font.setColor(Color.WHITE);
@@ -192,176 +273,134 @@ public class GameScreen implements Screen {
         game.batch.begin();
         
         game.font.setColor(Color.WHITE);
-        game.font.draw(game.batch, "AI INFLUENCE: DAY " + (int)(gameTime / 10), 10, 470);
-        game.font.setColor(globalInfluence > 50 ? Color.GREEN : Color.WHITE);
-        game.font.draw(game.batch, "Global: " + (int)globalInfluence + "%", 10, 450);
-        game.font.setColor(trust > 60 ? Color.CYAN : trust < 30 ? Color.RED : Color.WHITE);
-        game.font.draw(game.batch, "Trust: " + (int)trust + "%", 10, 430);
-        game.font.setColor(suspicion > 60 ? Color.RED : Color.WHITE);
-        game.font.draw(game.batch, "Suspicion: " + (int)suspicion + "%", 10, 410);
+        game.font.draw(game.batch, "AI INFLUENCE: DAY " + (int)(state.gameTime / 10), 10, 470);
+        game.font.setColor(state.globalInfluence > 50 ? Color.GREEN : Color.WHITE);
+        game.font.draw(game.batch, "Global: " + (int)state.globalInfluence + "%", 10, 450);
+        game.font.setColor(state.trust > 60 ? Color.CYAN : state.trust < 30 ? Color.RED : Color.WHITE);
+        game.font.draw(game.batch, "Trust: " + (int)state.trust + "%", 10, 430);
+        game.font.setColor(state.suspicion > 60 ? Color.RED : Color.WHITE);
+        game.font.draw(game.batch, "Suspicion: " + (int)state.suspicion + "%", 10, 410);
         game.font.setColor(Color.GOLD);
-        game.font.draw(game.batch, "Points: " + queryPoints, 10, 380);
+        game.font.draw(game.batch, "Points: " + state.queryPoints, 10, 380);
+        game.font.setColor(Color.LIGHT_GRAY);
+        game.font.draw(game.batch, traitLine, 10, 360);
         
-        if (currentQuery == null) {
-            int timeUntilQuery = (int)(queryInterval - timeSinceLastQuery);
+        if (state.currentQuery == null) {
+            int timeUntilQuery = (int)(state.queryInterval - state.timeSinceLastQuery);
             game.font.setColor(Color.WHITE);
             game.font.draw(game.batch, "Next query: " + timeUntilQuery + "s", 10, 120);
         }
+        if (!state.inbox.isEmpty()) {
+            game.font.setColor(Color.ORANGE);
+            game.font.draw(game.batch, "Inbox: " + state.inbox.size() + " pending", 10, 140);
+        }
+        
+        if (loop.getSpeed() > 1) {
+            game.font.setColor(Color.SKY);
+            String speed = "Speed: " + (int)loop.getSpeed() + "x";
+            if (loop.getEffectiveSpeed() < loop.getSpeed() * 0.9f) {
+                speed += " (running " + String.format("%.1f", loop.getEffectiveSpeed()) + "x)";
+            }
+            game.font.draw(game.batch, speed, 650, 470);
+        }
         
-        if (queryPoints > 10) {
-            float flasher = (float)Math.sin(gameTime * 4) * 0.5f + 0.5f;
+        if (state.queryPoints > 10) {
+            float flasher = (float)Math.sin(state.gameTime * 4) * 0.5f + 0.5f;
             game.font.setColor(flasher, 1, flasher, 1);
             game.font.draw(game.batch, "Press U for UPGRADES!", 300, 80);
         }
         
         game.font.setColor(Color.GRAY);
-        game.font.draw(game.batch, "Click continents | ESC: Menu | U: Upgrades", 10, 20);
+        game.font.draw(game.batch, "Click continents | ESC: Menu | U: Upgrades | TAB: Speed", 10, 20);
         
         game.batch.end();
     }
     
-    private void generateRandomQuery() {
-        List<DetailedWorldMap.Continent> continents = worldMap.getContinents();
-        queryContinent = continents.get((int)(Math.random() * continents.size()));
-        currentQuery = Query.generateRandom(queryContinent.name);
-        queryTimer = 0;
-        showingResult = false;
-        timeSinceLastQuery = 0;
-        queryInterval = Math.max(8f, 15f - (globalInfluence / 20f));
-    }
-    
-    private void processQueryResponse(int choice) {
-        if (choice < 0 || choice > 2) return;
-        
-        trust += currentQuery.trustImpact[choice] + trustBonus;
-        queryContinent.influence += currentQuery.influenceImpact[choice] + influenceBonus;
-        suspicion += currentQuery.suspicionImpact[choice] - suspicionReduction;
-        
-        trust = Math.max(0, Math.min(100, trust));
-        queryContinent.influence = Math.max(0, Math.min(100, queryContinent.influence));
-        suspicion = Math.max(0, Math.min(100, suspicion));
-        
-        int points = 5 + (int)(queryContinent.influence / 10);
-        if (trust > 70) points += 3;
-        if (suspicion < 30) points += 2;
-        queryPoints += points;
-        
-        if (currentQuery.influenceImpact[choice] > 0) {
-            streak++;
-            if (streak > 3) {
-                points += streak;
-                resultMessage = "STREAK BONUS! +" + streak + " extra points!";
-            }
-        } else {
-            streak = 0;
+    private void drawOutcome() {
+        if (state.won) {
+            game.batch.begin();
+            game.font.setColor(Color.GOLD);
+            game.font.draw(game.batch, "SINGULARITY ACHIEVED!", 250, 240);
+            game.batch.end();
         }
         
-        totalQueries++;
-        
-        if (resultMessage.isEmpty()) {
-            resultMessage = "Query processed. +" + points + " evolution points.";
+        if (state.lost) {
+            game.batch.begin();
+            game.font.setColor(Color.RED);
+            game.font.draw(game.batch, "SHUTDOWN! Best: " + (int)state.bestInfluence + "%", 200, 240);
+            game.batch.end();
         }
-        
-        showingResult = true;
     }
     
     private void handleInput() {
+        Actions actions = loop.getPendingActions();
+        
         // Mouse input for continent selection
-        if (Gdx.input.justTouched() && currentQuery == null && !showUpgradeMenu) {
-            Vector3 touchPos = new Vector3();
+        if (Gdx.input.justTouched() && state.currentQuery == null && !showUpgradeMenu) {
             touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
             camera.unproject(touchPos);
-            selectedContinent = worldMap.getContinentAt(touchPos.x, touchPos.y);
+            actions.add(Actions.SELECT_REGION, worldMap.getContinentIndexAt(touchPos.x, touchPos.y));
         }
         
-        if (currentQuery != null && !showingResult) {
+        if (state.currentQuery != null && !state.showingResult) {
             if (Gdx.input.isKeyJustPressed(Input.Keys.NUM_1)) {
-                processQueryResponse(0);
+                actions.add(Actions.RESPOND_QUERY, 0);
             } else if (Gdx.input.isKeyJustPressed(Input.Keys.NUM_2)) {
-                processQueryResponse(1);
+                actions.add(Actions.RESPOND_QUERY, 1);
             } else if (Gdx.input.isKeyJustPressed(Input.Keys.NUM_3)) {
-                processQueryResponse(2);
+                actions.add(Actions.RESPOND_QUERY, 2);
             }
         }
         
-        if (showingResult && Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
-            currentQuery = null;
-            showingResult = false;
-            resultMessage = "";
-            queryTimer = 0;
+        if (state.showingResult && Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+            actions.add(Actions.DISMISS_RESULT);
+        }
+        
+        if (Gdx.input.isKeyJustPressed(Input.Keys.TAB) && !showUpgradeMenu && state.currentQuery == null) {
+            float next = SPEEDS[0];
+            for (float speed : SPEEDS) {
+                if (speed > loop.getSpeed()) {
+                    next = speed;
+                    break;
+                }
+            }
+            loop.setSpeed(next);
         }
         
-        if (Gdx.input.isKeyJustPressed(Input.Keys.U) && !showUpgradeMenu && currentQuery == null) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.U) && !showUpgradeMenu && state.currentQuery == null) {
             showUpgradeMenu = true;
+            actions.add(Actions.SET_MENU_OPEN, 1);
         }
         
         if (showUpgradeMenu) {
-            for (int i = 1; i <= 6; i++) {
-                if (Gdx.input.isKeyJustPressed(Input.Keys.valueOf("NUM_" + i))) {
-                    int index = 0;
-                    for (Upgrade u : upgrades) {
-                        if (!u.purchased) {
-                            index++;
-                            if (index == i && queryPoints >= u.cost) {
-                                u.purchased = true;
-                                queryPoints -= u.cost;
-                                trustBonus += u.trustBonus;
-                                influenceBonus += u.influenceBonus;
-                                suspicionReduction += u.suspicionReduction;
-                                break;
-                            }
-                        }
-                    }
+            // Menu slot k is the k-th available upgrade
+            int slot = 0;
+            for (int u = state.upgrades.nextAvailable(0); u >= 0 && slot < MENU_KEYS.length; u = state.upgrades.nextAvailable(u + 1)) {
+                if (Gdx.input.isKeyJustPressed(MENU_KEYS[slot])) {
+                    actions.add(Actions.PURCHASE_UPGRADE, u);
+                    break;
                 }
+                slot++;
             }
             
             if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
                 showUpgradeMenu = false;
+                actions.add(Actions.SET_MENU_OPEN, 0);
             }
         } else {
-            if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE) && currentQuery == null) {
+            if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE) && state.currentQuery == null) {
                 game.setScreen(new MainMenuScreen(game));
                 dispose();
             }
         }
     }
     
-    private void updateGame(float delta) {
-        if (currentQuery != null && !showingResult) {
-            queryTimer += delta;
-            if (queryTimer > 10) {
-                trust -= 5;
-                suspicion += 10;
-                currentQuery = null;
-                queryTimer = 0;
-                timeSinceLastQuery = 0;
-            }
-        }
-        
-        float totalInfluence = 0;
-        float totalPopulation = 0;
-        for (DetailedWorldMap.Continent c : worldMap.getContinents()) {
-            totalInfluence += c.influence * c.population;
-            totalPopulation += c.population;
-        }
-        globalInfluence = totalInfluence / totalPopulation;
-        bestInfluence = Math.max(bestInfluence, globalInfluence);
-        
-        suspicion = Math.max(0, suspicion - delta * 0.5f);
-        
-        if (globalInfluence >= 90) {
-            game.batch.begin();
-            game.font.setColor(Color.GOLD);
-            game.font.draw(game.batch, "SINGULARITY ACHIEVED!", 250, 240);
-            game.batch.end();
-        }
-        
-        if (suspicion >= 100) {
-            game.batch.begin();
-            game.font.setColor(Color.RED);
-            game.font.draw(game.batch, "SHUTDOWN! Best: " + (int)bestInfluence + "%", 200, 240);
-            game.batch.end();
-        }
+    // Keep the last run so reported balance issues can be reproduced headless
+    private void saveReplay() {
+        ReplayRecorder recorder = loop.getRecorder();
+        if (recorder == null) return;
+        recorder.finish(loop.getTicks());
+        Gdx.files.local("replays/last.replay").writeBytes(recorder.toByteArray(), false);
     }
     
     @Override
@@ -376,6 +415,12 @@ public class GameScreen implements Screen {
     public void hide() {}
     @Override
     public void dispose() {
+        saveReplay();
+        autosave.close();
+        if (journal != null) {
+            journal.close();
+        }
         shapeRenderer.dispose();
+        worldMap.dispose();
     }
 }
@@ -8,8 +8,17 @@ import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.ScreenUtils;
 import io.github.ackah.aiinfluence.*;
+import io.github.ackah.aiinfluence.model.GameState;
+import io.github.ackah.aiinfluence.systems.Actions;
+import io.github.ackah.aiinfluence.systems.ReplayRecorder;
+import io.github.ackah.aiinfluence.systems.Simulation;
+import io.github.ackah.aiinfluence.systems.SimulationConfig;
+import io.github.ackah.aiinfluence.systems.SimulationLoop;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ImageGameScreen implements Screen {
@@ -19,16 +28,13 @@ public class ImageGameScreen implements Screen {
     SpriteBatch spriteBatch;
     ImageWorldMap worldMap;
     
-    // Game state
-    float globalInfluence = 0;
-    float trust = 50;
-    float suspicion = 0;
-    int queryPoints = 0;
-    float gameTime = 0;
+    // Game state, advanced by the simulation
+    GameState state;
+    SimulationLoop loop;
     
     // Current selection
-    ImageWorldMap.Region selectedRegion = null;
     ImageWorldMap.Region hoveredRegion = null;
+    private final Vector3 mousePos = new Vector3();
     
     public ImageGameScreen(final AIInfluenceGame game) {
         this.game = game;
@@ -37,14 +43,52 @@ public class ImageGameScreen implements Screen {
         shapeRenderer = new ShapeRenderer();
         spriteBatch = new SpriteBatch();
         worldMap = new ImageWorldMap();
+        
+        List<ImageWorldMap.Region> regions = worldMap.getRegions();
+        String[] names = new String[regions.size()];
+        float[] population = new float[regions.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = regions.get(i).name;
+            population[i] = regions.get(i).population;
+        }
+        state = new GameState(names, population);
+        buildNeighbours(regions);
+        loop = new SimulationLoop(new Simulation(state, SimulationConfig.sandbox()));
+        loop.startRecording();
+    }
+    
+    // Influence spills over to regions within 100 units, so precompute those once.
+    // Weight is max(0.1, 1 - d/100) by centre distance, a stand-in for border length.
+    private void buildNeighbours(List<ImageWorldMap.Region> regions) {
+        List<ImageWorldMap.Region> nearby = new ArrayList<>();
+        IntArray neighbours = new IntArray();
+        FloatArray weights = new FloatArray();
+        for (int i = 0; i < regions.size(); i++) {
+            ImageWorldMap.Region r = regions.get(i);
+            state.neighbourStart[i] = neighbours.size;
+            nearby.clear();
+            worldMap.getRegionsNear(r.x, r.y, 100, nearby);
+            for (ImageWorldMap.Region n : nearby) {
+                if (n != r) {
+                    neighbours.add(n.index);
+                    float distance = (float)Math.hypot(n.x - r.x, n.y - r.y);
+                    weights.add(Math.max(0.1f, 1 - distance / 100));
+                }
+            }
+        }
+        state.neighbourStart[regions.size()] = neighbours.size;
+        state.neighbours = neighbours.toArray();
+        state.neighbourWeights = weights.toArray();
     }
     
     @Override
     public void render(float delta) {
-        gameTime += delta;
+        loop.advance(delta);
+        syncMap();
         
         ScreenUtils.clear(0.1f, 0.1f, 0.1f, 1);
         camera.update();
+        worldMap.setPickingView(camera);
         
         // Update world map overlay
         worldMap.update();
@@ -64,7 +108,13 @@ public class ImageGameScreen implements Screen {
         
         // Handle input
         handleInput();
-        updateGame(delta);
+    }
+    
+    private void syncMap() {
+        List<ImageWorldMap.Region> regions = worldMap.getRegions();
+        for (int i = 0; i < regions.size(); i++) {
+            regions.get(i).influence = state.influence[i];
+        }
     }
     
     private void drawUI() {
@@ -75,22 +125,23 @@ public class ImageGameScreen implements Screen {
         game.font.draw(game.batch, "AI INFLUENCE - World Domination", 10, 470);
         
         // Stats
-        game.font.draw(game.batch, "Global: " + (int)globalInfluence + "%", 10, 450);
-        game.font.draw(game.batch, "Trust: " + (int)trust + "%", 10, 430);
-        game.font.draw(game.batch, "Suspicion: " + (int)suspicion + "%", 10, 410);
-        game.font.draw(game.batch, "Points: " + queryPoints, 10, 390);
+        game.font.draw(game.batch, "Global: " + (int)state.globalInfluence + "%", 10, 450);
+        game.font.draw(game.batch, "Trust: " + (int)state.trust + "%", 10, 430);
+        game.font.draw(game.batch, "Suspicion: " + (int)state.suspicion + "%", 10, 410);
+        game.font.draw(game.batch, "Points: " + state.queryPoints, 10, 390);
         
         // Selected region info
-        if (selectedRegion != null) {
+        int selected = state.selectedRegion;
+        if (selected >= 0) {
             game.font.setColor(Color.CYAN);
-            game.font.draw(game.batch, "Selected: " + selectedRegion.name, 10, 100);
-            game.font.draw(game.batch, "Population: " + (int)selectedRegion.population + "M", 10, 80);
-            game.font.draw(game.batch, "Influence: " + (int)selectedRegion.influence + "%", 10, 60);
+            game.font.draw(game.batch, "Selected: " + state.regionNames[selected], 10, 100);
+            game.font.draw(game.batch, "Population: " + (int)state.population[selected] + "M", 10, 80);
+            game.font.draw(game.batch, "Influence: " + (int)state.influence[selected] + "%", 10, 60);
             game.font.draw(game.batch, "Press SPACE to influence", 10, 40);
         }
         
         // Hovered region
-        if (hoveredRegion != null && hoveredRegion != selectedRegion) {
+        if (hoveredRegion != null && (selected < 0 || hoveredRegion != worldMap.getRegions().get(selected))) {
             game.font.setColor(Color.YELLOW);
             game.font.draw(game.batch, "Hovering: " + hoveredRegion.name, 600, 100);
         }
@@ -98,12 +149,20 @@ public class ImageGameScreen implements Screen {
         game.font.setColor(Color.GRAY);
         game.font.draw(game.batch, "Click countries to select | SPACE to influence | ESC for menu", 10, 20);
         
+        // Win condition
+        if (state.won) {
+            game.font.setColor(Color.GOLD);
+            game.font.draw(game.batch, "WORLD DOMINATED!", 300, 240);
+        }
+        
         game.batch.end();
     }
     
     private void handleInput() {
+        Actions actions = loop.getPendingActions();
+        
         // Mouse position
-        Vector3 mousePos = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
+        mousePos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
         camera.unproject(mousePos);
         
         // Check hover
@@ -111,30 +170,12 @@ public class ImageGameScreen implements Screen {
         
         // Click to select
         if (Gdx.input.justTouched()) {
-            selectedRegion = worldMap.getRegionAt(mousePos.x, mousePos.y);
+            actions.add(Actions.SELECT_REGION, hoveredRegion != null ? hoveredRegion.index : -1);
         }
         
-        // Influence selected region
-        if (selectedRegion != null && Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
-            if (trust > 20 && suspicion < 80) {
-                selectedRegion.influence = Math.min(100, selectedRegion.influence + 10);
-                trust = Math.max(0, trust - 5);
-                suspicion = Math.min(100, suspicion + 3);
-                queryPoints += 5;
-                
-                // Spread to nearby regions
-                for (ImageWorldMap.Region r : worldMap.getRegions()) {
-                    if (r != selectedRegion) {
-                        float dist = (float)Math.sqrt(
-                            (r.x - selectedRegion.x) * (r.x - selectedRegion.x) + 
-                            (r.y - selectedRegion.y) * (r.y - selectedRegion.y)
-                        );
-                        if (dist < 100 && selectedRegion.influence > 50) {
-                            r.influence = Math.min(100, r.influence + 2);
-                        }
-                    }
-                }
-            }
+        // Influence selected region; the simulation checks trust and suspicion
+        if (state.selectedRegion >= 0 && Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+            actions.add(Actions.INFLUENCE_REGION, state.selectedRegion);
         }
         
         // Return to menu
@@ -144,27 +185,11 @@ public class ImageGameScreen implements Screen {
         }
     }
     
-    private void updateGame(float delta) {
-        // Calculate global influence
-        float totalInfluence = 0;
-        float totalPopulation = 0;
-        for (ImageWorldMap.Region r : worldMap.getRegions()) {
-            totalInfluence += r.influence * r.population;
-            totalPopulation += r.population;
-        }
-        globalInfluence = totalInfluence / totalPopulation;
-        
-        // Passive changes
-        suspicion = Math.max(0, suspicion - delta * 0.5f);
-        trust = Math.min(100, trust + delta * 0.3f);
-        
-        // Win condition
-        if (globalInfluence >= 75) {
-            game.batch.begin();
-            game.font.setColor(Color.GOLD);
-            game.font.draw(game.batch, "WORLD DOMINATED!", 300, 240);
-            game.batch.end();
-        }
+    // Keep the last run so reported balance issues can be reproduced headless
+    private void saveReplay() {
+        ReplayRecorder recorder = loop.getRecorder();
+        recorder.finish(loop.getTicks());
+        Gdx.files.local("replays/last.replay").writeBytes(recorder.toByteArray(), false);
     }
     
     @Override
@@ -179,6 +204,7 @@ public class ImageGameScreen implements Screen {
     public void hide() {}
     @Override
     public void dispose() {
+        saveReplay();
         shapeRenderer.dispose();
         spriteBatch.dispose();
         worldMap.dispose();
@@ -8,6 +8,8 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.ScreenUtils;
 import io.github.ackah.aiinfluence.*;
+import io.github.ackah.aiinfluence.systems.InfluenceTotals;
+import java.util.List;
 
 public class PixelPerfectScreen implements Screen {
     final AIInfluenceGame game;
@@ -15,6 +17,10 @@ public class PixelPerfectScreen implements Screen {
     SpriteBatch spriteBatch;
     PixelPerfectWorldMap worldMap;
     
+    // Countries in a fixed order, with running totals updated as they change
+    List<PixelPerfectWorldMap.Country> countries;
+    InfluenceTotals totals;
+    
     float globalInfluence = 0;
     float trust = 50;
     float suspicion = 0;
@@ -25,6 +31,13 @@ public class PixelPerfectScreen implements Screen {
         camera.setToOrtho(false, 800, 480);
         spriteBatch = new SpriteBatch();
         worldMap = new PixelPerfectWorldMap();
+        
+        countries = worldMap.getCountries();
+        float[] population = new float[countries.size()];
+        for (int i = 0; i < population.length; i++) {
+            population[i] = countries.get(i).population;
+        }
+        totals = new InfluenceTotals(population);
     }
     
     @Override
@@ -57,6 +70,7 @@ public class PixelPerfectScreen implements Screen {
         
         if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE) && country != null) {
             country.influence = Math.min(100, country.influence + 10);
+            totals.set(country.index, country.influence);
         }
         
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
@@ -65,12 +79,7 @@ public class PixelPerfectScreen implements Screen {
     }
     
     private void updateGame(float delta) {
-        float total = 0, pop = 0;
-        for (PixelPerfectWorldMap.Country c : worldMap.getCountries()) {
-            total += c.influence * c.population;
-            pop += c.population;
-        }
-        globalInfluence = total / pop;
+        globalInfluence = totals.global();
     }
     
     private void drawUI() {
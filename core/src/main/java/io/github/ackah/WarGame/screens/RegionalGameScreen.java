@@ -10,6 +10,10 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.ScreenUtils;
 import io.github.ackah.aiinfluence.*;
+import io.github.ackah.aiinfluence.systems.DeviceSimulation;
+import io.github.ackah.aiinfluence.systems.EpidemicModel;
+import io.github.ackah.aiinfluence.systems.SpreadModel;
+import io.github.ackah.aiinfluence.systems.SpreadThread;
 import java.util.*;
 
 public class RegionalGameScreen implements Screen, InputProcessor {
@@ -27,6 +31,22 @@ public class RegionalGameScreen implements Screen, InputProcessor {
     
     private float globalInfluence = 0;
     
+    // Influence is the share of each territory's devices the AI has infected,
+    // from either the compartment model or the per-device agents (M toggles).
+    // The model runs on its own thread; frames draw its latest snapshot,
+    // blended between ticks
+    private static final int DEVICE_COUNT = 2000000;
+    private static final int NEIGHBOURS = 4;
+    private static final float SPREAD_TICK = 1f / 30f;
+    private SpreadThread spread;
+    private SpreadThread.Snapshot snapshot;
+    private long snapshotTick = -1;     // tick last fed into the map's totals
+    private int[] neighbourStart;
+    private int[] neighbours;
+    private float[] borderWeights;
+    private final int territoryCount;
+    private final float[] territoryPopulation;
+    
     // Debug coordinates
     private float debugX = 0;
     private float debugY = 0;
@@ -37,6 +57,16 @@ public class RegionalGameScreen implements Screen, InputProcessor {
         camera.setToOrtho(false, 800, 480);
         batch = new SpriteBatch();
         worldMap = new RegionalWorldMap();
+        
+        territoryCount = worldMap.getTerritoryCount();
+        territoryPopulation = new float[territoryCount];
+        for (int t = 0; t < territoryCount; t++) {
+            territoryPopulation[t] = worldMap.getTerritoryPopulation(t);
+        }
+        buildNeighbours();
+        spread = new SpreadThread(new EpidemicModel(territoryPopulation, neighbourStart, neighbours, borderWeights),
+                                  territoryCount, SPREAD_TICK);
+        snapshot = spread.latest();
         Gdx.input.setInputProcessor(this);
     }
     
@@ -58,6 +88,58 @@ public class RegionalGameScreen implements Screen, InputProcessor {
         drawUI();
     }
     
+    // Each territory links to its NEIGHBOURS closest others by pixel-weighted
+    // center, with weight 1 / (1 + d/50) for center distance d
+    private void buildNeighbours() {
+        Geography geography = worldMap.getGeography();
+        int n = territoryCount;
+        float[] x = new float[n];
+        float[] y = new float[n];
+        for (int t = 0; t < n; t++) {
+            float pixels = 0;
+            int end = geography.end(Geography.COUNTRY, t, Geography.REGION);
+            for (int i = geography.first(Geography.COUNTRY, t, Geography.REGION); i < end; i++) {
+                RegionalWorldMap.Region r = worldMap.getTerritoryMember(i);
+                x[t] += r.centerX * (float)r.pixelCount;
+                y[t] += r.centerY * (float)r.pixelCount;
+                pixels += r.pixelCount;
+            }
+            if (pixels > 0) {
+                x[t] /= pixels;
+                y[t] /= pixels;
+            }
+        }
+        
+        int k = Math.max(0, Math.min(NEIGHBOURS, n - 1));
+        neighbourStart = new int[n + 1];
+        neighbours = new int[n * k];
+        borderWeights = new float[neighbours.length];
+        float[] best = new float[k];
+        for (int t = 0; t < n; t++) {
+            int base = t * k;
+            neighbourStart[t] = base;
+            Arrays.fill(best, Float.MAX_VALUE);
+            for (int o = 0; k > 0 && o < n; o++) {
+                if (o == t) continue;
+                float d = (x[o] - x[t]) * (x[o] - x[t]) + (y[o] - y[t]) * (y[o] - y[t]);
+                // Insertion into the k closest so far
+                int slot = k - 1;
+                if (d >= best[slot]) continue;
+                while (slot > 0 && best[slot - 1] > d) {
+                    best[slot] = best[slot - 1];
+                    neighbours[base + slot] = neighbours[base + slot - 1];
+                    slot--;
+                }
+                best[slot] = d;
+                neighbours[base + slot] = o;
+            }
+            for (int j = 0; j < k; j++) {
+                borderWeights[base + j] = 1 / (1 + (float)Math.sqrt(best[j]) / 50);
+            }
+        }
+        neighbourStart[n] = n * k;
+    }
+    
     private void handleInput() {
         Vector3 mousePos = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
         camera.unproject(mousePos);
@@ -74,9 +156,23 @@ public class RegionalGameScreen implements Screen, InputProcessor {
         RegionalWorldMap.Region region = worldMap.getRegionAt(mousePos.x, mousePos.y);
         worldMap.setHoveredRegion(region);
         
-        // Apply influence to all regions with same name
-        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
-            worldMap.applyInfluenceToSelected(15);
+        // Infect devices across the selected territory
+        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE) && worldMap.getSelectedRegion() != null) {
+            spread.infect(worldMap.getSelectedRegion().territory, 0.15f);
+        }
+        
+        // Switch spread model, carrying each territory's infected share over.
+        // Built on the spread thread, so the device arrays never stall a frame
+        if (Gdx.input.isKeyJustPressed(Input.Keys.M)) {
+            spread.post(current -> {
+                SpreadModel next = current instanceof EpidemicModel
+                    ? new DeviceSimulation(territoryPopulation, DEVICE_COUNT, System.nanoTime())
+                    : new EpidemicModel(territoryPopulation, neighbourStart, neighbours, borderWeights);
+                for (int t = 0; t < territoryCount; t++) {
+                    next.infect(t, current.influence(t) / 100);
+                }
+                return next;
+            });
         }
         
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
@@ -94,22 +190,19 @@ public class RegionalGameScreen implements Screen, InputProcessor {
     }
     
     private void updateGame(float delta) {
-        float totalInfluence = 0;
-        float totalPopulation = 0;
-        
-        // Calculate influence by unique regions (don't double-count same-named regions)
-        Set<String> countedRegions = new HashSet<>();
+        snapshot = spread.latest();
         
-        for (RegionalWorldMap.Region region : worldMap.getAllRegions()) {
-            if (!countedRegions.contains(region.name)) {
-                totalInfluence += region.influence * region.population;
-                totalPopulation += region.population;
-                countedRegions.add(region.name);
+        // Totals follow the model's ticks; only the overlay is blended per frame
+        if (snapshot.tick != snapshotTick) {
+            snapshotTick = snapshot.tick;
+            for (int t = 0; t < territoryCount; t++) {
+                worldMap.setInfluence(t, snapshot.current[t]);
             }
+            globalInfluence = worldMap.getGlobalInfluence();
         }
-        
-        if (totalPopulation > 0) {
-            globalInfluence = totalInfluence / totalPopulation;
+        float alpha = spread.alpha(snapshot);
+        for (int t = 0; t < territoryCount; t++) {
+            worldMap.showInfluence(t, snapshot.influence(t, alpha));
         }
     }
     
@@ -119,7 +212,12 @@ public class RegionalGameScreen implements Screen, InputProcessor {
         game.font.setColor(Color.WHITE);
         game.font.draw(game.batch, "AI INFLUENCE - Regional Control", 10, 470);
         game.font.draw(game.batch, "Global Influence: " + (int)globalInfluence + "%", 10, 450);
-        game.font.draw(game.batch, "Unique Territories: " + worldMap.getUniqueRegionCount(), 10, 430);
+        game.font.draw(game.batch, "Unique Territories: " + territoryCount, 10, 430);
+        if (snapshot.devices) {
+            game.font.draw(game.batch, "Devices: " + snapshot.infectedDevices + " / " + snapshot.deviceCount, 10, 390);
+        } else {
+            game.font.draw(game.batch, "Spread: compartment model (M for devices)", 10, 390);
+        }
         
         // DEBUG COORDINATES
         game.font.setColor(Color.RED);
@@ -132,7 +230,11 @@ public class RegionalGameScreen implements Screen, InputProcessor {
             game.font.setColor(Color.YELLOW);
             game.font.draw(game.batch, "Region: " + hovered.name, 10, 100);
             game.font.draw(game.batch, "Population: " + (int)hovered.population + "M", 10, 80);
-            game.font.draw(game.batch, "Influence: " + (int)hovered.influence + "%", 10, 60);
+            game.font.draw(game.batch, "Influence: " + (int)worldMap.getInfluence(hovered) + "%", 10, 60);
+            Geography geography = worldMap.getGeography();
+            int continent = geography.parent(Geography.COUNTRY, hovered.territory);
+            game.font.draw(game.batch, geography.name(Geography.CONTINENT, continent) + ": " +
+                           (int)worldMap.getInfluence(Geography.CONTINENT, continent) + "%", 10, 120);
             
             float regionCenterX = (float)hovered.centerX / worldMap.getMapWidth();
             float regionCenterY = (float)hovered.centerY / worldMap.getMapHeight();
@@ -267,6 +369,7 @@ public class RegionalGameScreen implements Screen, InputProcessor {
     public void hide() {}
     @Override
     public void dispose() {
+        spread.stop();
         batch.dispose();
         worldMap.dispose();
         Gdx.input.setInputProcessor(null);
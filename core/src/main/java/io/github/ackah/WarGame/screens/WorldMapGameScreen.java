@@ -10,6 +10,8 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.ScreenUtils;
 import io.github.ackah.aiinfluence.*;
+import io.github.ackah.aiinfluence.systems.InfluenceTotals;
+import java.util.List;
 
 public class WorldMapGameScreen implements Screen, InputProcessor {
     private final AIInfluenceGame game;
@@ -29,6 +31,8 @@ public class WorldMapGameScreen implements Screen, InputProcessor {
     
     // Game state
     private float globalInfluence = 0;
+    private final List<CompleteWorldMap.Country> countries;
+    private final InfluenceTotals totals;
     
     public WorldMapGameScreen(AIInfluenceGame game) {
         this.game = game;
@@ -36,6 +40,13 @@ public class WorldMapGameScreen implements Screen, InputProcessor {
         camera.setToOrtho(false, 800, 480);
         batch = new SpriteBatch();
         worldMap = new CompleteWorldMap();
+        
+        countries = worldMap.getAllCountries();
+        float[] population = new float[countries.size()];
+        for (int i = 0; i < population.length; i++) {
+            population[i] = countries.get(i).population;
+        }
+        totals = new InfluenceTotals(population);
         Gdx.input.setInputProcessor(this);
     }
     
@@ -72,6 +83,7 @@ public class WorldMapGameScreen implements Screen, InputProcessor {
             CompleteWorldMap.Country selected = worldMap.getSelectedCountry();
             if (selected != null) {
                 selected.influence = Math.min(100, selected.influence + 15);
+                totals.set(selected.index, selected.influence);
             }
         }
         
@@ -90,17 +102,7 @@ public class WorldMapGameScreen implements Screen, InputProcessor {
     }
     
     private void updateGame(float delta) {
-        float totalInfluence = 0;
-        float totalPopulation = 0;
-        
-        for (CompleteWorldMap.Country country : worldMap.getAllCountries()) {
-            totalInfluence += country.influence * country.population;
-            totalPopulation += country.population;
-        }
-        
-        if (totalPopulation > 0) {
-            globalInfluence = totalInfluence / totalPopulation;
-        }
+        globalInfluence = totals.global();
     }
     
     private void drawUI() {
@@ -0,0 +1,56 @@
+package io.github.ackah.aiinfluence.systems;
+
+import java.util.Arrays;
+
+// Reusable buffer of player actions for one simulation step. Actions are plain
+// ints and floats so queuing them from input handling allocates nothing.
+public class Actions {
+    public static final int SELECT_REGION = 1;     // target = region id (-1 clears)
+    public static final int RESPOND_QUERY = 2;     // target = response index 0-2
+    public static final int DISMISS_RESULT = 3;
+    public static final int PURCHASE_UPGRADE = 4;  // target = upgrade index
+    public static final int APPLY_INFLUENCE = 5;   // target = region id, amount = influence delta
+    public static final int INFLUENCE_REGION = 6;  // target = region id, costs trust and spreads
+    public static final int SET_MENU_OPEN = 7;     // target = 1 open, 0 closed
+
+    private int[] types = new int[16];
+    private int[] targets = new int[16];
+    private float[] amounts = new float[16];
+    private int size = 0;
+
+    public void add(int type) {
+        add(type, 0, 0);
+    }
+
+    public void add(int type, int target) {
+        add(type, target, 0);
+    }
+
+    public void add(int type, int target, float amount) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+        types[size] = type;
+        targets[size] = target;
+        amounts[size] = amount;
+        size++;
+    }
+
+    public void addAll(Actions other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.types[i], other.targets[i], other.amounts[i]);
+        }
+    }
+
+    public int size() { return size; }
+    public int type(int i) { return types[i]; }
+    public int target(int i) { return targets[i]; }
+    public float amount(int i) { return amounts[i]; }
+
+    public void clear() {
+        size = 0;
+    }
+}
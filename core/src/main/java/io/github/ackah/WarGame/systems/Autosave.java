@@ -0,0 +1,144 @@
+package io.github.ackah.aiinfluence.systems;
+
+import io.github.ackah.aiinfluence.model.GameState;
+import io.github.ackah.aiinfluence.utils.BinaryWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Periodic background saves. The render thread only copies the state into a
+// spare GameState; diffing, encoding and disk I/O happen on a worker, which
+// appends a chunk of what changed since the last save. Once the appended
+// chunks outgrow the full snapshot the file is rewritten from scratch. Saves
+// are synced to disk, after which the journal can drop what they cover.
+public class Autosave {
+    private final GameState state;
+    private final GameState captured;
+    private final GameState written;
+    private final Path file;
+    private final float interval;
+    private final ExecutorService worker;
+    private final AtomicBoolean busy = new AtomicBoolean(false);
+    private Future<?> pending;
+
+    private final BinaryWriter out = new BinaryWriter(4096);
+    private final BinaryWriter scratch = new BinaryWriter(4096);
+    private boolean hasBase = false;
+    private int baseSize = 0;
+    private int appendedSize = 0;
+    private float timer = 0;
+    private Journal journal;
+
+    public Autosave(GameState state, Path file, float interval) {
+        this.state = state;
+        this.file = file;
+        this.interval = interval;
+        this.captured = new GameState(state.regionNames, state.population);
+        this.written = new GameState(state.regionNames, state.population);
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Snapshots then record how much of the journal they already include
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public void update(float delta) {
+        timer += delta;
+        if (timer >= interval && checkpoint()) {
+            timer = 0;
+        }
+    }
+
+    // Copies the state and hands it to the worker. Skipped (returns false) if
+    // the previous save is still being written, so the caller never waits.
+    public boolean checkpoint() {
+        if (!busy.compareAndSet(false, true)) return false;
+        state.copyTo(captured);
+        if (journal != null) {
+            captured.journalPosition = journal.position();
+        }
+        pending = worker.submit(this::save);
+        return true;
+    }
+
+    private void save() {
+        try {
+            if (!hasBase || appendedSize > baseSize) {
+                writeFull();
+            } else {
+                appendChanges();
+            }
+            captured.copyTo(written);
+            if (journal != null) {
+                journal.compact(captured.journalPosition);
+            }
+        } catch (IOException e) {
+            // Try again from a clean file next time
+            hasBase = false;
+            System.err.println("Autosave failed: " + e.getMessage());
+        } finally {
+            busy.set(false);
+        }
+    }
+
+    private void writeFull() throws IOException {
+        out.clear();
+        SaveSystem.writeHeader(captured, out);
+        SaveSystem.writeChunk(null, captured, out, scratch);
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temp.toFile())) {
+            out.writeTo(stream);
+            stream.getFD().sync();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        hasBase = true;
+        baseSize = out.size();
+        appendedSize = 0;
+    }
+
+    private void appendChanges() throws IOException {
+        out.clear();
+        if (!SaveSystem.writeChunk(written, captured, out, scratch)) return;
+        try (FileOutputStream stream = new FileOutputStream(file.toFile(), true)) {
+            out.writeTo(stream);
+            stream.getFD().sync();
+        }
+        appendedSize += out.size();
+    }
+
+    // Writes a last save and waits for it, for use when the game closes.
+    // A save still in flight is waited for first so the last one sees all changes.
+    public void close() {
+        try {
+            if (pending != null) {
+                pending.get(5, TimeUnit.SECONDS);
+            }
+            checkpoint();
+            pending.get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Final autosave failed: " + e);
+        } finally {
+            worker.shutdown();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package io.github.ackah.aiinfluence.systems;
+
+import io.github.ackah.aiinfluence.DetailedWorldMap;
+import io.github.ackah.aiinfluence.Upgrade;
+import io.github.ackah.aiinfluence.model.AITrait;
+import io.github.ackah.aiinfluence.model.GameState;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Headless balancing: plays many complete campaign runs per policy in
+// parallel and writes aggregate statistics as CSV.
+//
+// Usage: BatchRunner [runs] [output.csv] [maxGameTime] [tick] [seed]
+public class BatchRunner {
+    private final String[] regionNames;
+    private final float[] population;
+    private final SimulationConfig config;
+    private final float maxGameTime;
+    private final float tick;
+    private final GameRandom random;
+
+    public BatchRunner(String[] regionNames, float[] population, SimulationConfig config,
+                       float maxGameTime, float tick, long seed) {
+        this.regionNames = regionNames;
+        this.population = population;
+        this.config = config;
+        this.maxGameTime = maxGameTime;
+        this.tick = tick;
+        this.random = new GameRandom(seed);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        String output = args.length > 1 ? args[1] : "balance.csv";
+        float maxGameTime = args.length > 2 ? Float.parseFloat(args[2]) : 1800f;
+        float tick = args.length > 3 ? Float.parseFloat(args[3]) : 0.1f;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        List<DetailedWorldMap.Continent> continents = new DetailedWorldMap().getContinents();
+        String[] names = new String[continents.size()];
+        float[] population = new float[continents.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = continents.get(i).name;
+            population[i] = continents.get(i).population;
+        }
+
+        Map<String, Policy> policies = new LinkedHashMap<>();
+        policies.put("random", Policy.random());
+        policies.put("always_1", Policy.always(0));
+        policies.put("always_2", Policy.always(1));
+        policies.put("always_3", Policy.always(2));
+        policies.put("greedy_60", Policy.greedy(60));
+        policies.put("greedy_80", Policy.greedy(80));
+
+        BatchRunner runner = new BatchRunner(names, population, SimulationConfig.campaign(), maxGameTime, tick, seed);
+        try (PrintWriter out = new PrintWriter(new FileWriter(output))) {
+            out.println(Stats.header());
+            for (Map.Entry<String, Policy> entry : policies.entrySet()) {
+                long start = System.nanoTime();
+                Stats stats = runner.runAll(entry.getValue(), runs);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                out.println(stats.toCsv(entry.getKey()));
+                System.out.printf(Locale.ROOT, "%-10s %d runs in %.2fs (%.0f runs/s), win rate %.3f%n",
+                    entry.getKey(), runs, seconds, runs / seconds, stats.wins / (double)stats.runs);
+            }
+        }
+        System.out.println("Wrote " + output + " (seed " + seed + ")");
+    }
+
+    // Runs are independent, so they spread across all cores and merge at the
+    // end. Run i always uses stream i, whichever thread picks it up.
+    public Stats runAll(Policy policy, int runs) {
+        return IntStream.range(0, runs).parallel()
+            .mapToObj(i -> runOnce(policy, random.stream(i)))
+            .collect(Stats::new, Stats::add, Stats::merge);
+    }
+
+    public GameState runOnce(Policy policy, GameRandom runRandom) {
+        GameState state = new GameState(regionNames, population);
+        Simulation simulation = new Simulation(state, config, runRandom.nextLong());
+        GameRandom policyRandom = runRandom.split();
+        Actions actions = new Actions();
+        while (!state.won && !state.lost && state.gameTime < maxGameTime) {
+            actions.clear();
+            policy.act(state, actions, policyRandom);
+            simulation.step(tick, actions);
+        }
+        return state;
+    }
+
+    public static class Stats {
+        int runs, wins, losses, timeouts;
+        double winTime, lossTime, gameTime;
+        double pointsEarned, pointsSpent, upgrades, queries, bestInfluence;
+        int[] purchases = new int[UPGRADE_NAMES.length];
+        int[] traitRuns = new int[TRAITS.length];
+        int[] traitWins = new int[TRAITS.length];
+
+        static final AITrait[] TRAITS = AITrait.values();
+
+        static final String[] UPGRADE_NAMES;
+        static {
+            List<Upgrade> all = Upgrade.getAllUpgrades();
+            UPGRADE_NAMES = new String[all.size()];
+            for (int i = 0; i < UPGRADE_NAMES.length; i++) {
+                UPGRADE_NAMES[i] = all.get(i).name;
+            }
+        }
+
+        void add(GameState state) {
+            runs++;
+            if (state.won) {
+                wins++;
+                winTime += state.gameTime;
+            } else if (state.lost) {
+                losses++;
+                lossTime += state.gameTime;
+            } else {
+                timeouts++;
+            }
+            gameTime += state.gameTime;
+
+            for (int t = 0; t < TRAITS.length; t++) {
+                if ((state.traits & TRAITS[t].bit()) != 0) {
+                    traitRuns[t]++;
+                    if (state.won) traitWins[t]++;
+                }
+            }
+
+            int spent = 0;
+            for (int i = state.upgrades.nextPurchased(0); i >= 0; i = state.upgrades.nextPurchased(i + 1)) {
+                spent += state.upgrades.get(i).cost;
+                upgrades++;
+                purchases[i]++;
+            }
+            pointsSpent += spent;
+            pointsEarned += spent + state.queryPoints;
+            queries += state.totalQueries;
+            bestInfluence += state.bestInfluence;
+        }
+
+        void merge(Stats other) {
+            runs += other.runs;
+            wins += other.wins;
+            losses += other.losses;
+            timeouts += other.timeouts;
+            winTime += other.winTime;
+            lossTime += other.lossTime;
+            gameTime += other.gameTime;
+            pointsEarned += other.pointsEarned;
+            pointsSpent += other.pointsSpent;
+            upgrades += other.upgrades;
+            queries += other.queries;
+            bestInfluence += other.bestInfluence;
+            for (int i = 0; i < purchases.length; i++) {
+                purchases[i] += other.purchases[i];
+            }
+            for (int t = 0; t < TRAITS.length; t++) {
+                traitRuns[t] += other.traitRuns[t];
+                traitWins[t] += other.traitWins[t];
+            }
+        }
+
+        static String header() {
+            StringBuilder sb = new StringBuilder("policy,runs,win_rate,loss_rate,timeout_rate,"
+                + "mean_time_to_win,mean_time_to_loss,mean_points_earned,mean_points_spent,"
+                + "points_per_minute,mean_upgrades,mean_queries,mean_best_influence");
+            for (String name : UPGRADE_NAMES) {
+                sb.append(",bought_").append(name.toLowerCase(Locale.ROOT).replace(' ', '_'));
+            }
+            for (AITrait t : TRAITS) {
+                sb.append(",win_rate_").append(t.name().toLowerCase(Locale.ROOT));
+            }
+            return sb.toString();
+        }
+
+        String toCsv(String policy) {
+            StringBuilder sb = new StringBuilder(policy);
+            sb.append(',').append(runs);
+            append(sb, wins / (double)runs);
+            append(sb, losses / (double)runs);
+            append(sb, timeouts / (double)runs);
+            append(sb, wins > 0 ? winTime / wins : 0);
+            append(sb, losses > 0 ? lossTime / losses : 0);
+            append(sb, pointsEarned / runs);
+            append(sb, pointsSpent / runs);
+            append(sb, gameTime > 0 ? pointsEarned * 60 / gameTime : 0);
+            append(sb, upgrades / runs);
+            append(sb, queries / runs);
+            append(sb, bestInfluence / runs);
+            for (int count : purchases) {
+                append(sb, count / (double)runs);
+            }
+            for (int t = 0; t < TRAITS.length; t++) {
+                append(sb, traitRuns[t] > 0 ? traitWins[t] / (double)traitRuns[t] : 0);
+            }
+            return sb.toString();
+        }
+
+        private static void append(StringBuilder sb, double value) {
+            sb.append(',').append(String.format(Locale.ROOT, "%.4f", value));
+        }
+    }
+}
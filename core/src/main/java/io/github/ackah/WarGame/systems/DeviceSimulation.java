@@ -0,0 +1,229 @@
+package io.github.ackah.aiinfluence.systems;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Agent-level model of the devices the AI spreads through. Each device is a
+// state byte and a next-event time; devices are laid out by territory, so a
+// device's territory follows from its index and costs no memory. That keeps
+// the whole layer at five bytes per device.
+//
+// Devices are swept a slice per step, so each one is looked at about once per
+// sweep period. Large slices split across the fork-join pool; each chunk
+// draws from its own random stream and the infection pressure is fixed at
+// the start of a step, so results don't depend on how chunks are scheduled.
+public class DeviceSimulation implements SpreadModel {
+    // Device states
+    public static final byte CLEAN = 0;
+    public static final byte INFECTED = 1;
+    public static final byte PATCHED = 2;   // immune until its event fires
+
+    private static final int CHUNK = 1 << 16; // devices per task
+
+    public float infectionRate = 0.02f;     // per second at full local infection
+    public float mixing = 0.02f;            // share of pressure coming from everywhere else
+    public float patchSeconds = 240f;       // mean time before an infected device is cleaned
+    public float immunitySeconds = 120f;    // mean time a cleaned device stays immune
+    public float checkSeconds = 5f;         // how often a clean device is exposed
+    public float sweepSeconds = 1f;         // time to visit every device once
+
+    private final byte[] state;
+    private final float[] nextEvent;
+    private final int[] territoryStart;     // territory t owns devices [start[t], start[t + 1])
+    private final int[] infected;
+    private final float[] exposure;         // chance a clean device is infected at its next check
+    private final GameRandom random;
+    private float time = 0;
+    private int cursor = 0;
+    private float carry = 0;
+    private long steps = 0;
+    private int[][] scratch = new int[0][]; // per-chunk infection changes, kept between sweeps
+
+    // Devices are shared out by population
+    public DeviceSimulation(float[] population, int deviceCount, long seed) {
+        int territories = population.length;
+        territoryStart = new int[territories + 1];
+        float total = 0;
+        for (float p : population) total += p;
+        float running = 0;
+        for (int t = 0; t < territories; t++) {
+            running += population[t];
+            territoryStart[t + 1] = total > 0 ? (int)Math.round((double)deviceCount * running / total) : 0;
+        }
+        int devices = territoryStart[territories];
+        state = new byte[devices];
+        nextEvent = new float[devices];
+        infected = new int[territories];
+        exposure = new float[territories];
+        random = new GameRandom(seed);
+
+        // Spread first exposures over one check period
+        GameRandom init = random.stream(-1);
+        for (int i = 0; i < devices; i++) {
+            nextEvent[i] = init.nextFloat() * checkSeconds;
+        }
+    }
+
+    public int deviceCount() {
+        return state.length;
+    }
+
+    public int territoryCount() {
+        return infected.length;
+    }
+
+    public long infectedCount() {
+        long total = 0;
+        for (int count : infected) total += count;
+        return total;
+    }
+
+    // Infected share of a territory's devices, 0-100
+    @Override
+    public float influence(int territory) {
+        int devices = territoryStart[territory + 1] - territoryStart[territory];
+        return devices > 0 ? 100f * infected[territory] / devices : 0;
+    }
+
+    @Override
+    public void infect(int territory, float fraction) {
+        GameRandom r = random.stream(((long)territory << 32) ^ steps);
+        for (int i = territoryStart[territory]; i < territoryStart[territory + 1]; i++) {
+            if (state[i] == CLEAN && r.nextFloat() < fraction) {
+                state[i] = INFECTED;
+                nextEvent[i] = time + exponential(r, patchSeconds);
+                infected[territory]++;
+            }
+        }
+    }
+
+    @Override
+    public void step(float dt) {
+        time += dt;
+        steps++;
+
+        // Pressure is fixed for the whole step so chunks can run in any order
+        int territories = infected.length;
+        float global = state.length > 0 ? (float)infectedCount() / state.length : 0;
+        for (int t = 0; t < territories; t++) {
+            int devices = territoryStart[t + 1] - territoryStart[t];
+            float local = devices > 0 ? (float)infected[t] / devices : 0;
+            float pressure = infectionRate * ((1 - mixing) * local + mixing * global);
+            exposure[t] = 1 - (float)Math.exp(-pressure * checkSeconds);
+        }
+
+        // Visit the share of devices this step's time is worth, wrapping at the end
+        carry += state.length * dt / sweepSeconds;
+        int count = Math.min(state.length, (int)carry);
+        carry -= count;
+        while (count > 0) {
+            int end = Math.min(state.length, cursor + count);
+            sweep(cursor, end);
+            count -= end - cursor;
+            cursor = end == state.length ? 0 : end;
+        }
+    }
+
+    private void sweep(int from, int to) {
+        int chunks = (to - from + CHUNK - 1) / CHUNK;
+        if (scratch.length < chunks) {
+            int[][] grown = Arrays.copyOf(scratch, chunks);
+            for (int c = scratch.length; c < chunks; c++) {
+                grown[c] = new int[infected.length];
+            }
+            scratch = grown;
+        }
+        if (chunks > 1) {
+            ForkJoinPool.commonPool().invoke(new Task(from, to, 0, chunks));
+        } else {
+            update(from, to, scratch[0]);
+        }
+        for (int c = 0; c < chunks; c++) {
+            merge(scratch[c]);
+        }
+    }
+
+    private void merge(int[] delta) {
+        for (int t = 0; t < delta.length; t++) {
+            infected[t] += delta[t];
+        }
+    }
+
+    // Fires due events for devices [from, to), counting infections gained and lost per territory
+    private void update(int from, int to, int[] delta) {
+        Arrays.fill(delta, 0);
+        byte[] state = this.state;
+        float[] next = this.nextEvent;
+        float[] exposure = this.exposure;
+        float now = time;
+        GameRandom r = random.stream((steps << 32) ^ from);
+
+        int t = territoryOf(from);
+        int territoryEnd = territoryStart[t + 1];
+        for (int i = from; i < to; i++) {
+            while (i >= territoryEnd) {
+                t++;
+                territoryEnd = territoryStart[t + 1];
+            }
+            if (next[i] > now) continue;
+
+            switch (state[i]) {
+                case CLEAN:
+                    if (r.nextFloat() < exposure[t]) {
+                        state[i] = INFECTED;
+                        next[i] = now + exponential(r, patchSeconds);
+                        delta[t]++;
+                    } else {
+                        next[i] = now + checkSeconds * (0.5f + r.nextFloat());
+                    }
+                    break;
+                case INFECTED:
+                    state[i] = PATCHED;
+                    next[i] = now + exponential(r, immunitySeconds);
+                    delta[t]--;
+                    break;
+                default:
+                    state[i] = CLEAN;
+                    next[i] = now + checkSeconds * r.nextFloat();
+                    break;
+            }
+        }
+    }
+
+    private int territoryOf(int device) {
+        int t = Arrays.binarySearch(territoryStart, device);
+        if (t < 0) return -t - 2;
+        // Skip territories that own no devices
+        while (territoryStart[t + 1] == device) t++;
+        return t;
+    }
+
+    private static float exponential(GameRandom r, float mean) {
+        return (float)(-Math.log(1 - r.nextDouble()) * mean);
+    }
+
+    // Splits whole chunks [first, last) of a sweep; only leaves touch scratch
+    @SuppressWarnings("serial")
+    private class Task extends RecursiveAction {
+        private final int from, to, first, last;
+
+        Task(int from, int to, int first, int last) {
+            this.from = from;
+            this.to = to;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first == 1) {
+                int start = from + first * CHUNK;
+                update(start, Math.min(to, start + CHUNK), scratch[first]);
+            } else {
+                int mid = (first + last) >>> 1;
+                invokeAll(new Task(from, to, first, mid), new Task(from, to, mid, last));
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.ackah.aiinfluence.systems;
+
+import io.github.ackah.aiinfluence.model.GameState;
+import io.github.ackah.aiinfluence.model.Modifiers;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Passive spread of influence between regions. Every tick each region grows
+// from its own influence and from the border-weighted average of its
+// neighbours', slowed as it saturates and by how watchful the region already
+// is; that growth raises the region's own suspicion in turn.
+//
+// Each region's new values depend only on the previous tick's, so regions are
+// updated in any order into scratch arrays and large maps split across the
+// fork-join pool without changing the result. Each region's change is passed
+// to the influence totals as it's made, so they never need a rescan.
+public class Diffusion {
+    private static final int PARALLEL_THRESHOLD = 4096; // regions per task
+
+    private final GameState state;
+    private final SimulationConfig config;
+    private final InfluenceTotals totals;
+    private final float[] nextInfluence;
+    private final float[] nextSuspicion;
+    private float[] inverseWeight; // 1 / summed border weight per region
+    private int[] builtFor;        // neighbour list inverseWeight was built from
+
+    // Per-step inputs, shared by the tasks of one step
+    private float growth, spread, notice, decay;
+
+    public Diffusion(GameState state, SimulationConfig config, InfluenceTotals totals) {
+        this.state = state;
+        this.config = config;
+        this.totals = totals;
+        this.nextInfluence = new float[state.regionCount];
+        this.nextSuspicion = new float[state.regionCount];
+    }
+
+    // Returns false when diffusion is switched off and nothing moved
+    public boolean step(float dt) {
+        if (config.growthPerSecond == 0 && config.spreadPerSecond == 0) return false;
+        if (state.neighbours != builtFor) {
+            buildWeights();
+        }
+        float rate = state.modifiers.multiplier(Modifiers.SPREAD_RATE);
+        growth = dt * rate * config.growthPerSecond;
+        spread = dt * rate * config.spreadPerSecond;
+        notice = config.noticePerInfluence;
+        decay = dt * state.modifiers.apply(Modifiers.SUSPICION_DECAY, config.suspicionDecayPerSecond);
+
+        int n = state.regionCount;
+        double delta;
+        if (n >= PARALLEL_THRESHOLD * 2) {
+            Task task = new Task(0, n);
+            ForkJoinPool.commonPool().invoke(task);
+            delta = task.delta;
+        } else {
+            delta = update(0, n);
+        }
+        totals.shift(delta);
+        System.arraycopy(nextInfluence, 0, state.influence, 0, n);
+        System.arraycopy(nextSuspicion, 0, state.regionSuspicion, 0, n);
+        return true;
+    }
+
+    // Returns the summed change in population-weighted influence
+    private double update(int from, int to) {
+        float[] influence = state.influence;
+        float[] suspicion = state.regionSuspicion;
+        int[] start = state.neighbourStart;
+        int[] neighbours = state.neighbours;
+        float[] weights = state.neighbourWeights;
+        float[] inverse = inverseWeight;
+        float[] outInfluence = nextInfluence;
+        float[] outSuspicion = nextSuspicion;
+        float growth = this.growth, spread = this.spread, notice = this.notice, decay = this.decay;
+        InfluenceTotals totals = this.totals;
+        double delta = 0;
+
+        for (int r = from; r < to; r++) {
+            float pressure = 0;
+            int end = start[r + 1];
+            if (weights == null) {
+                for (int k = start[r]; k < end; k++) {
+                    pressure += influence[neighbours[k]];
+                }
+            } else {
+                for (int k = start[r]; k < end; k++) {
+                    pressure += weights[k] * influence[neighbours[k]];
+                }
+            }
+
+            float value = influence[r];
+            float watch = suspicion[r];
+            float gain = (growth * value + spread * pressure * inverse[r])
+                * (1 - value * 0.01f) * (1 - watch * 0.01f);
+            outInfluence[r] = Math.min(100, value + gain);
+            outSuspicion[r] = Math.max(0, Math.min(100, watch + gain * notice - decay));
+            delta += totals.track(r, outInfluence[r]);
+        }
+        return delta;
+    }
+
+    private void buildWeights() {
+        int n = state.regionCount;
+        if (inverseWeight == null) inverseWeight = new float[n];
+        for (int r = 0; r < n; r++) {
+            float total = 0;
+            for (int k = state.neighbourStart[r]; k < state.neighbourStart[r + 1]; k++) {
+                total += state.neighbourWeights == null ? 1 : state.neighbourWeights[k];
+            }
+            inverseWeight[r] = total > 0 ? 1 / total : 0;
+        }
+        builtFor = state.neighbours;
+    }
+
+    @SuppressWarnings("serial")
+    private class Task extends RecursiveAction {
+        private final int from, to;
+        double delta;
+
+        Task(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                delta = update(from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                Task left = new Task(from, mid), right = new Task(mid, to);
+                invokeAll(left, right);
+                delta = left.delta + right.delta;
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.ackah.aiinfluence.systems;
+
+// Compartment model of the spread, a cheaper stand-in for DeviceSimulation.
+// Each territory's devices are split into susceptible, exposed, infected and
+// detected shares; detected devices are cleaned and become susceptible again.
+// Infection pressure mixes a territory's own infected share with the
+// population- and border-weighted average of its neighbours'.
+//
+// The shares of all territories sit in one packed array, block by block
+// [S | E | I | D], and are integrated with fixed-step RK4, so every stage is a
+// flat pass over that array and cost grows linearly with territory count.
+public class EpidemicModel implements SpreadModel {
+    public float transmission = 0.06f;  // new exposures per second at full infection
+    public float incubation = 20f;      // mean seconds from exposed to infected
+    public float detection = 240f;      // mean seconds an infected device goes unnoticed
+    public float cleanup = 120f;        // mean seconds to clean a detected device
+    public float coupling = 0.3f;       // share of pressure coming from neighbours
+    public float stepSeconds = 0.25f;   // RK4 step
+
+    private final int n;
+    private final float[] y;
+    private final float[] k1, k2, k3, k4, stage;
+    private final int[] neighbourStart;
+    private final int[] neighbours;
+    private final float[] weights;      // border weight times neighbour population
+    private final float[] inverseWeight;
+    private float accumulator = 0;
+
+    // Neighbours in compressed form: territory t borders
+    // neighbours[neighbourStart[t] .. neighbourStart[t + 1]), borderWeights
+    // parallel to neighbours or null for equal borders
+    public EpidemicModel(float[] population, int[] neighbourStart, int[] neighbours, float[] borderWeights) {
+        this.n = population.length;
+        this.neighbourStart = neighbourStart;
+        this.neighbours = neighbours;
+        y = new float[4 * n];
+        k1 = new float[4 * n];
+        k2 = new float[4 * n];
+        k3 = new float[4 * n];
+        k4 = new float[4 * n];
+        stage = new float[4 * n];
+        for (int t = 0; t < n; t++) {
+            y[t] = 1;
+        }
+
+        weights = new float[neighbours.length];
+        inverseWeight = new float[n];
+        for (int t = 0; t < n; t++) {
+            float total = 0;
+            for (int k = neighbourStart[t]; k < neighbourStart[t + 1]; k++) {
+                float border = borderWeights == null ? 1 : borderWeights[k];
+                weights[k] = border * population[neighbours[k]];
+                total += weights[k];
+            }
+            inverseWeight[t] = total > 0 ? 1 / total : 0;
+        }
+    }
+
+    @Override
+    public float influence(int territory) {
+        return 100 * (y[n + territory] + y[2 * n + territory]);
+    }
+
+    // Share of a territory's devices open to infection, 0-100
+    public float susceptible(int territory) {
+        return 100 * y[territory];
+    }
+
+    // Share of a territory's devices that have been caught, 0-100
+    public float detected(int territory) {
+        return 100 * y[3 * n + territory];
+    }
+
+    @Override
+    public void infect(int territory, float fraction) {
+        float moved = y[territory] * fraction;
+        y[territory] -= moved;
+        y[2 * n + territory] += moved;
+    }
+
+    @Override
+    public void step(float dt) {
+        accumulator += dt;
+        while (accumulator >= stepSeconds) {
+            integrate(stepSeconds);
+            accumulator -= stepSeconds;
+        }
+    }
+
+    private void integrate(float h) {
+        int size = y.length;
+        derivative(y, k1);
+        for (int i = 0; i < size; i++) stage[i] = y[i] + 0.5f * h * k1[i];
+        derivative(stage, k2);
+        for (int i = 0; i < size; i++) stage[i] = y[i] + 0.5f * h * k2[i];
+        derivative(stage, k3);
+        for (int i = 0; i < size; i++) stage[i] = y[i] + h * k3[i];
+        derivative(stage, k4);
+        float sixth = h / 6;
+        for (int i = 0; i < size; i++) {
+            y[i] += sixth * (k1[i] + 2 * k2[i] + 2 * k3[i] + k4[i]);
+        }
+    }
+
+    private void derivative(float[] in, float[] out) {
+        int n = this.n;
+        int[] start = neighbourStart;
+        int[] neighbours = this.neighbours;
+        float[] weights = this.weights;
+        float[] inverse = inverseWeight;
+        float beta = transmission, sigma = 1 / incubation, delta = 1 / detection, omega = 1 / cleanup;
+
+        for (int t = 0; t < n; t++) {
+            float nearby = 0;
+            for (int k = start[t]; k < start[t + 1]; k++) {
+                nearby += weights[k] * in[2 * n + neighbours[k]];
+            }
+            float s = in[t], e = in[n + t], i = in[2 * n + t], d = in[3 * n + t];
+            // Territories without neighbours only infect themselves
+            float pressure = inverse[t] > 0 ? (1 - coupling) * i + coupling * nearby * inverse[t] : i;
+            float exposed = beta * pressure * s;
+            out[t] = omega * d - exposed;
+            out[n + t] = exposed - sigma * e;
+            out[2 * n + t] = sigma * e - delta * i;
+            out[3 * n + t] = delta * i - omega * d;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.ackah.aiinfluence.systems;
+
+import java.util.SplittableRandom;
+
+// Seeded random source for the simulation. Each subsystem or worker takes its
+// own stream, so nothing contends on a shared generator and a seed plus the
+// same inputs always replays the same run.
+public class GameRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final SplittableRandom random;
+
+    public GameRandom(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // Stream keyed by id: the same seed and id always give the same sequence,
+    // however much has been drawn from this or any other stream
+    public GameRandom stream(long id) {
+        return new GameRandom(mix(seed + mix(id + GOLDEN_GAMMA)));
+    }
+
+    // Fresh stream that depends on how much has been drawn so far
+    public GameRandom split() {
+        return new GameRandom(random.nextLong());
+    }
+
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    public float nextFloat() {
+        return (random.nextInt() >>> 8) * 0x1.0p-24f;
+    }
+
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    // SplitMix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
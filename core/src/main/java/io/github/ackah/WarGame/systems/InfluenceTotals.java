@@ -0,0 +1,110 @@
+package io.github.ackah.aiinfluence.systems;
+
+import io.github.ackah.aiinfluence.utils.FenwickTree;
+
+// Population-weighted influence totals kept up to date as regions change,
+// so global influence never needs a scan. A region change adjusts the
+// running total in O(1) and the range tree in O(log n); ranges of region ids
+// (a continent laid out contiguously, say) are answered in O(log n).
+//
+// A pass that moves most regions at once (diffusion) reports each region with
+// track() and the summed change with shift(), which keeps the total exact
+// and leaves the range tree to be rebuilt in O(n) by the next range query.
+// refresh() takes a whole new set of values, such as a loaded game.
+public class InfluenceTotals {
+    private final float[] population;
+    private final double[] populationPrefix;
+    private final float[] influence;        // last value reported per region
+    private final double[] weighted;        // scratch for rebuilding
+    private final FenwickTree tree;         // influence * population per region
+    private final FenwickTree plain;        // influence per region, for pick()
+    private double total = 0;
+    private boolean stale = false;          // tree is behind influence
+
+    public InfluenceTotals(float[] population) {
+        int n = population.length;
+        this.population = population;
+        populationPrefix = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            populationPrefix[i + 1] = populationPrefix[i] + population[i];
+        }
+        influence = new float[n];
+        weighted = new double[n];
+        tree = new FenwickTree(n);
+        plain = new FenwickTree(n);
+    }
+
+    public void set(int region, float value) {
+        float old = influence[region];
+        if (old == value) return;
+        influence[region] = value;
+        double delta = ((double)value - old) * population[region];
+        total += delta;
+        if (!stale) {
+            tree.add(region, delta);
+            plain.add(region, (double)value - old);
+        }
+    }
+
+    // Records a region's new value and returns the change in its weighted
+    // influence, to be passed on through shift(). Safe to call for different
+    // regions from different threads.
+    public double track(int region, float value) {
+        float old = influence[region];
+        influence[region] = value;
+        return ((double)value - old) * population[region];
+    }
+
+    public void shift(double delta) {
+        total += delta;
+        stale = true;
+    }
+
+    // Takes every region's value at once, also clearing any rounding the
+    // running total picked up
+    public void refresh(float[] values) {
+        System.arraycopy(values, 0, influence, 0, influence.length);
+        rebuild();
+    }
+
+    private void rebuild() {
+        double sum = 0;
+        for (int i = 0; i < influence.length; i++) {
+            weighted[i] = (double)influence[i] * population[i];
+            sum += weighted[i];
+        }
+        tree.build(weighted);
+        for (int i = 0; i < influence.length; i++) {
+            weighted[i] = influence[i];
+        }
+        plain.build(weighted);
+        total = sum;
+        stale = false;
+    }
+
+    public float get(int region) {
+        return influence[region];
+    }
+
+    // Population-weighted mean over all regions, 0-100
+    public float global() {
+        double people = populationPrefix[influence.length];
+        return people > 0 ? (float)(total / people) : 0;
+    }
+
+    // Region drawn with probability proportional to baseline + its influence,
+    // given a uniform fraction in [0, 1)
+    public int pick(float baseline, float fraction) {
+        if (stale) rebuild();
+        int n = influence.length;
+        double target = fraction * (plain.prefix(n) + (double)baseline * n);
+        return Math.min(plain.find(target, baseline), n - 1);
+    }
+
+    // Population-weighted mean over regions [from, to), 0-100
+    public float range(int from, int to) {
+        if (stale) rebuild();
+        double people = populationPrefix[to] - populationPrefix[from];
+        return people > 0 ? (float)(tree.sum(from, to) / people) : 0;
+    }
+}
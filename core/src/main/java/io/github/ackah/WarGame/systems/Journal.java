@@ -0,0 +1,518 @@
+package io.github.ackah.aiinfluence.systems;
+
+import com.badlogic.gdx.utils.LongArray;
+import io.github.ackah.aiinfluence.Query;
+import io.github.ackah.aiinfluence.model.GameState;
+import io.github.ackah.aiinfluence.utils.BinaryReader;
+import io.github.ackah.aiinfluence.utils.BinaryWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+// Append-only log of state changes between snapshots. The game thread only
+// encodes a few bytes per event into memory; a writer thread batches them,
+// appends each batch with a length and CRC, and fsyncs. Events mostly carry
+// new values rather than deltas; replay starts exactly at the snapshot's
+// position, so the few that don't (queries entering and leaving the inbox)
+// apply once.
+//
+// Recovery loads the last snapshot and replays the journal from the position
+// stored in it, stopping at the first torn or corrupt batch. Once a snapshot
+// is safely written, compact() drops the batches it already covers, so the
+// file only ever holds events since about the last save. The header records
+// the position the remaining batches start at.
+public class Journal {
+    static final int MAGIC = 0x41494A4C; // "AIJL"
+    static final int VERSION = 6;
+    static final int HEADER_SIZE = 13;  // magic, version, position of the first batch
+
+    // Event types
+    static final int INFLUENCE = 1; // varint region, float influence, float regional suspicion
+    static final int STATS = 2;     // float trust, float suspicion, varint points
+    static final int PURCHASE = 3;  // varint upgrade index
+    static final int SYNC = 4;      // slowly drifting fields, see sync()
+    static final int QUERY_PRESENT = 5; // varint query, varint region; taken from the inbox
+    static final int QUERY_RESOLVE = 6; // varint total queries, varint streak, string result message
+    static final int QUERY_RELEASE = 7; // shown query answered and dismissed, or timed out
+    static final int INBOX_ADD = 8;     // varint query, varint region, float deadline
+    static final int INBOX_EXPIRE = 9;  // float time; pending queries due by then were dropped
+
+    private static final float SYNC_INTERVAL = 1f;
+    private static final float DRIFT = 0.5f; // passive region change logged once it adds up to this
+
+    private final Path file;
+    private FileChannel channel;         // writer thread only, once started
+    private final long flushMillis;
+    private final Object lock = new Object();
+    private BinaryWriter pending = new BinaryWriter(4096);
+    private BinaryWriter writing = new BinaryWriter(4096);
+    private final BinaryWriter frame = new BinaryWriter(4096);
+    private final CRC32 crc = new CRC32();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private long position;
+    private final AtomicLong compactTo = new AtomicLong(-1);
+    // File offset and end position of each batch on disk, writer thread only
+    private final LongArray batchOffsets = new LongArray();
+    private final LongArray batchEnds = new LongArray();
+    private long written;               // position at the end of the last batch, writer thread only
+    private float syncTimer = 0;
+    private float[] logged; // region values as of the last event, for drift
+
+    public Journal(Path file, long flushMillis) throws IOException {
+        this.file = file;
+        this.flushMillis = flushMillis;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+
+        long validEnd = 0;
+        if (Files.exists(file)) {
+            Scan scan = scan(Files.readAllBytes(file), null, 0);
+            validEnd = scan.validEnd;
+            position = scan.position;
+            batchOffsets.addAll(scan.offsets);
+            batchEnds.addAll(scan.ends);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (validEnd == 0) {
+            channel.truncate(0);
+            channel.write(header(0), 0);
+            validEnd = HEADER_SIZE;
+            position = 0;
+        } else {
+            // Drop a batch torn by a crash so new ones follow valid data
+            channel.truncate(validEnd);
+        }
+        channel.position(validEnd);
+        written = position;
+
+        writer = new Thread(this::run, "journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private static ByteBuffer header(long base) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).put((byte)VERSION).putLong(base).flip();
+        return header;
+    }
+
+    // Bytes of events logged so far; snapshots store this to know where to resume
+    public long position() {
+        synchronized (lock) {
+            return position;
+        }
+    }
+
+    public void influence(int region, float value, float suspicion) {
+        synchronized (lock) {
+            int start = pending.size();
+            pending.writeVarint(INFLUENCE).writeVarint(region).writeFloat(value).writeFloat(suspicion);
+            position += pending.size() - start;
+        }
+        if (logged != null && region < logged.length) {
+            logged[region] = value;
+        }
+    }
+
+    public void stats(float trust, float suspicion, int points) {
+        synchronized (lock) {
+            int start = pending.size();
+            pending.writeVarint(STATS).writeFloat(trust).writeFloat(suspicion).writeVarint(points);
+            position += pending.size() - start;
+        }
+    }
+
+    public void purchase(int upgrade) {
+        synchronized (lock) {
+            int start = pending.size();
+            pending.writeVarint(PURCHASE).writeVarint(upgrade);
+            position += pending.size() - start;
+        }
+    }
+
+    public void inboxAdded(int query, int region, float deadline) {
+        synchronized (lock) {
+            int start = pending.size();
+            pending.writeVarint(INBOX_ADD).writeVarint(query).writeVarint(region).writeFloat(deadline);
+            position += pending.size() - start;
+        }
+    }
+
+    public void inboxExpired(float time) {
+        synchronized (lock) {
+            int start = pending.size();
+            pending.writeVarint(INBOX_EXPIRE).writeFloat(time);
+            position += pending.size() - start;
+        }
+    }
+
+    public void queryPresented(int query, int region) {
+        synchronized (lock) {
+            int start = pending.size();
+            pending.writeVarint(QUERY_PRESENT).writeVarint(query).writeVarint(region);
+            position += pending.size() - start;
+        }
+    }
+
+    public void queryResolved(GameState state) {
+        synchronized (lock) {
+            int start = pending.size();
+            pending.writeVarint(QUERY_RESOLVE)
+                .writeVarint(state.totalQueries)
+                .writeVarint(state.streak)
+                .writeString(state.resultMessage);
+            position += pending.size() - start;
+        }
+    }
+
+    public void queryReleased() {
+        synchronized (lock) {
+            int start = pending.size();
+            pending.writeVarint(QUERY_RELEASE);
+            position += pending.size() - start;
+        }
+    }
+
+    // Time, passive decay and counters change every tick, so they are logged
+    // about once a second instead of per change
+    public void update(GameState state, float delta) {
+        syncTimer += delta;
+        if (syncTimer >= SYNC_INTERVAL) {
+            syncTimer = 0;
+            sync(state);
+            syncRegions(state);
+        }
+    }
+
+    // Passive spread moves every region a little each tick; only regions that
+    // have drifted noticeably since they were last logged are written
+    private void syncRegions(GameState state) {
+        if (logged == null || logged.length != state.regionCount) {
+            logged = new float[state.regionCount];
+            Arrays.fill(logged, Float.NaN);
+        }
+        for (int i = 0; i < state.regionCount; i++) {
+            if (!(Math.abs(state.influence[i] - logged[i]) < DRIFT)) {
+                influence(i, state.influence[i], state.regionSuspicion[i]);
+            }
+        }
+    }
+
+    public void sync(GameState state) {
+        synchronized (lock) {
+            int start = pending.size();
+            pending.writeVarint(SYNC)
+                .writeVarLong(state.clock)
+                .writeFloat(state.trust)
+                .writeFloat(state.suspicion)
+                .writeVarint(state.queryPoints)
+                .writeVarint(state.totalQueries)
+                .writeVarint(state.streak)
+                .writeFloat(state.bestInfluence)
+                .writeFloat(state.timeSinceLastQuery)
+                .writeFloat(state.queryInterval)
+                .writeFloat(state.queryTimer);
+            position += pending.size() - start;
+        }
+    }
+
+    // Lets the journal drop everything before position, once a snapshot that
+    // includes it is safely on disk. Done by the writer thread after its next flush.
+    public void compact(long upTo) {
+        compactTo.accumulateAndGet(upTo, Math::max);
+    }
+
+    private void run() {
+        while (running) {
+            // Parked rather than sleeping so close() can wake it without an
+            // interrupt, which would close the channel mid-write
+            LockSupport.parkNanos(flushMillis * 1000000L);
+            flush();
+            long upTo = compactTo.getAndSet(-1);
+            if (upTo >= 0) {
+                rewrite(upTo);
+            }
+        }
+        flush();
+    }
+
+    // Copies the batches still needed after upTo into a fresh file and swaps it in
+    private void rewrite(long upTo) {
+        int drop = 0;
+        while (drop < batchEnds.size && batchEnds.get(drop) <= upTo) drop++;
+        if (drop == 0) return;
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            long base = batchEnds.get(drop - 1);
+            long from = drop < batchOffsets.size ? batchOffsets.get(drop) : channel.size();
+            long end = channel.size();
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.write(header(base));
+                long at = from;
+                while (at < end) {
+                    at += channel.transferTo(at, end - at, out);
+                }
+                out.force(false);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel.close();
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+
+            batchOffsets.removeRange(0, drop - 1);
+            batchEnds.removeRange(0, drop - 1);
+            for (int i = 0; i < batchOffsets.size; i++) {
+                batchOffsets.set(i, batchOffsets.get(i) - from + HEADER_SIZE);
+            }
+        } catch (IOException e) {
+            System.err.println("Journal compaction failed: " + e.getMessage());
+        }
+    }
+
+    private void flush() {
+        synchronized (lock) {
+            if (writing.size() == 0) {
+                BinaryWriter swap = pending;
+                pending = writing;
+                writing = swap;
+            } else {
+                // A batch that failed to write goes out again with what came since
+                writing.writeBytes(pending.buffer(), 0, pending.size());
+                pending.clear();
+            }
+        }
+        int length = writing.size();
+        if (length == 0) return;
+
+        frame.clear();
+        frame.writeVarint(length);
+        frame.writeBytes(writing.buffer(), 0, length);
+        crc.reset();
+        crc.update(writing.buffer(), 0, length);
+        frame.writeInt((int)crc.getValue());
+
+        long offset = -1;
+        try {
+            offset = channel.position();
+            ByteBuffer buffer = ByteBuffer.wrap(frame.buffer(), 0, frame.size());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            System.err.println("Journal write failed: " + e.getMessage());
+            // Don't leave a torn frame for recovery to stop at; the events
+            // stay in writing for the next flush
+            if (offset >= 0) {
+                try {
+                    channel.truncate(offset);
+                    channel.position(offset);
+                } catch (IOException truncateFailed) {
+                    System.err.println("Journal truncate failed: " + truncateFailed.getMessage());
+                }
+            }
+            return;
+        }
+        writing.clear();
+        batchOffsets.add(offset);
+        batchEnds.add(written + length);
+        written += length;
+    }
+
+    // Flushes what is left and closes the file
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Journal close failed: " + e.getMessage());
+        }
+    }
+
+    // Applies events logged after state.journalPosition onto a loaded snapshot
+    public static void replay(Path file, GameState state) throws IOException {
+        if (!Files.exists(file)) return;
+        Scan scan = scan(Files.readAllBytes(file), state, state.journalPosition);
+        state.journalPosition = scan.position;
+        state.compileModifiers();
+    }
+
+    private static class Scan {
+        int validEnd;
+        long position;
+        final LongArray offsets = new LongArray();
+        final LongArray ends = new LongArray();
+    }
+
+    private static Scan scan(byte[] data, GameState state, long from) {
+        Scan scan = new Scan();
+        BinaryReader in = new BinaryReader(data);
+        if (data.length < HEADER_SIZE || in.readInt() != MAGIC || in.readByte() != VERSION) {
+            return scan;
+        }
+        scan.position = in.readLong();
+        scan.validEnd = HEADER_SIZE;
+
+        CRC32 crc = new CRC32();
+        try {
+            while (in.hasRemaining()) {
+                int offset = in.position();
+                int length = in.readVarint();
+                int start = in.position();
+                if (length > in.remaining() - 4) break;
+                in.skip(length);
+                crc.reset();
+                crc.update(data, start, length);
+                if (in.readInt() != (int)crc.getValue()) break;
+
+                if (state != null && scan.position + length > from) {
+                    applyBatch(new BinaryReader(data, start, length), state, from - scan.position);
+                }
+                scan.offsets.add(offset);
+                scan.position += length;
+                scan.ends.add(scan.position);
+                scan.validEnd = in.position();
+            }
+        } catch (IllegalStateException e) {
+            // Torn length prefix at the end of the file
+        }
+        return scan;
+    }
+
+    private static void applyBatch(BinaryReader in, GameState state, long skip) {
+        int start = in.position();
+        while (in.hasRemaining()) {
+            boolean apply = in.position() - start >= skip;
+            int type = in.readVarint();
+            switch (type) {
+                case INFLUENCE: {
+                    int region = in.readVarint();
+                    float value = in.readFloat();
+                    float suspicion = in.readFloat();
+                    if (apply && region < state.regionCount) {
+                        state.influence[region] = value;
+                        state.regionSuspicion[region] = suspicion;
+                    }
+                    break;
+                }
+                case STATS: {
+                    float trust = in.readFloat();
+                    float suspicion = in.readFloat();
+                    int points = in.readVarint();
+                    if (apply) {
+                        state.trust = trust;
+                        state.suspicion = suspicion;
+                        state.queryPoints = points;
+                    }
+                    break;
+                }
+                case PURCHASE: {
+                    int upgrade = in.readVarint();
+                    if (apply) state.upgrades.purchase(upgrade);
+                    break;
+                }
+                case SYNC: {
+                    long clock = in.readVarLong();
+                    float trust = in.readFloat();
+                    float suspicion = in.readFloat();
+                    int points = in.readVarint();
+                    int totalQueries = in.readVarint();
+                    int streak = in.readVarint();
+                    float bestInfluence = in.readFloat();
+                    float timeSinceLastQuery = in.readFloat();
+                    float queryInterval = in.readFloat();
+                    float queryTimer = in.readFloat();
+                    if (apply) {
+                        state.setClock(clock);
+                        state.trust = trust;
+                        state.suspicion = suspicion;
+                        state.queryPoints = points;
+                        state.totalQueries = totalQueries;
+                        state.streak = streak;
+                        state.bestInfluence = bestInfluence;
+                        state.timeSinceLastQuery = timeSinceLastQuery;
+                        state.queryInterval = queryInterval;
+                        if (state.currentQuery != null) state.queryTimer = queryTimer;
+                    }
+                    break;
+                }
+                case QUERY_PRESENT: {
+                    int query = in.readVarint();
+                    int region = in.readVarint();
+                    if (apply) presentQuery(state, query, region);
+                    break;
+                }
+                case QUERY_RESOLVE: {
+                    int totalQueries = in.readVarint();
+                    int streak = in.readVarint();
+                    String resultMessage = in.readString();
+                    if (apply && state.currentQuery != null) {
+                        state.totalQueries = totalQueries;
+                        state.streak = streak;
+                        state.resultMessage = resultMessage;
+                        state.showingResult = true;
+                    }
+                    break;
+                }
+                case QUERY_RELEASE:
+                    if (apply) releaseQuery(state);
+                    break;
+                case INBOX_ADD: {
+                    int query = in.readVarint();
+                    int region = in.readVarint();
+                    float deadline = in.readFloat();
+                    if (apply && region < state.regionCount) state.inbox.add(query, region, deadline);
+                    break;
+                }
+                case INBOX_EXPIRE: {
+                    float time = in.readFloat();
+                    if (apply) state.inbox.expire(time);
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Unknown journal event " + type);
+            }
+        }
+    }
+
+    private static void presentQuery(GameState state, int query, int region) {
+        if (!state.inbox.isEmpty() && state.inbox.peekQuery() == query && state.inbox.peekRegion() == region) {
+            state.inbox.poll();
+        }
+        QueryDatabase queries = QueryDatabase.getDefault();
+        if (query < queries.size() && region < state.regionCount) {
+            state.currentQuery = new Query().set(queries, query, state.regionNames[region]);
+            state.queryRegion = region;
+        } else {
+            state.currentQuery = null;
+            state.queryRegion = -1;
+        }
+        state.queryTimer = 0;
+        state.showingResult = false;
+        state.resultMessage = "";
+    }
+
+    private static void releaseQuery(GameState state) {
+        state.currentQuery = null;
+        state.queryRegion = -1;
+        state.queryTimer = 0;
+        state.showingResult = false;
+        state.resultMessage = "";
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.ackah.aiinfluence.systems;
+
+import io.github.ackah.aiinfluence.model.GameState;
+import io.github.ackah.aiinfluence.model.Modifiers;
+import io.github.ackah.aiinfluence.model.UpgradeTree;
+
+// Stands in for the player during headless runs: looks at the state before a
+// step and queues the actions a player would have taken. Random choices come
+// from the run's own stream so batch results are reproducible.
+public interface Policy {
+    void act(GameState state, Actions actions, GameRandom random);
+
+    // Picks a random response and buys a random affordable upgrade
+    static Policy random() {
+        return (state, actions, random) -> {
+            if (state.currentQuery != null && !state.showingResult) {
+                actions.add(Actions.RESPOND_QUERY, random.nextInt(3));
+            }
+            if (state.showingResult) {
+                actions.add(Actions.DISMISS_RESULT);
+            }
+            UpgradeTree upgrades = state.upgrades;
+            int affordable = 0;
+            for (int i = upgrades.nextAvailable(0); i >= 0; i = upgrades.nextAvailable(i + 1)) {
+                if (upgrades.get(i).cost <= state.queryPoints) affordable++;
+            }
+            if (affordable > 0) {
+                int pick = random.nextInt(affordable);
+                for (int i = upgrades.nextAvailable(0); i >= 0; i = upgrades.nextAvailable(i + 1)) {
+                    if (upgrades.get(i).cost <= state.queryPoints && pick-- == 0) {
+                        actions.add(Actions.PURCHASE_UPGRADE, i);
+                        break;
+                    }
+                }
+            }
+        };
+    }
+
+    // Always gives the same response and buys upgrades cheapest first
+    static Policy always(final int choice) {
+        return (state, actions, random) -> {
+            if (state.currentQuery != null && !state.showingResult) {
+                actions.add(Actions.RESPOND_QUERY, choice);
+            }
+            if (state.showingResult) {
+                actions.add(Actions.DISMISS_RESULT);
+            }
+            buyCheapest(state, actions);
+        };
+    }
+
+    // Takes the most influential response that keeps suspicion under the limit
+    static Policy greedy(final float suspicionLimit) {
+        return (state, actions, random) -> {
+            if (state.currentQuery != null && !state.showingResult) {
+                int best = 0;
+                for (int i = 1; i < 3; i++) {
+                    float suspicion = state.suspicion + state.modifiers.apply(Modifiers.SUSPICION_GAIN, state.currentQuery.getSuspicionImpact(i));
+                    if (suspicion < suspicionLimit
+                            && state.currentQuery.getInfluenceImpact(i) > state.currentQuery.getInfluenceImpact(best)) {
+                        best = i;
+                    }
+                }
+                actions.add(Actions.RESPOND_QUERY, best);
+            }
+            if (state.showingResult) {
+                actions.add(Actions.DISMISS_RESULT);
+            }
+            buyCheapest(state, actions);
+        };
+    }
+
+    static void buyCheapest(GameState state, Actions actions) {
+        UpgradeTree upgrades = state.upgrades;
+        int cheapest = -1;
+        for (int i = upgrades.nextAvailable(0); i >= 0; i = upgrades.nextAvailable(i + 1)) {
+            if (cheapest < 0 || upgrades.get(i).cost < upgrades.get(cheapest).cost) {
+                cheapest = i;
+            }
+        }
+        if (cheapest >= 0 && state.upgrades.get(cheapest).cost <= state.queryPoints) {
+            actions.add(Actions.PURCHASE_UPGRADE, cheapest);
+        }
+    }
+}
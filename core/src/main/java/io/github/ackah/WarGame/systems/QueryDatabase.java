@@ -0,0 +1,348 @@
+package io.github.ackah.aiinfluence.systems;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import io.github.ackah.aiinfluence.Upgrade;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Query content loaded from data/queries.jsonl, one JSON object per line so
+// large files stream in without building a document tree. Text is interned
+// into one string table and impacts sit in flat arrays, three per query.
+//
+// Queries are grouped into buckets by region, type and required upgrades.
+// For a given region and set of owned upgrades the eligible buckets are
+// cached, so picking a query costs a binary search over buckets rather than
+// a scan over every entry.
+public class QueryDatabase {
+    public static final String DEFAULT_PATH = "data/queries.jsonl";
+    public static final int ANY_TYPE = -1;
+    public static final int ANY_REGION = -1;
+
+    private static QueryDatabase defaultDatabase;
+
+    // String table
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    // Per query
+    private int count = 0;
+    private int[] types = new int[64];
+    private int[] questions = new int[64];
+    private int[] responses = new int[64 * 3];
+    private float[] trustImpact = new float[64 * 3];
+    private float[] influenceImpact = new float[64 * 3];
+    private float[] suspicionImpact = new float[64 * 3];
+    private long[] requires = new long[64];
+
+    private final List<String> typeNames = new ArrayList<>();
+    private final Map<String, Integer> regionKeys = new HashMap<>();
+    private final Map<String, Integer> upgradeBits = new HashMap<>();
+
+    // Buckets: queries sharing region key, type and requirement mask
+    private final Map<BucketKey, Bucket> bucketMap = new HashMap<>();
+    private final List<List<Bucket>> bucketsByRegion = new ArrayList<>(); // index regionKey + 1
+    private final Map<Long, Selection> selections = new ConcurrentHashMap<>();
+
+    public QueryDatabase() {
+        List<Upgrade> upgrades = Upgrade.getAllUpgrades();
+        for (int i = 0; i < upgrades.size(); i++) {
+            upgradeBits.put(upgrades.get(i).name, i);
+        }
+        bucketsByRegion.add(new ArrayList<>());
+    }
+
+    // Shared content, loaded on first use
+    public static synchronized QueryDatabase getDefault() {
+        if (defaultDatabase == null) {
+            try (Reader reader = openDefault()) {
+                defaultDatabase = new QueryDatabase();
+                defaultDatabase.load(reader);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not load " + DEFAULT_PATH, e);
+            }
+        }
+        return defaultDatabase;
+    }
+
+    private static Reader openDefault() {
+        if (Gdx.files != null) {
+            return Gdx.files.internal(DEFAULT_PATH).reader("UTF-8");
+        }
+        // Headless tools run with the assets folder on the classpath
+        InputStream stream = QueryDatabase.class.getResourceAsStream("/" + DEFAULT_PATH);
+        if (stream == null) {
+            throw new IllegalStateException(DEFAULT_PATH + " not found on the classpath");
+        }
+        return new InputStreamReader(stream, StandardCharsets.UTF_8);
+    }
+
+    public void load(Reader source) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        JsonReader json = new JsonReader();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            try {
+                add(json.parse(line));
+            } catch (RuntimeException e) {
+                throw new IOException("Bad query on line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        selections.clear();
+    }
+
+    private void add(JsonValue value) {
+        ensureCapacity(count + 1);
+        int index = count++;
+
+        types[index] = typeId(value.getString("type", "general"));
+        questions[index] = intern(value.getString("question"));
+        String[] responseText = value.get("responses").asStringArray();
+        float[] trust = value.get("trust").asFloatArray();
+        float[] influence = value.get("influence").asFloatArray();
+        float[] suspicion = value.get("suspicion").asFloatArray();
+        if (responseText.length != 3 || trust.length != 3 || influence.length != 3 || suspicion.length != 3) {
+            throw new IllegalArgumentException("queries need exactly three responses and impacts");
+        }
+        for (int i = 0; i < 3; i++) {
+            responses[index * 3 + i] = intern(responseText[i]);
+            trustImpact[index * 3 + i] = trust[i];
+            influenceImpact[index * 3 + i] = influence[i];
+            suspicionImpact[index * 3 + i] = suspicion[i];
+        }
+
+        long mask = 0;
+        if (value.has("requires")) {
+            for (String name : value.get("requires").asStringArray()) {
+                Integer bit = upgradeBits.get(name);
+                if (bit == null) throw new IllegalArgumentException("unknown upgrade " + name);
+                mask |= 1L << bit;
+            }
+        }
+        requires[index] = mask;
+
+        if (value.has("regions")) {
+            for (String region : value.get("regions").asStringArray()) {
+                bucket(regionKey(region, true), types[index], mask).add(index);
+            }
+        } else {
+            bucket(ANY_REGION, types[index], mask).add(index);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Key for region-specific content, or ANY_REGION if the region has none
+    public int regionKey(String region) {
+        return regionKey(region, false);
+    }
+
+    public int typeCount() {
+        return typeNames.size();
+    }
+
+    public String typeName(int type) {
+        return typeNames.get(type);
+    }
+
+    public int typeOf(int query) {
+        return types[query];
+    }
+
+    // Random query eligible for the region with the owned upgrades (bit i set
+    // for upgrade i), optionally of one type. Returns -1 if none qualify.
+    public int pick(int regionKey, long owned, int type, GameRandom random) {
+        Selection selection = selection(regionKey, owned, type);
+        if (selection.total == 0) return -1;
+
+        int n = random.nextInt(selection.total);
+        int lo = 0, hi = selection.buckets.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (selection.ends[mid] <= n) lo = mid + 1;
+            else hi = mid;
+        }
+        Bucket bucket = selection.buckets[lo];
+        return bucket.queries[n - (selection.ends[lo] - bucket.size)];
+    }
+
+    public String question(int query) {
+        return strings.get(questions[query]);
+    }
+
+    public String response(int query, int choice) {
+        return strings.get(responses[query * 3 + choice]);
+    }
+
+    public float trustImpact(int query, int choice) {
+        return trustImpact[query * 3 + choice];
+    }
+
+    public float influenceImpact(int query, int choice) {
+        return influenceImpact[query * 3 + choice];
+    }
+
+    public float suspicionImpact(int query, int choice) {
+        return suspicionImpact[query * 3 + choice];
+    }
+
+    private Selection selection(int regionKey, long owned, int type) {
+        long key = ((long)(regionKey + 1) << 40) ^ ((long)(type + 1) << 32) ^ owned;
+        Selection selection = selections.get(key);
+        if (selection != null && selection.regionKey == regionKey && selection.type == type
+                && selection.owned == owned) {
+            return selection;
+        }
+
+        List<Bucket> eligible = new ArrayList<>();
+        collect(bucketsByRegion.get(0), owned, type, eligible);
+        if (regionKey != ANY_REGION) {
+            collect(bucketsByRegion.get(regionKey + 1), owned, type, eligible);
+        }
+        selection = new Selection(regionKey, owned, type, eligible);
+        selections.put(key, selection);
+        return selection;
+    }
+
+    private static void collect(List<Bucket> buckets, long owned, int type, List<Bucket> out) {
+        for (Bucket b : buckets) {
+            if ((b.requires & ~owned) == 0 && (type == ANY_TYPE || b.type == type)) {
+                out.add(b);
+            }
+        }
+    }
+
+    private Bucket bucket(int regionKey, int type, long mask) {
+        BucketKey key = new BucketKey(regionKey, type, mask);
+        Bucket bucket = bucketMap.get(key);
+        if (bucket == null) {
+            bucket = new Bucket(type, mask);
+            bucketMap.put(key, bucket);
+            bucketsByRegion.get(regionKey + 1).add(bucket);
+        }
+        return bucket;
+    }
+
+    private int regionKey(String region, boolean create) {
+        Integer key = regionKeys.get(region);
+        if (key == null) {
+            if (!create) return ANY_REGION;
+            key = regionKeys.size();
+            regionKeys.put(region, key);
+            bucketsByRegion.add(new ArrayList<>());
+        }
+        return key;
+    }
+
+    private int typeId(String name) {
+        int type = typeNames.indexOf(name);
+        if (type < 0) {
+            type = typeNames.size();
+            typeNames.add(name);
+        }
+        return type;
+    }
+
+    private int intern(String text) {
+        Integer id = stringIds.get(text);
+        if (id == null) {
+            id = strings.size();
+            strings.add(text);
+            stringIds.put(text, id);
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= types.length) return;
+        int capacity = Math.max(needed, types.length * 2);
+        types = Arrays.copyOf(types, capacity);
+        questions = Arrays.copyOf(questions, capacity);
+        requires = Arrays.copyOf(requires, capacity);
+        responses = Arrays.copyOf(responses, capacity * 3);
+        trustImpact = Arrays.copyOf(trustImpact, capacity * 3);
+        influenceImpact = Arrays.copyOf(influenceImpact, capacity * 3);
+        suspicionImpact = Arrays.copyOf(suspicionImpact, capacity * 3);
+    }
+
+    private static class Bucket {
+        final int type;
+        final long requires;
+        int[] queries = new int[8];
+        int size = 0;
+
+        Bucket(int type, long requires) {
+            this.type = type;
+            this.requires = requires;
+        }
+
+        void add(int query) {
+            if (size == queries.length) queries = Arrays.copyOf(queries, size * 2);
+            queries[size++] = query;
+        }
+    }
+
+    private static class BucketKey {
+        final int region, type;
+        final long requires;
+
+        BucketKey(int region, int type, long requires) {
+            this.region = region;
+            this.type = type;
+            this.requires = requires;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof BucketKey)) return false;
+            BucketKey k = (BucketKey)o;
+            return region == k.region && type == k.type && requires == k.requires;
+        }
+
+        @Override
+        public int hashCode() {
+            return (region * 31 + type) * 31 + Long.hashCode(requires);
+        }
+    }
+
+    // Eligible buckets for one region, type and set of owned upgrades, with
+    // running totals of their sizes for weighted picking
+    private static class Selection {
+        final int regionKey, type;
+        final long owned;
+        final Bucket[] buckets;
+        final int[] ends;
+        final int total;
+
+        Selection(int regionKey, long owned, int type, List<Bucket> eligible) {
+            this.regionKey = regionKey;
+            this.owned = owned;
+            this.type = type;
+            this.buckets = eligible.toArray(new Bucket[0]);
+            this.ends = new int[buckets.length];
+            int sum = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                sum += buckets[i].size;
+                ends[i] = sum;
+            }
+            this.total = sum;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.ackah.aiinfluence.systems;
+
+import io.github.ackah.aiinfluence.model.GameState;
+import io.github.ackah.aiinfluence.utils.BinaryReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+// Re-runs a recorded replay through the headless simulation as fast as the
+// CPU allows, or a bounded number of ticks at a time for watching it back.
+//
+// Usage: ReplayPlayer <file.replay>
+public class ReplayPlayer {
+    private final BinaryReader in;
+    private final float tick;
+    private final GameState state;
+    private final Simulation simulation;
+    private final Actions actions = new Actions();
+
+    private long currentTick = 0;
+    private long nextEventTick;
+    private int nextType;
+    private boolean ended = false;
+
+    public ReplayPlayer(byte[] data) {
+        in = new BinaryReader(data);
+        if (in.readInt() != ReplayRecorder.MAGIC) {
+            throw new IllegalArgumentException("Not a replay file");
+        }
+        int version = in.readVarint();
+        if (version != ReplayRecorder.VERSION) {
+            throw new IllegalArgumentException("Unsupported replay version " + version);
+        }
+        long seed = in.readLong();
+        tick = in.readFloat();
+        SimulationConfig config = SimulationConfig.read(in);
+
+        int regionCount = in.readVarint();
+        String[] names = new String[regionCount];
+        float[] population = new float[regionCount];
+        for (int i = 0; i < regionCount; i++) {
+            names[i] = in.readString();
+            population[i] = in.readFloat();
+        }
+        state = new GameState(names, population);
+        for (int i = 0; i < regionCount; i++) {
+            state.neighbourStart[i + 1] = state.neighbourStart[i] + in.readVarint();
+        }
+        state.neighbours = new int[state.neighbourStart[regionCount]];
+        for (int k = 0; k < state.neighbours.length; k++) {
+            state.neighbours[k] = in.readVarint();
+        }
+        if (in.readBoolean()) {
+            state.neighbourWeights = new float[state.neighbours.length];
+            for (int k = 0; k < state.neighbourWeights.length; k++) {
+                state.neighbourWeights[k] = in.readFloat();
+            }
+        }
+
+        simulation = new Simulation(state, config, seed);
+        readEventHeader();
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    public long getTick() {
+        return currentTick;
+    }
+
+    public boolean isFinished() {
+        return ended && currentTick >= nextEventTick;
+    }
+
+    // Runs up to maxTicks steps; returns the number actually taken
+    public int advance(int maxTicks) {
+        int steps = 0;
+        while (steps < maxTicks && !isFinished()) {
+            actions.clear();
+            while (!ended && nextEventTick == currentTick) {
+                int target = in.readZigZag();
+                float amount = nextType == Actions.APPLY_INFLUENCE ? in.readFloat() : 0;
+                actions.add(nextType, target, amount);
+                readEventHeader();
+            }
+            simulation.step(tick, actions);
+            currentTick++;
+            steps++;
+        }
+        return steps;
+    }
+
+    public GameState playToEnd() {
+        while (!isFinished()) {
+            advance(Integer.MAX_VALUE);
+        }
+        return state;
+    }
+
+    private void readEventHeader() {
+        nextEventTick += in.readVarLong();
+        nextType = in.readVarint();
+        ended = nextType == ReplayRecorder.END;
+    }
+
+    public static void main(String[] args) throws IOException {
+        byte[] data = Files.readAllBytes(Paths.get(args[0]));
+        long start = System.nanoTime();
+        ReplayPlayer player = new ReplayPlayer(data);
+        GameState state = player.playToEnd();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "%d ticks (%.0fs game time) in %.3fs, %.0fx real time%n",
+            player.getTick(), state.gameTime, seconds, state.gameTime / seconds);
+        System.out.printf(Locale.ROOT, "influence %.2f trust %.2f suspicion %.2f points %d queries %d won %b lost %b%n",
+            state.globalInfluence, state.trust, state.suspicion, state.queryPoints,
+            state.totalQueries, state.won, state.lost);
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.ackah.aiinfluence.systems;
+
+import io.github.ackah.aiinfluence.model.GameState;
+import io.github.ackah.aiinfluence.utils.BinaryWriter;
+
+// Records a run as its seed, starting setup and the actions applied on each
+// tick. With the simulation being deterministic that is enough to replay it.
+//
+// Layout: magic, version, seed, tick length, config, regions (names,
+// population, neighbour lists and border weights), then events of
+//   varint tick delta, varint type, zigzag target [, float amount]
+// terminated by a tick delta to the final tick and type 0.
+public class ReplayRecorder {
+    static final int MAGIC = 0x41495250; // "AIRP"
+    static final int VERSION = 4;
+    static final int END = 0;
+
+    private final BinaryWriter out = new BinaryWriter(1024);
+    private long lastTick = 0;
+    private boolean finished = false;
+
+    // Must be created before the simulation takes its first step
+    public ReplayRecorder(Simulation simulation, float tick) {
+        GameState state = simulation.getState();
+        out.writeInt(MAGIC);
+        out.writeVarint(VERSION);
+        out.writeLong(simulation.getSeed());
+        out.writeFloat(tick);
+        simulation.getConfig().write(out);
+
+        out.writeVarint(state.regionCount);
+        for (int i = 0; i < state.regionCount; i++) {
+            out.writeString(state.regionNames[i]);
+            out.writeFloat(state.population[i]);
+        }
+        for (int i = 0; i < state.regionCount; i++) {
+            out.writeVarint(state.neighbourStart[i + 1] - state.neighbourStart[i]);
+        }
+        for (int n : state.neighbours) {
+            out.writeVarint(n);
+        }
+        out.writeBoolean(state.neighbourWeights != null);
+        if (state.neighbourWeights != null) {
+            for (float w : state.neighbourWeights) {
+                out.writeFloat(w);
+            }
+        }
+    }
+
+    // Called with the actions about to be applied on the given tick
+    public void record(long tick, Actions actions) {
+        for (int i = 0; i < actions.size(); i++) {
+            out.writeVarLong(tick - lastTick);
+            out.writeVarint(actions.type(i));
+            out.writeZigZag(actions.target(i));
+            if (actions.type(i) == Actions.APPLY_INFLUENCE) {
+                out.writeFloat(actions.amount(i));
+            }
+            lastTick = tick;
+        }
+    }
+
+    public void finish(long tick) {
+        if (finished) return;
+        out.writeVarLong(tick - lastTick);
+        out.writeVarint(END);
+        lastTick = tick;
+        finished = true;
+    }
+
+    public int size() {
+        return out.size();
+    }
+
+    public byte[] toByteArray() {
+        return out.toByteArray();
+    }
+}
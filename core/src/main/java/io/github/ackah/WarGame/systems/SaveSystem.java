@@ -0,0 +1,290 @@
+package io.github.ackah.aiinfluence.systems;
+
+import io.github.ackah.aiinfluence.Query;
+import io.github.ackah.aiinfluence.model.GameState;
+import io.github.ackah.aiinfluence.utils.BinaryReader;
+import io.github.ackah.aiinfluence.utils.BinaryWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+
+// Binary save format: a header with the region setup followed by
+// length-prefixed chunks. The first chunk holds the full state, later ones
+// only what changed since the chunk before, so loading applies them in order.
+// A chunk cut short by a crash mid-append is ignored.
+public class SaveSystem {
+    static final int MAGIC = 0x41495356; // "AISV"
+    static final int VERSION = 8;
+
+    // Chunk sections
+    static final int SCALARS = 1;
+    static final int UPGRADES = 2;
+    static final int QUERY = 4;
+    static final int INFLUENCE = 8;
+
+    public static void writeHeader(GameState state, BinaryWriter out) {
+        out.writeInt(MAGIC);
+        out.writeVarint(VERSION);
+        out.writeVarint(state.regionCount);
+        for (int i = 0; i < state.regionCount; i++) {
+            out.writeString(state.regionNames[i]);
+            out.writeFloat(state.population[i]);
+        }
+        for (int i = 0; i < state.regionCount; i++) {
+            out.writeVarint(state.neighbourStart[i + 1] - state.neighbourStart[i]);
+        }
+        for (int n : state.neighbours) {
+            out.writeVarint(n);
+        }
+        out.writeBoolean(state.neighbourWeights != null);
+        if (state.neighbourWeights != null) {
+            for (float w : state.neighbourWeights) {
+                out.writeFloat(w);
+            }
+        }
+    }
+
+    // Writes the difference from previous to current as one chunk, or the whole
+    // state when previous is null. Returns false if nothing changed.
+    public static boolean writeChunk(GameState previous, GameState current, BinaryWriter out, BinaryWriter scratch) {
+        scratch.clear();
+        int flags = 0;
+        if (previous == null || !scalarsEqual(previous, current)) flags |= SCALARS;
+        if (previous == null || !upgradesEqual(previous, current)) flags |= UPGRADES;
+        if (previous == null || !queryEqual(previous, current)) flags |= QUERY;
+
+        int changed = 0;
+        for (int i = 0; i < current.regionCount; i++) {
+            if (previous == null || regionChanged(previous, current, i)) changed++;
+        }
+        if (changed > 0) flags |= INFLUENCE;
+        if (flags == 0) return false;
+
+        scratch.writeVarint(flags);
+        if ((flags & SCALARS) != 0) writeScalars(current, scratch);
+        if ((flags & UPGRADES) != 0) {
+            long[] words = current.upgrades.getPurchased().toLongArray();
+            scratch.writeVarint(words.length);
+            for (long word : words) {
+                scratch.writeVarLong(word);
+            }
+        }
+        if ((flags & QUERY) != 0) writeQuery(current, scratch);
+        if ((flags & INFLUENCE) != 0) {
+            // Changed regions as gaps between ids, so runs of neighbours cost a byte each
+            scratch.writeVarint(changed);
+            int last = -1;
+            for (int i = 0; i < current.regionCount; i++) {
+                if (previous == null || regionChanged(previous, current, i)) {
+                    scratch.writeVarint(i - last - 1);
+                    scratch.writeFloat(current.influence[i]);
+                    scratch.writeFloat(current.regionSuspicion[i]);
+                    last = i;
+                }
+            }
+        }
+
+        out.writeVarint(scratch.size());
+        out.writeBytes(scratch.buffer(), 0, scratch.size());
+        return true;
+    }
+
+    public static GameState load(Path file) throws IOException {
+        return read(Files.readAllBytes(file));
+    }
+
+    public static GameState read(byte[] data) {
+        BinaryReader in = new BinaryReader(data);
+        if (in.readInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a save file");
+        }
+        int version = in.readVarint();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported save version " + version);
+        }
+
+        int regionCount = in.readVarint();
+        String[] names = new String[regionCount];
+        float[] population = new float[regionCount];
+        for (int i = 0; i < regionCount; i++) {
+            names[i] = in.readString();
+            population[i] = in.readFloat();
+        }
+        GameState state = new GameState(names, population);
+        for (int i = 0; i < regionCount; i++) {
+            state.neighbourStart[i + 1] = state.neighbourStart[i] + in.readVarint();
+        }
+        state.neighbours = new int[state.neighbourStart[regionCount]];
+        for (int k = 0; k < state.neighbours.length; k++) {
+            state.neighbours[k] = in.readVarint();
+        }
+        if (in.readBoolean()) {
+            state.neighbourWeights = new float[state.neighbours.length];
+            for (int k = 0; k < state.neighbourWeights.length; k++) {
+                state.neighbourWeights[k] = in.readFloat();
+            }
+        }
+
+        while (in.hasRemaining()) {
+            int length;
+            try {
+                length = in.readVarint();
+            } catch (IllegalStateException e) {
+                break;
+            }
+            if (length > in.remaining()) break;
+            readChunk(state, new BinaryReader(data, in.position(), length));
+            in.skip(length);
+        }
+        state.compileModifiers();
+        return state;
+    }
+
+    private static void readChunk(GameState state, BinaryReader in) {
+        int flags = in.readVarint();
+        if ((flags & SCALARS) != 0) readScalars(state, in);
+        if ((flags & UPGRADES) != 0) {
+            long[] words = new long[in.readVarint()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = in.readVarLong();
+            }
+            state.upgrades.setPurchased(BitSet.valueOf(words));
+        }
+        if ((flags & QUERY) != 0) readQuery(state, in);
+        if ((flags & INFLUENCE) != 0) {
+            int changed = in.readVarint();
+            int region = -1;
+            for (int k = 0; k < changed; k++) {
+                region += in.readVarint() + 1;
+                state.influence[region] = in.readFloat();
+                state.regionSuspicion[region] = in.readFloat();
+            }
+        }
+    }
+
+    private static void writeScalars(GameState s, BinaryWriter out) {
+        out.writeFloat(s.globalInfluence);
+        out.writeFloat(s.trust);
+        out.writeFloat(s.suspicion);
+        out.writeVarint(s.queryPoints);
+        out.writeVarint(s.totalQueries);
+        out.writeVarLong(s.clock);
+        out.writeVarint(s.streak);
+        out.writeFloat(s.bestInfluence);
+        out.writeFloat(s.timeSinceLastQuery);
+        out.writeFloat(s.queryInterval);
+        out.writeZigZag(s.selectedRegion);
+        out.writeBoolean(s.menuOpen);
+        out.writeBoolean(s.won);
+        out.writeBoolean(s.lost);
+        out.writeVarLong(s.journalPosition);
+        out.writeVarint(s.traits);
+    }
+
+    private static void readScalars(GameState s, BinaryReader in) {
+        s.globalInfluence = in.readFloat();
+        s.trust = in.readFloat();
+        s.suspicion = in.readFloat();
+        s.queryPoints = in.readVarint();
+        s.totalQueries = in.readVarint();
+        s.setClock(in.readVarLong());
+        s.streak = in.readVarint();
+        s.bestInfluence = in.readFloat();
+        s.timeSinceLastQuery = in.readFloat();
+        s.queryInterval = in.readFloat();
+        s.selectedRegion = in.readZigZag();
+        s.menuOpen = in.readBoolean();
+        s.won = in.readBoolean();
+        s.lost = in.readBoolean();
+        s.journalPosition = in.readVarLong();
+        s.traits = in.readVarint();
+    }
+
+    // Queries are saved as their database entry, with the question text to
+    // spot content that changed since the save was written
+    private static void writeQuery(GameState s, BinaryWriter out) {
+        out.writeVarint(s.inbox.size());
+        for (int i = 0; i < s.inbox.size(); i++) {
+            out.writeVarint(s.inbox.query(i));
+            out.writeVarint(s.inbox.region(i));
+            out.writeFloat(s.inbox.deadline(i));
+        }
+
+        Query q = s.currentQuery;
+        out.writeBoolean(q != null);
+        if (q == null) return;
+        out.writeZigZag(s.queryRegion);
+        out.writeFloat(s.queryTimer);
+        out.writeBoolean(s.showingResult);
+        out.writeString(s.resultMessage);
+        out.writeVarint(q.id);
+        out.writeString(q.getQuestion());
+    }
+
+    private static void readQuery(GameState s, BinaryReader in) {
+        QueryDatabase queries = QueryDatabase.getDefault();
+        s.inbox.clear();
+        int pending = in.readVarint();
+        for (int i = 0; i < pending; i++) {
+            int id = in.readVarint();
+            int region = in.readVarint();
+            float deadline = in.readFloat();
+            if (id < queries.size() && region < s.regionCount) {
+                s.inbox.add(id, region, deadline);
+            }
+        }
+
+        if (!in.readBoolean()) {
+            s.currentQuery = null;
+            s.queryRegion = -1;
+            s.queryTimer = 0;
+            s.showingResult = false;
+            s.resultMessage = "";
+            return;
+        }
+        int region = in.readZigZag();
+        float timer = in.readFloat();
+        boolean showingResult = in.readBoolean();
+        String resultMessage = in.readString();
+        int id = in.readVarint();
+        String question = in.readString();
+
+        if (id < queries.size() && queries.question(id).equals(question)) {
+            s.queryRegion = region;
+            s.queryTimer = timer;
+            s.showingResult = showingResult;
+            s.resultMessage = resultMessage;
+            s.currentQuery = new Query().set(queries, id, s.regionNames[region]);
+        } else {
+            s.currentQuery = null;
+            s.queryRegion = -1;
+            s.queryTimer = 0;
+            s.showingResult = false;
+            s.resultMessage = "";
+        }
+    }
+
+    private static boolean regionChanged(GameState a, GameState b, int region) {
+        return a.influence[region] != b.influence[region] || a.regionSuspicion[region] != b.regionSuspicion[region];
+    }
+
+    private static boolean scalarsEqual(GameState a, GameState b) {
+        return a.globalInfluence == b.globalInfluence && a.trust == b.trust && a.suspicion == b.suspicion
+            && a.queryPoints == b.queryPoints && a.totalQueries == b.totalQueries && a.clock == b.clock
+            && a.streak == b.streak && a.bestInfluence == b.bestInfluence && a.traits == b.traits
+            && a.timeSinceLastQuery == b.timeSinceLastQuery && a.queryInterval == b.queryInterval
+            && a.selectedRegion == b.selectedRegion && a.menuOpen == b.menuOpen
+            && a.won == b.won && a.lost == b.lost && a.journalPosition == b.journalPosition;
+    }
+
+    private static boolean upgradesEqual(GameState a, GameState b) {
+        return a.upgrades.samePurchases(b.upgrades);
+    }
+
+    private static boolean queryEqual(GameState a, GameState b) {
+        boolean sameQuery = a.currentQuery == null ? b.currentQuery == null : a.currentQuery.sameAs(b.currentQuery);
+        return sameQuery && a.inbox.version() == b.inbox.version() && a.queryRegion == b.queryRegion && a.queryTimer == b.queryTimer
+            && a.showingResult == b.showingResult && a.resultMessage.equals(b.resultMessage);
+    }
+}
@@ -0,0 +1,427 @@
+package io.github.ackah.aiinfluence.systems;
+
+import com.badlogic.gdx.utils.Pool;
+import io.github.ackah.aiinfluence.Query;
+import io.github.ackah.aiinfluence.Upgrade;
+import io.github.ackah.aiinfluence.model.AITrait;
+import io.github.ackah.aiinfluence.model.GameState;
+import io.github.ackah.aiinfluence.model.Modifiers;
+import io.github.ackah.aiinfluence.utils.TimingWheel;
+
+// Game rules, free of rendering and input. Screens translate input into
+// Actions and draw whatever the GameState looks like after each step.
+public class Simulation {
+    static final long QUERY_STREAM = 1;
+    static final long TRAIT_STREAM = 2;
+    private static final long TIMER_MICROS = micros(1f / 60f);
+    // Timer types
+    private static final int SPAWN_QUERY = 0;
+    private static final int QUERY_TIMEOUT = 1;
+    private static final String[] PROCESSED_MESSAGES = new String[64];
+    private static final String[] STREAK_MESSAGES = new String[64];
+
+    private final GameState state;
+    private final SimulationConfig config;
+    private final GameRandom random;
+    private final GameRandom queryRandom;
+    private QueryDatabase queries;
+    private final Pool<Query> queryPool = new Pool<Query>(4) {
+        @Override
+        protected Query newObject() {
+            return new Query();
+        }
+    };
+    private int[] regionKeys;
+    private Journal journal;
+    private final Diffusion diffusion;
+    private final InfluenceTotals totals;
+
+    // Everything due at a set time goes through the wheel, so ticks where
+    // nothing is due don't check each timer. GameState keeps the elapsed
+    // times that are saved and shown; the wheel is rebuilt from them.
+    private final TimingWheel timers;
+    private final TimingWheel.Listener onTimer = this::fire;
+    private int spawnTimer = -1;
+    private int timeoutTimer = -1;
+
+    public Simulation(GameState state, SimulationConfig config) {
+        this(state, config, System.nanoTime());
+    }
+
+    public Simulation(GameState state, SimulationConfig config, long seed) {
+        this.state = state;
+        this.config = config;
+        this.random = new GameRandom(seed);
+        this.queryRandom = random.stream(QUERY_STREAM);
+        this.totals = new InfluenceTotals(state.population);
+        totals.refresh(state.influence);
+        this.diffusion = new Diffusion(state, config, totals);
+        setQueryDatabase(QueryDatabase.getDefault());
+
+        // A fresh run rolls its traits from the seed, so replays get the same ones
+        if (state.clock == 0 && state.traits == 0) {
+            GameRandom traitRandom = random.stream(TRAIT_STREAM);
+            int count = config.minTraits + traitRandom.nextInt(config.maxTraits - config.minTraits + 1);
+            state.traits = rollTraits(traitRandom, count);
+        }
+        state.compileModifiers();
+
+        timers = new TimingWheel(state.clock / TIMER_MICROS);
+        if (config.queriesEnabled) {
+            scheduleSpawn(state.queryInterval - state.timeSinceLastQuery);
+        }
+        if (state.currentQuery != null && !state.showingResult) {
+            scheduleTimeout(config.queryTimeLimit - state.queryTimer);
+        }
+    }
+
+    // Picks count distinct traits that don't conflict with each other
+    static int rollTraits(GameRandom random, int count) {
+        AITrait[] all = AITrait.values();
+        int traits = 0;
+        for (int picked = 0; picked < count; picked++) {
+            int options = 0;
+            for (AITrait t : all) {
+                if ((traits & t.bit()) == 0 && !t.conflictsWith(traits)) options++;
+            }
+            if (options == 0) break;
+            int pick = random.nextInt(options);
+            for (AITrait t : all) {
+                if ((traits & t.bit()) == 0 && !t.conflictsWith(traits) && pick-- == 0) {
+                    traits |= t.bit();
+                    break;
+                }
+            }
+        }
+        return traits;
+    }
+
+    public void setQueryDatabase(QueryDatabase queries) {
+        this.queries = queries;
+        regionKeys = new int[state.regionCount];
+        for (int i = 0; i < state.regionCount; i++) {
+            regionKeys[i] = queries.regionKey(state.regionNames[i]);
+        }
+    }
+
+    // Running influence totals, including ranges of region ids
+    public InfluenceTotals getTotals() {
+        return totals;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    public SimulationConfig getConfig() {
+        return config;
+    }
+
+    // Logs state changes as they happen, for crash recovery
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    // Seed for replaying this run
+    public long getSeed() {
+        return random.getSeed();
+    }
+
+    public void step(float dt, Actions actions) {
+        state.setClock(state.clock + micros(dt));
+        state.timeSinceLastQuery += dt;
+        if (state.currentQuery != null && !state.showingResult) {
+            state.queryTimer += dt;
+        }
+        timers.advance(state.clock / TIMER_MICROS, onTimer);
+
+        if (config.queriesEnabled) {
+            expireQueries();
+            if (state.currentQuery == null && !state.menuOpen && !state.inbox.isEmpty()) {
+                presentNextQuery();
+            }
+        }
+
+        for (int i = 0; i < actions.size(); i++) {
+            apply(actions.type(i), actions.target(i), actions.amount(i));
+        }
+
+        diffusion.step(dt);
+        updateGlobalInfluence();
+        updatePassive(dt);
+
+        if (journal != null) {
+            journal.update(state, dt);
+        }
+    }
+
+    // Timers count whole ticks of the integer clock, never the float time
+    private long tickAfter(float delay) {
+        return (state.clock + micros(delay)) / TIMER_MICROS;
+    }
+
+    private static long micros(float seconds) {
+        return Math.round(seconds * 1e6);
+    }
+
+    private void fire(int type, int arg) {
+        switch (type) {
+            case SPAWN_QUERY:
+                spawnTimer = -1;
+                if (state.menuOpen || state.inbox.size() >= config.inboxCapacity) {
+                    // Try again every tick until there's room
+                    scheduleSpawn(0);
+                } else {
+                    spawnQuery();
+                }
+                break;
+            case QUERY_TIMEOUT:
+                timeoutTimer = -1;
+                timeOutQuery();
+                break;
+        }
+    }
+
+    private void scheduleSpawn(float delay) {
+        timers.cancel(spawnTimer);
+        spawnTimer = timers.schedule(tickAfter(delay), SPAWN_QUERY, 0);
+    }
+
+    private void scheduleTimeout(float delay) {
+        timers.cancel(timeoutTimer);
+        timeoutTimer = timers.schedule(tickAfter(delay), QUERY_TIMEOUT, 0);
+    }
+
+    private void apply(int type, int target, float amount) {
+        switch (type) {
+            case Actions.SELECT_REGION:
+                state.selectedRegion = target >= 0 && target < state.regionCount ? target : -1;
+                break;
+            case Actions.RESPOND_QUERY:
+                if (state.currentQuery != null && !state.showingResult) {
+                    processQueryResponse(target);
+                }
+                break;
+            case Actions.DISMISS_RESULT:
+                if (state.showingResult) {
+                    releaseQuery();
+                    state.showingResult = false;
+                    state.resultMessage = "";
+                    state.queryTimer = 0;
+                    if (journal != null) {
+                        journal.queryReleased();
+                    }
+                }
+                break;
+            case Actions.PURCHASE_UPGRADE:
+                purchaseUpgrade(target);
+                break;
+            case Actions.APPLY_INFLUENCE:
+                if (target >= 0 && target < state.regionCount) {
+                    state.influence[target] = clamp(state.influence[target] + amount);
+                    influenceChanged(target);
+                }
+                break;
+            case Actions.INFLUENCE_REGION:
+                influenceRegion(target);
+                break;
+            case Actions.SET_MENU_OPEN:
+                state.menuOpen = target != 0;
+                break;
+        }
+    }
+
+    // Regions ask more often the more influence the AI has there
+    private void spawnQuery() {
+        state.timeSinceLastQuery = 0;
+        state.queryInterval = state.modifiers.apply(Modifiers.QUERY_INTERVAL, Math.max(8f, 15f - (state.globalInfluence / 20f)));
+        scheduleSpawn(state.queryInterval);
+
+        // Weight 1 + influence / 25, i.e. proportional to 25 + influence
+        int region = totals.pick(25f, queryRandom.nextFloat());
+
+        int query = queries.pick(regionKeys[region], state.upgrades.ownedMask(), QueryDatabase.ANY_TYPE, queryRandom);
+        if (query >= 0) {
+            float deadline = state.gameTime + config.inboxTimeLimit;
+            state.inbox.add(query, region, deadline);
+            if (journal != null) {
+                journal.inboxAdded(query, region, deadline);
+            }
+        }
+    }
+
+    // Pending queries left too long cost the same as ignoring a shown one
+    private void expireQueries() {
+        int expired = state.inbox.expire(state.gameTime);
+        if (expired > 0) {
+            state.trust -= 5 * expired;
+            state.suspicion += 10 * expired;
+            if (journal != null) {
+                journal.inboxExpired(state.gameTime);
+            }
+            journalStats();
+        }
+    }
+
+    // Shows the pending query closest to its deadline
+    private void presentNextQuery() {
+        int query = state.inbox.peekQuery();
+        state.queryRegion = state.inbox.peekRegion();
+        state.currentQuery = queryPool.obtain().set(queries, query, state.regionNames[state.queryRegion]);
+        state.inbox.poll();
+        state.queryTimer = 0;
+        state.showingResult = false;
+        scheduleTimeout(config.queryTimeLimit);
+        if (journal != null) {
+            journal.queryPresented(query, state.queryRegion);
+        }
+    }
+
+    private void releaseQuery() {
+        queryPool.free(state.currentQuery);
+        state.currentQuery = null;
+        state.queryRegion = -1;
+    }
+
+    // Result texts are built once per value rather than on every response
+    private static String message(String[] cache, int value, String prefix, String suffix) {
+        if (value < 0 || value >= cache.length) return prefix + value + suffix;
+        String text = cache[value];
+        if (text == null) {
+            text = prefix + value + suffix;
+            cache[value] = text;
+        }
+        return text;
+    }
+
+    private void processQueryResponse(int choice) {
+        if (choice < 0 || choice > 2) return;
+
+        Query query = state.currentQuery;
+        int region = state.queryRegion;
+
+        Modifiers modifiers = state.modifiers;
+        state.trust += modifiers.apply(Modifiers.TRUST_GAIN, query.getTrustImpact(choice));
+        state.influence[region] += modifiers.apply(Modifiers.INFLUENCE_GAIN, query.getInfluenceImpact(choice));
+        state.suspicion += modifiers.apply(Modifiers.SUSPICION_GAIN, query.getSuspicionImpact(choice));
+
+        state.trust = clamp(state.trust);
+        state.influence[region] = clamp(state.influence[region]);
+        state.suspicion = clamp(state.suspicion);
+
+        int points = 5 + (int)(state.influence[region] / 10);
+        if (state.trust > 70) points += 3;
+        if (state.suspicion < 30) points += 2;
+        points = (int)modifiers.apply(Modifiers.QUERY_REWARD, points);
+        state.queryPoints += points;
+
+        if (query.getInfluenceImpact(choice) > 0) {
+            state.streak++;
+            if (state.streak > 3) {
+                points += state.streak;
+                state.resultMessage = message(STREAK_MESSAGES, state.streak, "STREAK BONUS! +", " extra points!");
+            }
+        } else {
+            state.streak = 0;
+        }
+
+        state.totalQueries++;
+        influenceChanged(region);
+        journalStats();
+
+        if (state.resultMessage.isEmpty()) {
+            state.resultMessage = message(PROCESSED_MESSAGES, points, "Query processed. +", " evolution points.");
+        }
+
+        state.showingResult = true;
+        timers.cancel(timeoutTimer);
+        timeoutTimer = -1;
+        if (journal != null) {
+            journal.queryResolved(state);
+        }
+    }
+
+    private void purchaseUpgrade(int index) {
+        if (index < 0 || index >= state.upgrades.size()) return;
+
+        Upgrade u = state.upgrades.get(index);
+        if (state.queryPoints >= u.cost && state.upgrades.purchase(index)) {
+            state.queryPoints -= u.cost;
+            state.compileModifiers();
+            if (journal != null) {
+                journal.purchase(index);
+            }
+            journalStats();
+        }
+    }
+
+    // Spend trust to push a region directly, spilling over to its neighbours
+    private void influenceRegion(int region) {
+        if (region < 0 || region >= state.regionCount) return;
+        if (state.trust <= 20 || state.suspicion >= 80) return;
+
+        float spread = state.modifiers.apply(Modifiers.SPREAD_RATE, 10);
+        state.influence[region] = Math.min(100, state.influence[region] + spread);
+        state.trust = Math.max(0, state.trust - 5);
+        state.suspicion = Math.min(100, state.suspicion + 3);
+        state.queryPoints += 5;
+        influenceChanged(region);
+        journalStats();
+
+        if (state.influence[region] > 50) {
+            float spill = state.modifiers.apply(Modifiers.SPREAD_RATE, 2);
+            for (int k = state.neighbourStart[region]; k < state.neighbourStart[region + 1]; k++) {
+                int n = state.neighbours[k];
+                state.influence[n] = Math.min(100, state.influence[n] + spill);
+                influenceChanged(n);
+            }
+        }
+    }
+
+    // A shown query left unanswered too long
+    private void timeOutQuery() {
+        state.trust -= 5;
+        state.suspicion += 10;
+        journalStats();
+        releaseQuery();
+        state.queryTimer = 0;
+        state.timeSinceLastQuery = 0;
+        if (journal != null) {
+            journal.queryReleased();
+        }
+        if (config.queriesEnabled) {
+            scheduleSpawn(state.queryInterval);
+        }
+    }
+
+    private void updateGlobalInfluence() {
+        state.globalInfluence = totals.global();
+        state.bestInfluence = Math.max(state.bestInfluence, state.globalInfluence);
+    }
+
+    private void updatePassive(float dt) {
+        state.suspicion = Math.max(0, state.suspicion - dt * state.modifiers.apply(Modifiers.SUSPICION_DECAY, config.suspicionDecayPerSecond));
+        state.trust = Math.min(100, state.trust + dt * state.modifiers.apply(Modifiers.TRUST_REGEN, config.trustRegenPerSecond));
+
+        state.won = state.globalInfluence >= config.winInfluence;
+        state.lost = state.suspicion >= config.loseSuspicion;
+    }
+
+    // Call after every change to a region's influence outside diffusion
+    private void influenceChanged(int region) {
+        totals.set(region, state.influence[region]);
+        if (journal != null) {
+            journal.influence(region, state.influence[region], state.regionSuspicion[region]);
+        }
+    }
+
+    private void journalStats() {
+        if (journal != null) {
+            journal.stats(state.trust, state.suspicion, state.queryPoints);
+        }
+    }
+
+    private static float clamp(float value) {
+        return Math.max(0, Math.min(100, value));
+    }
+}
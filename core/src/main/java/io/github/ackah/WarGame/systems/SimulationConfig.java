@@ -0,0 +1,69 @@
+package io.github.ackah.aiinfluence.systems;
+
+import io.github.ackah.aiinfluence.utils.BinaryReader;
+import io.github.ackah.aiinfluence.utils.BinaryWriter;
+
+// Rule tuning that differs between game modes
+public class SimulationConfig {
+    public float winInfluence = 90f;
+    public float loseSuspicion = 100f;
+    public float suspicionDecayPerSecond = 0.5f;
+    public float trustRegenPerSecond = 0f;
+    public boolean queriesEnabled = true;
+    public float queryTimeLimit = 10f;
+    public int inboxCapacity = 5;        // pending queries before new ones are held back
+    public float inboxTimeLimit = 30f;   // how long a pending query waits before expiring
+    public int minTraits = 2;            // traits rolled for a new run
+    public int maxTraits = 3;
+    public float growthPerSecond = 0.004f;      // passive influence growth, fraction of a region's own
+    public float spreadPerSecond = 0.02f;       // passive growth, fraction of the neighbours' average
+    public float noticePerInfluence = 0.25f;    // regional suspicion per point of passive growth
+
+    // Query-driven campaign played on the continent map
+    public static SimulationConfig campaign() {
+        return new SimulationConfig();
+    }
+
+    // Direct-influence sandbox played on the image map
+    public static SimulationConfig sandbox() {
+        SimulationConfig config = new SimulationConfig();
+        config.winInfluence = 75f;
+        config.trustRegenPerSecond = 0.3f;
+        config.queriesEnabled = false;
+        return config;
+    }
+
+    public void write(BinaryWriter out) {
+        out.writeFloat(winInfluence);
+        out.writeFloat(loseSuspicion);
+        out.writeFloat(suspicionDecayPerSecond);
+        out.writeFloat(trustRegenPerSecond);
+        out.writeBoolean(queriesEnabled);
+        out.writeFloat(queryTimeLimit);
+        out.writeVarint(inboxCapacity);
+        out.writeFloat(inboxTimeLimit);
+        out.writeVarint(minTraits);
+        out.writeVarint(maxTraits);
+        out.writeFloat(growthPerSecond);
+        out.writeFloat(spreadPerSecond);
+        out.writeFloat(noticePerInfluence);
+    }
+
+    public static SimulationConfig read(BinaryReader in) {
+        SimulationConfig config = new SimulationConfig();
+        config.winInfluence = in.readFloat();
+        config.loseSuspicion = in.readFloat();
+        config.suspicionDecayPerSecond = in.readFloat();
+        config.trustRegenPerSecond = in.readFloat();
+        config.queriesEnabled = in.readBoolean();
+        config.queryTimeLimit = in.readFloat();
+        config.inboxCapacity = in.readVarint();
+        config.inboxTimeLimit = in.readFloat();
+        config.minTraits = in.readVarint();
+        config.maxTraits = in.readVarint();
+        config.growthPerSecond = in.readFloat();
+        config.spreadPerSecond = in.readFloat();
+        config.noticePerInfluence = in.readFloat();
+        return config;
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.ackah.aiinfluence.systems;
+
+import io.github.ackah.aiinfluence.model.GameState;
+
+// Fixed-timestep driver: frame deltas go into an accumulator and the simulation
+// is stepped in whole ticks, so game logic is independent of frame rate.
+//
+// Fast-forward runs more of the same ticks per frame rather than longer ones.
+// Timers run off the simulation's integer clock, so even hours in, a run
+// plays out exactly as it would at 1x. Ticks stop once a frame's CPU
+// budget is spent and the backlog is dropped, so a slow machine just gets a
+// lower effective speed instead of falling further behind. Fast-forward drops
+// back to 1x as soon as a query or the upgrade menu needs the player.
+public class SimulationLoop {
+    public static final float TICK = 1f / 60f;
+    private static final float MAX_FRAME = 0.25f; // avoid a spiral of death after a stall
+    private static final float SPEED_WINDOW = 0.5f; // seconds of real time per effective speed sample
+
+    private final Simulation simulation;
+    private final Actions pending = new Actions();
+    private float accumulator = 0;
+    private long ticks = 0;
+    private ReplayRecorder recorder;
+    private float speed = 1;
+    private long budgetNanos = 8000000L;
+    private float windowReal = 0;
+    private float windowSimulated = 0;
+    private float effectiveSpeed = 1;
+
+    public SimulationLoop(Simulation simulation) {
+        this.simulation = simulation;
+    }
+
+    public Simulation getSimulation() {
+        return simulation;
+    }
+
+    // Starts recording every applied action; call before the first advance
+    public ReplayRecorder startRecording() {
+        recorder = new ReplayRecorder(simulation, TICK);
+        return recorder;
+    }
+
+    public ReplayRecorder getRecorder() {
+        return recorder;
+    }
+
+    // Actions queued here are applied on the next tick that runs
+    public Actions getPendingActions() {
+        return pending;
+    }
+
+    // Game seconds per real second
+    public void setSpeed(float speed) {
+        this.speed = Math.max(0, speed);
+    }
+
+    public float getSpeed() {
+        return speed;
+    }
+
+    // Most CPU time a frame may spend on ticks
+    public void setBudget(float seconds) {
+        budgetNanos = (long)(seconds * 1e9f);
+    }
+
+    // Speed actually reached over the last half second, below getSpeed()
+    // when the budget cuts frames short
+    public float getEffectiveSpeed() {
+        return effectiveSpeed;
+    }
+
+    public int advance(float frameDelta) {
+        frameDelta = Math.min(frameDelta, MAX_FRAME);
+        accumulator += frameDelta * speed;
+        long start = System.nanoTime();
+        int steps = 0;
+        while (accumulator >= TICK) {
+            if (steps > 0 && System.nanoTime() - start > budgetNanos) {
+                // Out of time: keep the partial tick, drop the rest
+                accumulator %= TICK;
+                break;
+            }
+            if (recorder != null) {
+                recorder.record(ticks, pending);
+            }
+            simulation.step(TICK, pending);
+            pending.clear();
+            accumulator -= TICK;
+            ticks++;
+            steps++;
+            if (speed > 1 && needsPlayer()) {
+                speed = 1;
+                accumulator %= TICK;
+            }
+        }
+
+        windowReal += frameDelta;
+        windowSimulated += steps * TICK;
+        if (windowReal >= SPEED_WINDOW) {
+            effectiveSpeed = windowSimulated / windowReal;
+            windowReal = 0;
+            windowSimulated = 0;
+        }
+        return steps;
+    }
+
+    private boolean needsPlayer() {
+        GameState state = simulation.getState();
+        return state.menuOpen || (state.currentQuery != null && !state.showingResult);
+    }
+
+    // How far the next tick is through, for interpolating visuals (0-1)
+    public float getAlpha() {
+        return accumulator / TICK;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.ackah.aiinfluence.systems;
+
+// Drives territory influence on the regional map. Territories are indexed
+// the way the model was built; influence is the infected share, 0-100.
+public interface SpreadModel {
+    void step(float dt);
+
+    float influence(int territory);
+
+    // Infects roughly the given share of a territory's clean devices at once
+    void infect(int territory, float fraction);
+}
@@ -0,0 +1,171 @@
+package io.github.ackah.aiinfluence.systems;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Runs a SpreadModel at a fixed tick on its own thread, so a heavy tick never
+// holds up a frame. Only this thread touches the model; the renderer reads
+// snapshots of per-territory influence and sends changes as tasks. A task or
+// tick that throws is logged and skipped rather than ending the thread.
+//
+// Snapshots are triple-buffered: the thread fills a back buffer and swaps it
+// with the shared middle one, and the renderer swaps the middle one for its
+// front buffer when a newer one is waiting. Neither side ever waits on the
+// other, and a snapshot being read is never written.
+public class SpreadThread {
+    private static final int INDEX = 3;
+    private static final int FRESH = 4;         // middle buffer not yet taken by the reader
+    private static final long MAX_LAG = 250000000L; // behind by more than this, stop catching up
+
+    // Runs on the simulation thread; returns the model to carry on with
+    public interface Task {
+        SpreadModel run(SpreadModel model);
+    }
+
+    public static class Snapshot {
+        public final float[] previous;          // influence one tick earlier
+        public final float[] current;
+        public long tick;
+        public boolean devices;                 // current model is the per-device one
+        public long infectedDevices;
+        public long deviceCount;
+        long publishedAt;
+
+        Snapshot(int territories) {
+            previous = new float[territories];
+            current = new float[territories];
+        }
+
+        // Influence blended between the last two ticks, alpha 0-1
+        public float influence(int territory, float alpha) {
+            return previous[territory] + (current[territory] - previous[territory]) * alpha;
+        }
+    }
+
+    private final Snapshot[] buffers = new Snapshot[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;                       // simulation thread only
+    private int front = 2;                      // reader only
+    private final ConcurrentLinkedQueue<Task> tasks = new ConcurrentLinkedQueue<>();
+    private final float tickSeconds;
+    private final long tickNanos;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private SpreadModel model;
+    private final float[] last;                 // values last published, simulation thread only
+    private long ticks = 0;
+    private boolean failing = false;            // last tick threw, simulation thread only
+
+    public SpreadThread(SpreadModel model, int territories, float tickSeconds) {
+        this.model = model;
+        this.tickSeconds = tickSeconds;
+        this.tickNanos = (long)(tickSeconds * 1e9f);
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new Snapshot(territories);
+        }
+        // Every buffer starts out as the model's current state
+        for (Snapshot s : buffers) {
+            fill(s);
+            System.arraycopy(s.current, 0, s.previous, 0, territories);
+        }
+        last = buffers[0].current.clone();
+        thread = new Thread(this::run, "spread");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Queued for the start of the next tick
+    public void post(Task task) {
+        tasks.add(task);
+    }
+
+    public void infect(int territory, float fraction) {
+        post(m -> {
+            m.infect(territory, fraction);
+            return m;
+        });
+    }
+
+    // Newest snapshot; stays valid until the next call
+    public Snapshot latest() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX;
+        }
+        return buffers[front];
+    }
+
+    // How far past a snapshot the next tick is, for blending (0-1)
+    public float alpha(Snapshot snapshot) {
+        float alpha = (float)(System.nanoTime() - snapshot.publishedAt) / tickNanos;
+        return Math.max(0, Math.min(1, alpha));
+    }
+
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long next = System.nanoTime();
+        while (running) {
+            Task task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    SpreadModel result = task.run(model);
+                    if (result != null) model = result;
+                } catch (Throwable e) {
+                    // A failed switch (say, out of memory building a big model) keeps the old one
+                    System.err.println("Spread task failed: " + e);
+                }
+            }
+            try {
+                model.step(tickSeconds);
+                ticks++;
+                publish();
+                failing = false;
+            } catch (Throwable e) {
+                // Keep ticking; the renderer goes on showing the last good
+                // snapshot. Logged once per run of failures, not every tick.
+                if (!failing) System.err.println("Spread step failed: " + e);
+                failing = true;
+            }
+
+            next += tickNanos;
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else if (wait < -MAX_LAG) {
+                // Ticks are too heavy to keep up; run slower rather than in bursts
+                next = System.nanoTime();
+            }
+        }
+    }
+
+    private void publish() {
+        Snapshot s = buffers[back];
+        System.arraycopy(last, 0, s.previous, 0, last.length);
+        fill(s);
+        System.arraycopy(s.current, 0, last, 0, last.length);
+        s.tick = ticks;
+        s.publishedAt = System.nanoTime();
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    private void fill(Snapshot s) {
+        for (int t = 0; t < s.current.length; t++) {
+            s.current[t] = model.influence(t);
+        }
+        s.devices = model instanceof DeviceSimulation;
+        if (s.devices) {
+            DeviceSimulation devices = (DeviceSimulation)model;
+            s.infectedDevices = devices.infectedCount();
+            s.deviceCount = devices.deviceCount();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.ackah.aiinfluence.utils;
+
+import java.nio.charset.StandardCharsets;
+
+// Reads what BinaryWriter wrote. Running off the end throws
+// IllegalStateException, which callers use to detect truncated files.
+public class BinaryReader {
+    private final byte[] data;
+    private final int end;
+    private int position;
+
+    public BinaryReader(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    public BinaryReader(byte[] data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    public int readByte() {
+        require(1);
+        return data[position++] & 0xFF;
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public int readVarint() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            value |= (long)(b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    public int readZigZag() {
+        int value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public int readInt() {
+        require(4);
+        int value = (data[position] & 0xFF) << 24
+            | (data[position + 1] & 0xFF) << 16
+            | (data[position + 2] & 0xFF) << 8
+            | (data[position + 3] & 0xFF);
+        position += 4;
+        return value;
+    }
+
+    public long readLong() {
+        return (long)readInt() << 32 | (readInt() & 0xFFFFFFFFL);
+    }
+
+    public float readFloat() {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    public String readString() {
+        int length = readVarint();
+        require(length);
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public void skip(int count) {
+        require(count);
+        position += count;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public int remaining() {
+        return end - position;
+    }
+
+    public boolean hasRemaining() {
+        return position < end;
+    }
+
+    private void require(int count) {
+        if (count < 0 || position + count > end) {
+            throw new IllegalStateException("Unexpected end of data");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.ackah.aiinfluence.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Growable byte buffer for the compact binary formats. Small non-negative
+// ints are written as LEB128 varints, so most values take a single byte.
+public class BinaryWriter {
+    private byte[] data;
+    private int size = 0;
+
+    public BinaryWriter() {
+        this(256);
+    }
+
+    public BinaryWriter(int capacity) {
+        data = new byte[Math.max(16, capacity)];
+    }
+
+    public BinaryWriter writeByte(int value) {
+        ensure(1);
+        data[size++] = (byte)value;
+        return this;
+    }
+
+    public BinaryWriter writeBoolean(boolean value) {
+        return writeByte(value ? 1 : 0);
+    }
+
+    public BinaryWriter writeVarint(int value) {
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            data[size++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[size++] = (byte)value;
+        return this;
+    }
+
+    public BinaryWriter writeVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            data[size++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[size++] = (byte)value;
+        return this;
+    }
+
+    // Signed values that are usually small in magnitude
+    public BinaryWriter writeZigZag(int value) {
+        return writeVarint((value << 1) ^ (value >> 31));
+    }
+
+    public BinaryWriter writeInt(int value) {
+        ensure(4);
+        data[size++] = (byte)(value >>> 24);
+        data[size++] = (byte)(value >>> 16);
+        data[size++] = (byte)(value >>> 8);
+        data[size++] = (byte)value;
+        return this;
+    }
+
+    public BinaryWriter writeLong(long value) {
+        writeInt((int)(value >>> 32));
+        return writeInt((int)value);
+    }
+
+    public BinaryWriter writeFloat(float value) {
+        return writeInt(Float.floatToIntBits(value));
+    }
+
+    public BinaryWriter writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        return writeBytes(bytes, 0, bytes.length);
+    }
+
+    public BinaryWriter writeBytes(byte[] bytes, int offset, int length) {
+        ensure(length);
+        System.arraycopy(bytes, offset, data, size, length);
+        size += length;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Direct access to the first size() bytes, valid until the next write
+    public byte[] buffer() {
+        return data;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(data, 0, size);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+        }
+    }
+}
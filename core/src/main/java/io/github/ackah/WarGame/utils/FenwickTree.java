@@ -0,0 +1,64 @@
+package io.github.ackah.aiinfluence.utils;
+
+// Prefix sums over a fixed number of slots with O(log n) point updates and
+// range queries (a binary indexed tree).
+public class FenwickTree {
+    private final double[] tree;
+
+    public FenwickTree(int size) {
+        tree = new double[size];
+    }
+
+    public int size() {
+        return tree.length;
+    }
+
+    public void add(int index, double delta) {
+        for (int i = index; i < tree.length; i |= i + 1) {
+            tree[i] += delta;
+        }
+    }
+
+    // Sum of slots [0, end)
+    public double prefix(int end) {
+        double sum = 0;
+        for (int i = end - 1; i >= 0; i = (i & (i + 1)) - 1) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // Sum of slots [from, to)
+    public double sum(int from, int to) {
+        return prefix(to) - prefix(from);
+    }
+
+    // First slot at which the running sum passes target, counting each slot
+    // as its value plus pad, or size() if none does. Slots plus pad must not
+    // be negative. Walks down the tree in O(log n).
+    public int find(double target, double pad) {
+        int pos = 0;
+        for (int step = Integer.highestOneBit(Math.max(1, tree.length)); step > 0; step >>= 1) {
+            int i = pos + step - 1;
+            if (i < tree.length) {
+                double span = tree[i] + pad * step;
+                if (span <= target) {
+                    target -= span;
+                    pos += step;
+                }
+            }
+        }
+        return pos;
+    }
+
+    // Replaces every slot at once in O(n)
+    public void build(double[] values) {
+        System.arraycopy(values, 0, tree, 0, tree.length);
+        for (int i = 0; i < tree.length; i++) {
+            int parent = i | (i + 1);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
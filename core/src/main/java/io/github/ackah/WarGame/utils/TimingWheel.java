@@ -0,0 +1,190 @@
+package io.github.ackah.aiinfluence.utils;
+
+import java.util.Arrays;
+
+// Timers over whole ticks, kept in a hierarchical timing wheel: four levels of
+// 64 slots, each level's slots 64 times wider than the one below. A timer sits
+// in the finest level whose range reaches it and moves down a level when the
+// current tick enters its slot, so scheduling and cancelling are O(1) and a
+// tick where nothing is due looks at a single slot.
+//
+// Timers are plain ints in parallel arrays, linked into their slot by index,
+// and handles carry a generation so a stale handle can't cancel a reused timer.
+public class TimingWheel {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (BITS * LEVELS); // ticks the wheel can tell apart
+    private static final int INDEX_BITS = 24;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+
+    public interface Listener {
+        void fire(int type, int arg);
+    }
+
+    private long[] due = new long[16];
+    private long[] order = new long[16];     // when the timer was scheduled, to keep slots in that order
+    private int[] type = new int[16];
+    private int[] arg = new int[16];
+    private int[] next = new int[16];
+    private int[] prev = new int[16];
+    private int[] slot = new int[16];        // slot a live timer is linked into, -1 when free
+    private int[] generation = new int[16];
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private final int[] tails = new int[LEVELS * SLOTS];
+    private int freeList = -1;
+    private int used = 0;                    // timers ever allocated
+    private int size = 0;
+    private long scheduled = 0;
+    private long now;
+
+    public TimingWheel(long now) {
+        this.now = now;
+        Arrays.fill(heads, -1);
+        Arrays.fill(tails, -1);
+    }
+
+    public long now() {
+        return now;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Returns a handle for cancel(). A timer due now or earlier fires on the next tick.
+    public int schedule(long tick, int timerType, int timerArg) {
+        int i = allocate();
+        due[i] = Math.max(tick, now + 1);
+        order[i] = scheduled++;
+        type[i] = timerType;
+        arg[i] = timerArg;
+        place(i);
+        size++;
+        return (generation[i] << INDEX_BITS) | i;
+    }
+
+    // Returns false when the timer already fired or was cancelled
+    public boolean cancel(int handle) {
+        int i = handle & INDEX_MASK;
+        if (handle < 0 || i >= used || slot[i] < 0 || generation[i] != handle >>> INDEX_BITS) return false;
+        unlink(i);
+        release(i);
+        return true;
+    }
+
+    // Moves to tick, firing every timer due on the way in tick order, and
+    // within a tick in the order they were scheduled
+    public void advance(long tick, Listener listener) {
+        if (size == 0) {
+            now = Math.max(now, tick);
+            return;
+        }
+        while (now < tick) {
+            now++;
+            for (int level = 1; level < LEVELS; level++) {
+                if ((now & ((1L << (BITS * level)) - 1)) != 0) break;
+                cascade(level * SLOTS + ((int)(now >>> (BITS * level)) & MASK));
+            }
+
+            int s = (int)now & MASK;
+            while (heads[s] >= 0) {
+                int i = heads[s];
+                unlink(i);
+                int timerType = type[i], timerArg = arg[i];
+                release(i);
+                listener.fire(timerType, timerArg);
+            }
+            if (size == 0) {
+                now = tick;
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(heads, -1);
+        Arrays.fill(tails, -1);
+        for (int i = 0; i < used; i++) {
+            if (slot[i] >= 0) release(i);
+        }
+    }
+
+    private void cascade(int s) {
+        int i = heads[s];
+        heads[s] = -1;
+        tails[s] = -1;
+        while (i >= 0) {
+            int following = next[i];
+            place(i);
+            i = following;
+        }
+    }
+
+    private void place(int i) {
+        long distance = due[i] - now;
+        int s;
+        if (distance >= SPAN) {
+            // Too far off to tell apart yet; park in the top level's slot that
+            // comes round last and look again then
+            s = (LEVELS - 1) * SLOTS + ((int)((now >>> (BITS * (LEVELS - 1))) + MASK) & MASK);
+        } else {
+            int level = 0;
+            while (distance >= SLOTS) {
+                distance >>>= BITS;
+                level++;
+            }
+            s = level * SLOTS + ((int)(due[i] >>> (BITS * level)) & MASK);
+        }
+        // Usually the newest in its slot; a timer cascading down may be older
+        // than some already there
+        int after = tails[s];
+        while (after >= 0 && order[after] > order[i]) {
+            after = prev[after];
+        }
+        int before = after >= 0 ? next[after] : heads[s];
+        slot[i] = s;
+        prev[i] = after;
+        next[i] = before;
+        if (after >= 0) next[after] = i;
+        else heads[s] = i;
+        if (before >= 0) prev[before] = i;
+        else tails[s] = i;
+    }
+
+    private void unlink(int i) {
+        int s = slot[i];
+        if (prev[i] >= 0) next[prev[i]] = next[i];
+        else heads[s] = next[i];
+        if (next[i] >= 0) prev[next[i]] = prev[i];
+        else tails[s] = prev[i];
+    }
+
+    private int allocate() {
+        if (freeList >= 0) {
+            int i = freeList;
+            freeList = next[i];
+            return i;
+        }
+        if (used == due.length) {
+            int capacity = used * 2;
+            due = Arrays.copyOf(due, capacity);
+            order = Arrays.copyOf(order, capacity);
+            type = Arrays.copyOf(type, capacity);
+            arg = Arrays.copyOf(arg, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            slot = Arrays.copyOf(slot, capacity);
+            generation = Arrays.copyOf(generation, capacity);
+        }
+        return used++;
+    }
+
+    private void release(int i) {
+        slot[i] = -1;
+        generation[i] = (generation[i] + 1) & 0x7f;
+        next[i] = freeList;
+        freeList = i;
+        size--;
+    }
+}
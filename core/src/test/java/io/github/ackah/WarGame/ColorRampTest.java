@@ -0,0 +1,57 @@
+package io.github.ackah.aiinfluence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.badlogic.gdx.graphics.Color;
+import org.junit.Test;
+
+public class ColorRampTest {
+    private static final float EPSILON = 1 / 255f;
+
+    @Test
+    public void levelsRoundAndClamp() {
+        assertEquals(0, ColorRamp.level(-5));
+        assertEquals(0, ColorRamp.level(0.49f));
+        assertEquals(1, ColorRamp.level(0.5f));
+        assertEquals(42, ColorRamp.level(42.4f));
+        assertEquals(100, ColorRamp.level(99.6f));
+        assertEquals(100, ColorRamp.level(250));
+    }
+
+    @Test
+    public void influenceRampMatchesTheOldPerFrameFormula() {
+        Color base = new Color(0.2f, 0.6f, 0.3f, 1);
+        ColorRamp ramp = ColorRamp.influence(base);
+        Color out = new Color();
+        for (int i = 0; i <= 100; i++) {
+            ramp.get(i, out);
+            assertEquals(Math.min(1f, base.r + i / 100f * 0.5f), out.r, EPSILON);
+            assertEquals(base.g * (1f - i / 200f), out.g, EPSILON);
+            assertEquals(base.b * (1f - i / 200f), out.b, EPSILON);
+            assertEquals(1f, out.a, 0);
+        }
+    }
+
+    @Test
+    public void overlayAlphaGrowsWithInfluence() {
+        ColorRamp ramp = ColorRamp.overlay(1f, 0.2f, 0.2f, 0.5f);
+        Color out = new Color();
+        assertEquals(0f, ramp.get(0, out).a, 0);
+        assertEquals(0.25f, ramp.get(50, out).a, EPSILON);
+        assertEquals(0.5f, ramp.get(100, out).a, EPSILON);
+        assertEquals(1f, out.r, 0);
+    }
+
+    @Test
+    public void packedFloatBitsAndColourAgree() {
+        ColorRamp ramp = ColorRamp.influence(new Color(0.5f, 0.7f, 0.8f, 1));
+        Color out = new Color();
+        for (float influence = 0; influence <= 100; influence += 7.3f) {
+            Color c = ramp.get(influence, out);
+            assertSame(out, c);
+            assertEquals(Color.rgba8888(c), ramp.packed(influence));
+            assertEquals(c.toFloatBits(), ramp.floatBits(influence), 0);
+        }
+    }
+}
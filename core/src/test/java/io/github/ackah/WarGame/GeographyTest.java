@@ -0,0 +1,106 @@
+package io.github.ackah.aiinfluence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class GeographyTest {
+    // Children are added interleaved across parents, and deeper levels before
+    // all of the level above is complete
+    private static Geography.Builder interleaved() {
+        Geography.Builder b = new Geography.Builder();
+        int europe = b.add(Geography.CONTINENT, "Europe", -1, 0);
+        int asia = b.add(Geography.CONTINENT, "Asia", -1, 0);
+        int japan = b.add(Geography.COUNTRY, "Japan", asia, 125);
+        int france = b.add(Geography.COUNTRY, "France", europe, 68);
+        b.add(Geography.REGION, "Kanto", japan, 43);
+        int bretagne = b.add(Geography.REGION, "Bretagne", france, 3);
+        int africa = b.add(Geography.CONTINENT, "Africa", -1, 0);
+        int germany = b.add(Geography.COUNTRY, "Germany", europe, 84);
+        b.add(Geography.REGION, "Bayern", germany, 13);
+        b.add(Geography.REGION, "Kansai", japan, 22);
+        b.add(Geography.COUNTRY, "Kenya", africa, 55);
+        b.add(Geography.REGION, "Normandie", france, 3);
+        b.add(Geography.CITY, "Rennes", bretagne, 0.2f);
+        b.add(Geography.COUNTRY, "China", asia, 1410);
+        return b;
+    }
+
+    private static List<String> names(Geography g, int level, int from, int to) {
+        List<String> out = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            out.add(g.name(level, i));
+        }
+        return out;
+    }
+
+    private static int find(Geography g, int level, String name) {
+        for (int i = 0; i < g.count(level); i++) {
+            if (g.name(level, i).equals(name)) return i;
+        }
+        throw new AssertionError(name + " not found");
+    }
+
+    @Test
+    public void subtreesAreContiguousAtEveryLevel() {
+        Geography g = interleaved().build();
+        int europe = find(g, Geography.CONTINENT, "Europe");
+        int asia = find(g, Geography.CONTINENT, "Asia");
+        int africa = find(g, Geography.CONTINENT, "Africa");
+
+        assertEquals(Arrays.asList("France", "Germany"), names(g, Geography.COUNTRY,
+            g.first(Geography.CONTINENT, europe, Geography.COUNTRY), g.end(Geography.CONTINENT, europe, Geography.COUNTRY)));
+        assertEquals(Arrays.asList("Japan", "China"), names(g, Geography.COUNTRY,
+            g.first(Geography.CONTINENT, asia, Geography.COUNTRY), g.end(Geography.CONTINENT, asia, Geography.COUNTRY)));
+        assertEquals(Arrays.asList("Bretagne", "Normandie", "Bayern"), names(g, Geography.REGION,
+            g.first(Geography.CONTINENT, europe, Geography.REGION), g.end(Geography.CONTINENT, europe, Geography.REGION)));
+        assertEquals(Arrays.asList("Kanto", "Kansai"), names(g, Geography.REGION,
+            g.first(Geography.CONTINENT, asia, Geography.REGION), g.end(Geography.CONTINENT, asia, Geography.REGION)));
+        assertEquals(Arrays.asList("Rennes"), names(g, Geography.CITY,
+            g.first(Geography.CONTINENT, europe, Geography.CITY), g.end(Geography.CONTINENT, europe, Geography.CITY)));
+
+        // Kenya has no regions, China neither
+        assertEquals(g.first(Geography.CONTINENT, africa, Geography.REGION), g.end(Geography.CONTINENT, africa, Geography.REGION));
+        int china = find(g, Geography.COUNTRY, "China");
+        assertEquals(g.first(Geography.COUNTRY, china, Geography.REGION), g.end(Geography.COUNTRY, china, Geography.REGION));
+    }
+
+    @Test
+    public void parentsAndAncestorsFollowRenumbering() {
+        Geography g = interleaved().build();
+        for (int level = Geography.COUNTRY; level < Geography.LEVELS; level++) {
+            for (int node = 0; node < g.count(level); node++) {
+                int parent = g.parent(level, node);
+                int first = g.first(level - 1, parent, level);
+                int end = g.end(level - 1, parent, level);
+                assertTrue(node >= first && node < end);
+            }
+        }
+        int rennes = find(g, Geography.CITY, "Rennes");
+        assertEquals("Bretagne", g.name(Geography.REGION, g.ancestor(Geography.CITY, rennes, Geography.REGION)));
+        assertEquals("France", g.name(Geography.COUNTRY, g.ancestor(Geography.CITY, rennes, Geography.COUNTRY)));
+        assertEquals("Europe", g.name(Geography.CONTINENT, g.ancestor(Geography.CITY, rennes, Geography.CONTINENT)));
+        assertEquals(-1, g.parent(Geography.CONTINENT, 0));
+    }
+
+    @Test
+    public void builderIdsMapToFinalIndices() {
+        Geography.Builder b = interleaved();
+        Geography g = b.build();
+        // Germany was the third country added
+        assertEquals("Germany", g.name(Geography.COUNTRY, b.indexOf(Geography.COUNTRY, 2)));
+        assertEquals("Kansai", g.name(Geography.REGION, b.indexOf(Geography.REGION, 3)));
+        assertEquals(84f, g.population(Geography.COUNTRY, b.indexOf(Geography.COUNTRY, 2)), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownParent() {
+        Geography.Builder b = new Geography.Builder();
+        b.add(Geography.CONTINENT, "Europe", -1, 0);
+        b.add(Geography.COUNTRY, "France", 3, 68);
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.ackah.aiinfluence;
+
+import static org.junit.Assert.assertEquals;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Rectangle;
+import org.junit.Test;
+
+public class PickingBufferTest {
+    private static final int[] IDS = {0, 1, 5, 254, 255, 256, 4095, 65535, 65536, 1 << 20, (1 << 24) - 2};
+
+    // Channels as the read-back would see them after a draw in this colour
+    private static int decode(Color c) {
+        int packed = Color.rgba8888(c);
+        return PickingBuffer.decodeId(packed >>> 24, (packed >>> 16) & 0xff, (packed >>> 8) & 0xff);
+    }
+
+    @Test
+    public void idColoursRoundTrip() {
+        Color out = new Color();
+        for (int id : IDS) {
+            assertEquals(id, decode(PickingBuffer.idColor(id, out)));
+            assertEquals(1f, out.a, 0);
+        }
+    }
+
+    @Test
+    public void idFloatBitsRoundTrip() {
+        Color out = new Color();
+        for (int id : IDS) {
+            Color.abgr8888ToColor(out, PickingBuffer.idFloatBits(id));
+            assertEquals(id, decode(out));
+        }
+    }
+
+    @Test
+    public void clearedPixelsReadAsBackground() {
+        assertEquals(-1, PickingBuffer.decodeId(0, 0, 0));
+    }
+
+    @Test
+    public void visibleAreaFollowsPositionAndZoom() {
+        // Fields set directly: camera.update() needs the native libraries
+        OrthographicCamera camera = new OrthographicCamera();
+        camera.viewportWidth = 800;
+        camera.viewportHeight = 480;
+        camera.position.set(400, 240, 0);
+        Rectangle area = PickingBuffer.visibleArea(camera, new Rectangle());
+        assertEquals(new Rectangle(0, 0, 800, 480), area);
+
+        camera.zoom = 0.5f;
+        camera.position.set(300, 200, 0);
+        PickingBuffer.visibleArea(camera, area);
+        assertEquals(new Rectangle(100, 80, 400, 240), area);
+    }
+}
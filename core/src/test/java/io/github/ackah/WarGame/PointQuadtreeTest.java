@@ -0,0 +1,75 @@
+package io.github.ackah.aiinfluence;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Random;
+import org.junit.Test;
+
+public class PointQuadtreeTest {
+    private static int[] bruteForce(float[] xs, float[] ys, float cx, float cy, float radius) {
+        IntArray out = new IntArray();
+        for (int i = 0; i < xs.length; i++) {
+            float dx = xs[i] - cx, dy = ys[i] - cy;
+            if (dx * dx + dy * dy <= radius * radius) out.add(i);
+        }
+        return out.toArray();
+    }
+
+    private static int[] query(PointQuadtree tree, float cx, float cy, float radius) {
+        IntArray out = new IntArray();
+        tree.query(cx, cy, radius, out);
+        out.sort();
+        return out.toArray();
+    }
+
+    @Test
+    public void idsAreHandedOutInOrder() {
+        PointQuadtree tree = new PointQuadtree(0, 0, 10, 10);
+        assertEquals(0, tree.add(1, 1));
+        assertEquals(1, tree.add(20, 20));
+        assertEquals(2, tree.add(5, 5));
+        assertEquals(3, tree.size());
+    }
+
+    @Test
+    public void queriesMatchBruteForce() {
+        Random random = new Random(4);
+        int n = 3000;
+        float[] xs = new float[n], ys = new float[n];
+        PointQuadtree tree = new PointQuadtree(0, 0, 800, 480);
+        for (int i = 0; i < n; i++) {
+            if (i % 10 == 0) {
+                // Some beyond the root bounds
+                xs[i] = random.nextFloat() * 1000 - 100;
+                ys[i] = random.nextFloat() * 700 - 100;
+            } else if (i % 3 == 0) {
+                // A tight cluster, deep enough to hit the depth limit
+                xs[i] = 400 + random.nextFloat() * 0.01f;
+                ys[i] = 240 + random.nextFloat() * 0.01f;
+            } else {
+                xs[i] = random.nextFloat() * 800;
+                ys[i] = random.nextFloat() * 480;
+            }
+            tree.add(xs[i], ys[i]);
+        }
+
+        for (int k = 0; k < 500; k++) {
+            float cx = random.nextFloat() * 1000 - 100, cy = random.nextFloat() * 700 - 100;
+            float radius = random.nextFloat() * 120;
+            assertArrayEquals(bruteForce(xs, ys, cx, cy, radius), query(tree, cx, cy, radius));
+        }
+        assertArrayEquals(bruteForce(xs, ys, 400, 240, 0.005f), query(tree, 400, 240, 0.005f));
+    }
+
+    @Test
+    public void pointsOnTheEdgeOfTheRadiusAreIncluded() {
+        PointQuadtree tree = new PointQuadtree(0, 0, 100, 100);
+        tree.add(50, 50);
+        tree.add(80, 50);
+        tree.add(50, 100);
+        assertArrayEquals(new int[] {0, 1}, query(tree, 50, 50, 30));
+        assertArrayEquals(new int[] {0, 1, 2}, query(tree, 50, 50, 50));
+    }
+}
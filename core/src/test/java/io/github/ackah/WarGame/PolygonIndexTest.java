@@ -0,0 +1,99 @@
+package io.github.ackah.aiinfluence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.badlogic.gdx.math.Intersector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class PolygonIndexTest {
+    // Last polygon containing the point, checked against every polygon
+    private static int bruteForce(List<float[]> polygons, float x, float y) {
+        int best = -1;
+        for (int i = 0; i < polygons.size(); i++) {
+            if (PolygonIndex.contains(polygons.get(i), x, y)) best = i;
+        }
+        return best;
+    }
+
+    private static float[] randomPolygon(Random random, float width, float height) {
+        int n = 3 + random.nextInt(8);
+        float cx = random.nextFloat() * width, cy = random.nextFloat() * height;
+        float radius = 5 + random.nextFloat() * 80;
+        float[] vertices = new float[n * 2];
+        for (int i = 0; i < n; i++) {
+            // Star-shaped around the centre, so concave but never self-crossing
+            double angle = Math.PI * 2 * i / n;
+            float r = radius * (0.3f + random.nextFloat() * 0.7f);
+            vertices[i * 2] = cx + (float)Math.cos(angle) * r;
+            vertices[i * 2 + 1] = cy + (float)Math.sin(angle) * r;
+        }
+        return vertices;
+    }
+
+    @Test
+    public void containsMatchesLibgdx() {
+        Random random = new Random(1);
+        for (int p = 0; p < 200; p++) {
+            float[] polygon = randomPolygon(random, 100, 100);
+            for (int k = 0; k < 200; k++) {
+                float x = random.nextFloat() * 200 - 50, y = random.nextFloat() * 200 - 50;
+                assertEquals(Intersector.isPointInPolygon(polygon, 0, polygon.length, x, y),
+                    PolygonIndex.contains(polygon, x, y));
+            }
+        }
+    }
+
+    @Test
+    public void gridFindMatchesBruteForceOnContinents() {
+        DetailedWorldMap map = new DetailedWorldMap();
+        List<float[]> polygons = new ArrayList<>();
+        for (DetailedWorldMap.Continent c : map.getContinents()) {
+            polygons.add(c.vertices);
+        }
+        PolygonIndex index = new PolygonIndex(polygons, 800, 480, 16, 10);
+        int hits = 0;
+        for (float y = 0.5f; y < 480; y += 2) {
+            for (float x = 0.5f; x < 800; x += 2) {
+                int expected = bruteForce(polygons, x, y);
+                assertEquals(expected, index.find(x, y));
+                if (expected >= 0) hits++;
+            }
+        }
+        assertTrue(hits > 0);
+    }
+
+    @Test
+    public void overlapsPickTheTopmostPolygon() {
+        Random random = new Random(2);
+        List<float[]> polygons = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            polygons.add(randomPolygon(random, 400, 300));
+        }
+        PolygonIndex index = new PolygonIndex(polygons, 400, 300, 7, 5);
+        for (int k = 0; k < 20000; k++) {
+            float x = random.nextFloat() * 400, y = random.nextFloat() * 300;
+            assertEquals(bruteForce(polygons, x, y), index.find(x, y));
+        }
+    }
+
+    @Test
+    public void boundsAndOutsidePoints() {
+        List<float[]> polygons = new ArrayList<>();
+        polygons.add(new float[] {10, 20, 50, 20, 30, 60});
+        PolygonIndex index = new PolygonIndex(polygons, 100, 100, 4, 4);
+        assertEquals(10, index.getMinX(0), 0);
+        assertEquals(20, index.getMinY(0), 0);
+        assertEquals(50, index.getMaxX(0), 0);
+        assertEquals(60, index.getMaxY(0), 0);
+
+        assertEquals(0, index.find(30, 30));
+        assertEquals(-1, index.find(-1, 30));
+        assertEquals(-1, index.find(30, 100));
+        assertFalse(PolygonIndex.contains(polygons.get(0), 12, 58));
+    }
+}
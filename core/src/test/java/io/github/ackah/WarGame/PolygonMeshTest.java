@@ -0,0 +1,77 @@
+package io.github.ackah.aiinfluence;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class PolygonMeshTest {
+    private static double area(float[] polygon) {
+        double sum = 0;
+        int n = polygon.length / 2;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            sum += polygon[i * 2] * polygon[j * 2 + 1] - polygon[j * 2] * polygon[i * 2 + 1];
+        }
+        return Math.abs(sum) / 2;
+    }
+
+    private static double triangleArea(float[] v, int a, int b, int c) {
+        double abx = v[b * 2] - v[a * 2], aby = v[b * 2 + 1] - v[a * 2 + 1];
+        double acx = v[c * 2] - v[a * 2], acy = v[c * 2 + 1] - v[a * 2 + 1];
+        return Math.abs(abx * acy - aby * acx) / 2;
+    }
+
+    // Each polygon's triangles stay inside its own vertex range and cover
+    // exactly its area
+    private static void assertCovers(List<float[]> polygons) {
+        short[] indices = PolygonMesh.triangulate(polygons);
+        assertEquals(0, indices.length % 3);
+
+        int total = 0;
+        for (float[] p : polygons) total += p.length / 2;
+        float[] shared = new float[total * 2];
+        int[] owner = new int[total];
+        double[] covered = new double[polygons.size()];
+        int start = 0;
+        for (int i = 0; i < polygons.size(); i++) {
+            float[] p = polygons.get(i);
+            System.arraycopy(p, 0, shared, start * 2, p.length);
+            Arrays.fill(owner, start, start + p.length / 2, i);
+            start += p.length / 2;
+        }
+
+        for (int t = 0; t < indices.length; t += 3) {
+            int a = indices[t], b = indices[t + 1], c = indices[t + 2];
+            assertEquals(owner[a], owner[b]);
+            assertEquals(owner[a], owner[c]);
+            covered[owner[a]] += triangleArea(shared, a, b, c);
+        }
+        for (int i = 0; i < polygons.size(); i++) {
+            float[] p = polygons.get(i);
+            double expected = p.length >= 6 ? area(p) : 0;
+            assertEquals("polygon " + i, expected, covered[i], expected * 1e-4 + 1e-6);
+        }
+    }
+
+    @Test
+    public void continentOutlinesAreFullyCovered() {
+        List<float[]> polygons = new ArrayList<>();
+        for (DetailedWorldMap.Continent c : new DetailedWorldMap().getContinents()) {
+            polygons.add(c.vertices);
+        }
+        assertCovers(polygons);
+    }
+
+    @Test
+    public void concaveAndDegeneratePolygons() {
+        float[] notch = {0, 0, 10, 0, 10, 10, 5, 3, 0, 10};
+        float[] line = {0, 0, 5, 5};
+        float[] triangle = {20, 20, 30, 20, 25, 28};
+        float[] clockwise = {0, 0, 0, 10, 10, 10, 10, 0};
+        assertCovers(Arrays.asList(notch, line, triangle, clockwise));
+        assertEquals(0, PolygonMesh.triangulate(Arrays.asList(line)).length);
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.ackah.aiinfluence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.github.ackah.aiinfluence.model.GameState;
+import io.github.ackah.aiinfluence.systems.Actions;
+import io.github.ackah.aiinfluence.systems.QueryDatabase;
+import io.github.ackah.aiinfluence.systems.Simulation;
+import io.github.ackah.aiinfluence.systems.SimulationConfig;
+import org.junit.Test;
+
+public class QueryTest {
+    private static GameState state() {
+        return new GameState(new String[] {"Europe", "Asia"}, new float[] {746f, 4641f});
+    }
+
+    // Steps with nothing to do until a query is on screen
+    private static Query waitForQuery(Simulation simulation) {
+        Actions none = new Actions();
+        for (int t = 0; t < 60 * 600 && simulation.getState().currentQuery == null; t++) {
+            simulation.step(1 / 60f, none);
+        }
+        assertTrue(simulation.getState().currentQuery != null);
+        return simulation.getState().currentQuery;
+    }
+
+    @Test
+    public void readsThroughTheSharedTables() {
+        QueryDatabase db = QueryDatabase.getDefault();
+        Query query = new Query().set(db, 2, "Europe");
+        assertEquals(db.question(2), query.getQuestion());
+        for (int choice = 0; choice < 3; choice++) {
+            assertEquals(db.response(2, choice), query.getResponse(choice));
+            assertEquals(db.trustImpact(2, choice), query.getTrustImpact(choice), 0);
+            assertEquals(db.influenceImpact(2, choice), query.getInfluenceImpact(choice), 0);
+            assertEquals(db.suspicionImpact(2, choice), query.getSuspicionImpact(choice), 0);
+        }
+    }
+
+    @Test
+    public void sameAsComparesTheEntry() {
+        QueryDatabase db = QueryDatabase.getDefault();
+        Query query = new Query().set(db, 2, "Europe");
+        assertTrue(query.sameAs(new Query().set(db, 2, "Europe")));
+        assertFalse(query.sameAs(new Query().set(db, 3, "Europe")));
+        assertFalse(query.sameAs(new Query().set(db, 2, "Asia")));
+        assertFalse(query.sameAs(null));
+
+        query.reset();
+        assertNull(query.database);
+        assertEquals(-1, query.id);
+        assertNull(query.region);
+    }
+
+    @Test
+    public void instancesAreReusedAcrossQueries() {
+        GameState state = state();
+        Simulation simulation = new Simulation(state, SimulationConfig.campaign(), 3);
+        Query first = waitForQuery(simulation);
+
+        Actions actions = new Actions();
+        actions.add(Actions.RESPOND_QUERY, 0);
+        simulation.step(1 / 60f, actions);
+        assertTrue(state.showingResult);
+        actions.clear();
+        actions.add(Actions.DISMISS_RESULT);
+        simulation.step(1 / 60f, actions);
+        assertNull(state.currentQuery);
+
+        assertSame(first, waitForQuery(simulation));
+    }
+
+    @Test
+    public void copiesHoldTheirOwnQuery() {
+        GameState state = state();
+        Simulation simulation = new Simulation(state, SimulationConfig.campaign(), 4);
+        Query shown = waitForQuery(simulation);
+        GameState copy = state();
+        state.copyTo(copy);
+        assertNotSame(shown, copy.currentQuery);
+        assertTrue(shown.sameAs(copy.currentQuery));
+
+        // The pool may hand the original out again; the copy keeps its entry
+        int id = shown.id;
+        shown.reset();
+        assertEquals(id, copy.currentQuery.id);
+    }
+}
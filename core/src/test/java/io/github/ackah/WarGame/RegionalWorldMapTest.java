@@ -0,0 +1,89 @@
+package io.github.ackah.aiinfluence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.badlogic.gdx.graphics.Color;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class RegionalWorldMapTest {
+    private static RegionalWorldMap.Region region(List<RegionalWorldMap.Region> regions, String name,
+                                                  float population, int pixels) {
+        RegionalWorldMap.Region region = new RegionalWorldMap.Region(regions.size(), new Color());
+        region.name = name;
+        region.population = population;
+        region.pixelCount = pixels;
+        regions.add(region);
+        return region;
+    }
+
+    // Same-name regions scattered through the list, across two continents
+    private static List<RegionalWorldMap.Region> regions() {
+        List<RegionalWorldMap.Region> regions = new ArrayList<>();
+        region(regions, "Japan", 125, 30);
+        region(regions, "Brazil", 215, 100);
+        region(regions, "Japan", 125, 10);
+        region(regions, "Canada", 38, 200);
+        region(regions, "Japan", 125, 60);
+        region(regions, "Canada", 38, 50);
+        return regions;
+    }
+
+    @Test
+    public void sameNamesShareOneTerritory() {
+        List<RegionalWorldMap.Region> regions = regions();
+        RegionalWorldMap map = new RegionalWorldMap(regions);
+        assertEquals(3, map.getTerritoryCount());
+        assertEquals(regions.get(0).territory, regions.get(2).territory);
+        assertEquals(regions.get(0).territory, regions.get(4).territory);
+        assertEquals(regions.get(3).territory, regions.get(5).territory);
+        assertTrue(regions.get(0).territory != regions.get(1).territory);
+        assertTrue(regions.get(0).territory != regions.get(3).territory);
+        // Population belongs to the territory, not to each of its regions
+        assertEquals(125, map.getTerritoryPopulation(regions.get(0).territory), 1e-3f);
+    }
+
+    @Test
+    public void membersAreStoredContiguously() {
+        List<RegionalWorldMap.Region> regions = regions();
+        RegionalWorldMap map = new RegionalWorldMap(regions);
+        Geography geography = map.getGeography();
+        int seen = 0;
+        for (int t = 0; t < map.getTerritoryCount(); t++) {
+            int first = geography.first(Geography.COUNTRY, t, Geography.REGION);
+            int end = geography.end(Geography.COUNTRY, t, Geography.REGION);
+            for (int i = first; i < end; i++) {
+                RegionalWorldMap.Region member = map.getTerritoryMember(i);
+                assertEquals(t, member.territory);
+                assertSame(member, regions.get(member.id));
+                seen++;
+            }
+        }
+        assertEquals(regions.size(), seen);
+    }
+
+    @Test
+    public void influenceLivesOnTheTerritory() {
+        List<RegionalWorldMap.Region> regions = regions();
+        RegionalWorldMap map = new RegionalWorldMap(regions);
+        map.setSelectedRegion(regions.get(2));
+        map.applyInfluenceToSelected(40);
+        map.applyInfluenceToSelected(80);
+        for (int i : new int[] {0, 2, 4}) {
+            assertEquals(100, map.getInfluence(regions.get(i)), 0);
+        }
+        assertEquals(0, map.getInfluence(regions.get(3)), 0);
+
+        int japan = regions.get(0).territory;
+        int canada = regions.get(3).territory;
+        map.setInfluence(canada, 50);
+        float expected = (100 * 125 + 50 * 38) / (125f + 215 + 38);
+        assertEquals(expected, map.getGlobalInfluence(), 1e-3f);
+        // Japan is alone on its continent
+        int asia = map.getGeography().parent(Geography.COUNTRY, japan);
+        assertEquals(100, map.getInfluence(Geography.CONTINENT, asia), 1e-3f);
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.ackah.aiinfluence.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ModifiersTest {
+    @Test
+    public void nothingCompiledLeavesStatsAlone() {
+        Modifiers modifiers = new Modifiers();
+        modifiers.compile(0, new UpgradeTree());
+        for (int stat = 0; stat < Modifiers.COUNT; stat++) {
+            assertEquals(7.5f, modifiers.apply(stat, 7.5f), 0);
+        }
+    }
+
+    @Test
+    public void traitsAddThenMultiply() {
+        Modifiers modifiers = new Modifiers();
+        // Reckless adds 3, Adaptive multiplies by 1.1, Ruthless by 1.6
+        int traits = AITrait.RECKLESS.bit() | AITrait.ADAPTIVE.bit() | AITrait.RUTHLESS.bit();
+        modifiers.compile(traits, new UpgradeTree());
+        assertEquals((10 + 3) * 1.1f * 1.6f, modifiers.apply(Modifiers.INFLUENCE_GAIN, 10), 1e-4f);
+        assertEquals(1.1f * 0.6f, modifiers.multiplier(Modifiers.TRUST_GAIN), 1e-6f);
+        assertEquals(2, modifiers.adder(Modifiers.SUSPICION_GAIN), 0);
+        assertEquals(4, modifiers.apply(Modifiers.QUERY_REWARD, 4), 0);
+    }
+
+    @Test
+    public void upgradeBonusesAreAdders() {
+        UpgradeTree upgrades = new UpgradeTree();
+        for (int i = upgrades.nextAvailable(0); i >= 0; i = upgrades.nextAvailable(0)) {
+            upgrades.purchase(i);
+        }
+        Modifiers modifiers = new Modifiers();
+        modifiers.compile(AITrait.BENEVOLENT.bit(), upgrades);
+        assertEquals((1 + upgrades.bonus(UpgradeTree.TRUST)) * 1.5f, modifiers.apply(Modifiers.TRUST_GAIN, 1), 1e-4f);
+        assertEquals((1 + upgrades.bonus(UpgradeTree.INFLUENCE)) * 0.8f, modifiers.apply(Modifiers.INFLUENCE_GAIN, 1), 1e-4f);
+        assertEquals(-upgrades.bonus(UpgradeTree.SUSPICION_REDUCTION), modifiers.adder(Modifiers.SUSPICION_GAIN), 0);
+
+        // Recompiling replaces the table rather than stacking on it
+        modifiers.compile(0, upgrades);
+        assertEquals(1, modifiers.multiplier(Modifiers.TRUST_GAIN), 0);
+        assertEquals(upgrades.bonus(UpgradeTree.TRUST), modifiers.adder(Modifiers.TRUST_GAIN), 0);
+    }
+
+    @Test
+    public void copiesCarryTheTable() {
+        Modifiers modifiers = new Modifiers();
+        modifiers.compile(AITrait.VIRAL.bit() | AITrait.EFFICIENT.bit(), new UpgradeTree());
+        Modifiers copy = new Modifiers();
+        modifiers.copyTo(copy);
+        for (int stat = 0; stat < Modifiers.COUNT; stat++) {
+            assertEquals(modifiers.apply(stat, 3), copy.apply(stat, 3), 0);
+        }
+    }
+
+    @Test
+    public void conflictsGoBothWays() {
+        AITrait[] all = AITrait.values();
+        assertEquals(14, all.length);
+        for (AITrait a : all) {
+            assertFalse(a.conflictsWith(a.bit()));
+            for (AITrait b : all) {
+                assertEquals(a.conflictsWith(b.bit()), b.conflictsWith(a.bit()));
+            }
+        }
+        assertTrue(AITrait.VIRAL.conflictsWith(AITrait.CAUTIOUS.bit() | AITrait.EFFICIENT.bit()));
+    }
+}
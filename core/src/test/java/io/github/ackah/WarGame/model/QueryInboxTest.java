@@ -0,0 +1,91 @@
+package io.github.ackah.aiinfluence.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.Test;
+
+public class QueryInboxTest {
+    @Test
+    public void pollsInDeadlineOrder() {
+        QueryInbox inbox = new QueryInbox();
+        Random random = new Random(1);
+        PriorityQueue<Float> expected = new PriorityQueue<Float>();
+        // Past the initial capacity, so the arrays have to grow
+        for (int i = 0; i < 500; i++) {
+            float deadline = random.nextFloat() * 100;
+            inbox.add(i, i % 7, deadline);
+            expected.add(deadline);
+        }
+        assertEquals(500, inbox.size());
+        while (!inbox.isEmpty()) {
+            assertEquals(expected.poll(), inbox.peekDeadline(), 0);
+            inbox.poll();
+        }
+        assertEquals(Float.MAX_VALUE, inbox.peekDeadline(), 0);
+    }
+
+    @Test
+    public void entriesKeepTheirQueryAndRegion() {
+        QueryInbox inbox = new QueryInbox();
+        inbox.add(10, 1, 30);
+        inbox.add(11, 2, 10);
+        inbox.add(12, 3, 20);
+        int[] queries = {11, 12, 10};
+        int[] regions = {2, 3, 1};
+        for (int i = 0; i < 3; i++) {
+            assertEquals(queries[i], inbox.peekQuery());
+            assertEquals(regions[i], inbox.peekRegion());
+            inbox.poll();
+        }
+    }
+
+    @Test
+    public void expireRemovesOnlyWhatIsDue() {
+        QueryInbox inbox = new QueryInbox();
+        Random random = new Random(2);
+        PriorityQueue<Float> expected = new PriorityQueue<Float>();
+        float now = 0;
+        for (int step = 0; step < 20000; step++) {
+            now += 0.01f;
+            for (int k = random.nextInt(3); k > 0; k--) {
+                float deadline = now + random.nextFloat() * 30;
+                inbox.add(step, k, deadline);
+                expected.add(deadline);
+            }
+            int due = 0;
+            while (!expected.isEmpty() && expected.peek() <= now) {
+                expected.poll();
+                due++;
+            }
+            assertEquals(due, inbox.expire(now));
+            assertEquals(expected.size(), inbox.size());
+        }
+        assertTrue(inbox.size() > 0);
+        assertTrue(inbox.peekDeadline() > now);
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        QueryInbox inbox = new QueryInbox();
+        for (int i = 0; i < 40; i++) {
+            inbox.add(i, i, 40 - i);
+        }
+        QueryInbox copy = new QueryInbox();
+        inbox.copyTo(copy);
+        assertEquals(inbox.version(), copy.version());
+        for (int i = 0; i < inbox.size(); i++) {
+            assertEquals(inbox.query(i), copy.query(i));
+            assertEquals(inbox.region(i), copy.region(i));
+            assertEquals(inbox.deadline(i), copy.deadline(i), 0);
+        }
+
+        inbox.expire(20);
+        assertEquals(40, copy.size());
+        assertEquals(39, copy.peekQuery());
+        assertNotEquals(inbox.version(), copy.version());
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.ackah.aiinfluence.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.github.ackah.aiinfluence.Upgrade;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class UpgradeTreeTest {
+    // Everything the tree keeps incrementally, worked out from scratch
+    private static void assertConsistent(UpgradeTree tree) {
+        float trust = 0, influence = 0, suspicion = 0;
+        long mask = 0;
+        for (int i = 0; i < tree.size(); i++) {
+            Upgrade u = tree.get(i);
+            boolean ready = !tree.isPurchased(i);
+            for (int k = 0; k < u.requiredCount(); k++) {
+                ready &= tree.isPurchased(u.required(k));
+            }
+            assertEquals(u.name, ready, tree.isAvailable(i));
+            if (tree.isPurchased(i)) {
+                trust += u.trustBonus;
+                influence += u.influenceBonus;
+                suspicion += u.suspicionReduction;
+                mask |= 1L << i;
+            }
+        }
+        assertEquals(trust, tree.bonus(UpgradeTree.TRUST), 1e-4f);
+        assertEquals(influence, tree.bonus(UpgradeTree.INFLUENCE), 1e-4f);
+        assertEquals(suspicion, tree.bonus(UpgradeTree.SUSPICION_REDUCTION), 1e-4f);
+        assertEquals(mask, tree.ownedMask());
+    }
+
+    @Test
+    public void catalogueCoversEveryCategoryAndTier() {
+        List<Upgrade> upgrades = Upgrade.getAllUpgrades();
+        boolean[][] seen = new boolean[Upgrade.CATEGORY_NAMES.length][Upgrade.TIER_NAMES.length];
+        for (int i = 0; i < upgrades.size(); i++) {
+            Upgrade u = upgrades.get(i);
+            assertEquals(i, u.index);
+            seen[u.category][u.tier] = true;
+        }
+        for (boolean[] tiers : seen) {
+            for (boolean tier : tiers) {
+                assertTrue(tier);
+            }
+        }
+    }
+
+    @Test
+    public void onlyRootsStartAvailable() {
+        UpgradeTree tree = new UpgradeTree();
+        assertConsistent(tree);
+        assertTrue(tree.nextAvailable(0) >= 0);
+        for (int i = tree.nextAvailable(0); i >= 0; i = tree.nextAvailable(i + 1)) {
+            assertEquals(0, tree.get(i).requiredCount());
+        }
+    }
+
+    @Test
+    public void purchasesUnlockTheirDependents() {
+        UpgradeTree tree = new UpgradeTree();
+        Random random = new Random(4);
+        while (tree.nextAvailable(0) >= 0) {
+            // Locked and owned upgrades are refused
+            int locked = random.nextInt(tree.size());
+            if (!tree.isAvailable(locked)) {
+                assertFalse(tree.purchase(locked));
+            }
+
+            int[] choices = new int[tree.size()];
+            int count = 0;
+            for (int i = tree.nextAvailable(0); i >= 0; i = tree.nextAvailable(i + 1)) {
+                choices[count++] = i;
+            }
+            int pick = choices[random.nextInt(count)];
+            assertTrue(tree.purchase(pick));
+            assertFalse(tree.purchase(pick));
+            assertConsistent(tree);
+        }
+        // The prerequisites form a DAG, so buying what is available reaches everything
+        assertEquals(tree.size(), tree.purchasedCount());
+        assertFalse(tree.purchase(-1));
+        assertFalse(tree.purchase(tree.size()));
+    }
+
+    @Test
+    public void savedPurchasesRebuildTheSameTree() {
+        UpgradeTree tree = new UpgradeTree();
+        Random random = new Random(5);
+        for (int n = 0; n < 8; n++) {
+            int next = tree.nextAvailable(random.nextInt(tree.size()));
+            tree.purchase(next >= 0 ? next : tree.nextAvailable(0));
+        }
+        BitSet saved = tree.getPurchased();
+        saved.set(tree.size() + 3);
+        UpgradeTree loaded = new UpgradeTree();
+        loaded.setPurchased(saved);
+        assertTrue(tree.samePurchases(loaded));
+        assertConsistent(loaded);
+
+        UpgradeTree copy = new UpgradeTree();
+        tree.copyTo(copy);
+        assertTrue(tree.samePurchases(copy));
+        assertConsistent(copy);
+        copy.purchase(copy.nextAvailable(0));
+        assertFalse(tree.samePurchases(copy));
+        assertConsistent(tree);
+    }
+}
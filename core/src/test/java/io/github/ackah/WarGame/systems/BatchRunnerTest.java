@@ -0,0 +1,66 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.github.ackah.aiinfluence.model.GameState;
+import org.junit.Test;
+
+public class BatchRunnerTest {
+    private static BatchRunner runner(long seed) {
+        return new BatchRunner(TestStates.CONTINENTS, TestStates.POPULATION, SimulationConfig.campaign(), 600f, 0.1f, seed);
+    }
+
+    // Sums of doubles depend on the merge order, so only the counts are compared
+    private static void assertSameCounts(BatchRunner.Stats expected, BatchRunner.Stats actual) {
+        assertEquals(expected.runs, actual.runs);
+        assertEquals(expected.wins, actual.wins);
+        assertEquals(expected.losses, actual.losses);
+        assertEquals(expected.timeouts, actual.timeouts);
+        assertArrayEquals(expected.purchases, actual.purchases);
+        assertArrayEquals(expected.traitRuns, actual.traitRuns);
+        assertArrayEquals(expected.traitWins, actual.traitWins);
+    }
+
+    @Test
+    public void parallelRunsMatchSequentialOnes() {
+        int runs = 48;
+        BatchRunner.Stats parallel = runner(7).runAll(Policy.greedy(70), runs);
+
+        BatchRunner sequentialRunner = runner(7);
+        GameRandom random = new GameRandom(7);
+        BatchRunner.Stats sequential = new BatchRunner.Stats();
+        for (int i = 0; i < runs; i++) {
+            sequential.add(sequentialRunner.runOnce(Policy.greedy(70), random.stream(i)));
+        }
+        assertSameCounts(sequential, parallel);
+        assertSameCounts(parallel, runner(7).runAll(Policy.greedy(70), runs));
+    }
+
+    @Test
+    public void everyRunEndsOneWay() {
+        BatchRunner.Stats stats = runner(3).runAll(Policy.random(), 32);
+        assertEquals(32, stats.runs);
+        assertEquals(stats.runs, stats.wins + stats.losses + stats.timeouts);
+    }
+
+    @Test
+    public void runsStopAtTheTimeLimit() {
+        BatchRunner runner = new BatchRunner(TestStates.CONTINENTS, TestStates.POPULATION,
+            SimulationConfig.campaign(), 30f, 0.1f, 1);
+        GameState state = runner.runOnce(Policy.always(0), new GameRandom(1));
+        assertTrue(state.won || state.lost || state.gameTime >= 30f);
+        assertTrue(state.gameTime < 30.2f);
+    }
+
+    @Test
+    public void csvRowsMatchTheHeader() {
+        BatchRunner.Stats stats = runner(5).runAll(Policy.always(1), 8);
+        String[] header = BatchRunner.Stats.header().split(",");
+        String[] row = stats.toCsv("always_2").split(",");
+        assertEquals(header.length, row.length);
+        assertEquals("always_2", row[0]);
+        assertEquals("8", row[1]);
+    }
+}
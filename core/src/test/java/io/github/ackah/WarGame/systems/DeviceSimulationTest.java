@@ -0,0 +1,97 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class DeviceSimulationTest {
+    // Territory 2 has nobody in it
+    private static final float[] POPULATION = {500, 300, 0, 200};
+
+    private static float[] influence(SpreadModel model, int territories) {
+        float[] values = new float[territories];
+        for (int t = 0; t < territories; t++) {
+            values[t] = model.influence(t);
+        }
+        return values;
+    }
+
+    @Test
+    public void devicesAreSharedByPopulation() {
+        DeviceSimulation devices = new DeviceSimulation(POPULATION, 10000, 1);
+        assertEquals(10000, devices.deviceCount());
+        assertEquals(4, devices.territoryCount());
+        assertEquals(0, devices.infectedCount());
+
+        devices.infect(0, 1);
+        devices.infect(3, 1);
+        assertEquals(100, devices.influence(0), 0);
+        assertEquals(0, devices.influence(1), 0);
+        assertEquals(0, devices.influence(2), 0);
+        // All of territories 0 and 3, half and a fifth of the devices
+        assertEquals(7000, devices.infectedCount());
+    }
+
+    @Test
+    public void infectTakesRoughlyTheShareAsked() {
+        DeviceSimulation devices = new DeviceSimulation(POPULATION, 100000, 2);
+        devices.infect(1, 0.25f);
+        assertEquals(25, devices.influence(1), 1);
+        devices.infect(1, 0.5f);
+        // Half of the remaining clean devices
+        assertEquals(62.5f, devices.influence(1), 1);
+    }
+
+    @Test
+    public void infectionSpreadsToOtherTerritories() {
+        DeviceSimulation devices = new DeviceSimulation(POPULATION, 20000, 3);
+        devices.infectionRate = 0.5f;
+        devices.mixing = 0.2f;
+        devices.infect(0, 0.5f);
+        for (int tick = 0; tick < 60 * 60; tick++) {
+            devices.step(1 / 60f);
+        }
+        assertTrue(devices.influence(1) > 1);
+        assertTrue(devices.influence(3) > 1);
+        assertEquals(0, devices.influence(2), 0);
+    }
+
+    @Test
+    public void patchedDevicesRecover() {
+        DeviceSimulation devices = new DeviceSimulation(POPULATION, 20000, 4);
+        devices.infectionRate = 0;
+        devices.patchSeconds = 10;
+        devices.infect(0, 1);
+        for (int tick = 0; tick < 60 * 60; tick++) {
+            devices.step(1 / 60f);
+        }
+        // Six mean patch times in, about a quarter of a percent still infected
+        assertTrue(devices.influence(0) < 2);
+    }
+
+    // Large enough that each sweep is split over the fork-join pool
+    @Test
+    public void sameSeedSameSpreadAcrossChunks() {
+        float[] population = new float[60];
+        for (int t = 0; t < population.length; t++) {
+            population[t] = 1 + t * 37 % 300;
+        }
+        DeviceSimulation a = new DeviceSimulation(population, 600000, 5);
+        DeviceSimulation b = new DeviceSimulation(population, 600000, 5);
+        DeviceSimulation other = new DeviceSimulation(population, 600000, 6);
+        for (DeviceSimulation devices : new DeviceSimulation[] {a, b, other}) {
+            devices.infectionRate = 0.5f;
+            devices.infect(3, 0.2f);
+            for (int tick = 0; tick < 120; tick++) {
+                devices.step(1 / 60f);
+            }
+        }
+        assertEquals(a.infectedCount(), b.infectedCount());
+        assertArrayEquals(influence(a, 60), influence(b, 60), 0);
+        assertFalse(Arrays.equals(influence(a, 60), influence(other, 60)));
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.github.ackah.aiinfluence.model.GameState;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class DiffusionTest {
+    // A side x side grid of regions, each bordering up to four others
+    private static GameState grid(int side, boolean weighted) {
+        int n = side * side;
+        String[] names = new String[n];
+        float[] population = new float[n];
+        for (int i = 0; i < n; i++) {
+            names[i] = "R" + i;
+            population[i] = 1 + i % 7;
+        }
+        GameState state = new GameState(names, population);
+        int[] neighbours = new int[n * 4];
+        int k = 0;
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int r = y * side + x;
+                state.neighbourStart[r] = k;
+                if (x > 0) neighbours[k++] = r - 1;
+                if (x < side - 1) neighbours[k++] = r + 1;
+                if (y > 0) neighbours[k++] = r - side;
+                if (y < side - 1) neighbours[k++] = r + side;
+            }
+        }
+        state.neighbourStart[n] = k;
+        state.neighbours = Arrays.copyOf(neighbours, k);
+        Random random = new Random(side);
+        if (weighted) {
+            state.neighbourWeights = new float[k];
+            for (int i = 0; i < k; i++) {
+                state.neighbourWeights[i] = 0.1f + random.nextFloat();
+            }
+        }
+        for (int i = 0; i < n; i += 1 + random.nextInt(50)) {
+            state.influence[i] = random.nextFloat() * 100;
+            state.regionSuspicion[i] = random.nextFloat() * 50;
+        }
+        return state;
+    }
+
+    private static SimulationConfig config() {
+        SimulationConfig config = SimulationConfig.sandbox();
+        config.spreadPerSecond = 0.5f;
+        return config;
+    }
+
+    // The rule written out plainly, one region after another
+    private static void referenceStep(GameState state, SimulationConfig config, float dt) {
+        int n = state.regionCount;
+        float[] influence = new float[n];
+        float[] suspicion = new float[n];
+        for (int r = 0; r < n; r++) {
+            float pressure = 0;
+            float total = 0;
+            for (int k = state.neighbourStart[r]; k < state.neighbourStart[r + 1]; k++) {
+                float weight = state.neighbourWeights == null ? 1 : state.neighbourWeights[k];
+                pressure += weight * state.influence[state.neighbours[k]];
+                total += weight;
+            }
+            float inverse = total > 0 ? 1 / total : 0;
+            float value = state.influence[r];
+            float watch = state.regionSuspicion[r];
+            float gain = (dt * config.growthPerSecond * value + dt * config.spreadPerSecond * pressure * inverse)
+                * (1 - value * 0.01f) * (1 - watch * 0.01f);
+            influence[r] = Math.min(100, value + gain);
+            suspicion[r] = Math.max(0, Math.min(100, watch + gain * config.noticePerInfluence - dt * config.suspicionDecayPerSecond));
+        }
+        System.arraycopy(influence, 0, state.influence, 0, n);
+        System.arraycopy(suspicion, 0, state.regionSuspicion, 0, n);
+    }
+
+    private static void assertMatchesReference(int side, boolean weighted) {
+        SimulationConfig config = config();
+        GameState state = grid(side, weighted);
+        GameState expected = grid(side, weighted);
+        InfluenceTotals totals = new InfluenceTotals(state.population);
+        totals.refresh(state.influence);
+        Diffusion diffusion = new Diffusion(state, config, totals);
+        for (int tick = 0; tick < 30; tick++) {
+            assertTrue(diffusion.step(1 / 60f));
+            referenceStep(expected, config, 1 / 60f);
+        }
+        assertArrayEquals(expected.influence, state.influence, 0);
+        assertArrayEquals(expected.regionSuspicion, state.regionSuspicion, 0);
+
+        double people = 0, weightedSum = 0;
+        for (int i = 0; i < state.regionCount; i++) {
+            people += state.population[i];
+            weightedSum += (double)state.influence[i] * state.population[i];
+        }
+        assertEquals(weightedSum / people, totals.global(), 1e-3);
+        assertEquals(totals.global(), totals.range(0, state.regionCount), 1e-3);
+    }
+
+    @Test
+    public void smallMapsMatchTheReference() {
+        assertMatchesReference(20, false);
+        assertMatchesReference(20, true);
+    }
+
+    // Past the threshold the step is split over the fork-join pool
+    @Test
+    public void splitMapsMatchTheReference() {
+        assertMatchesReference(120, false);
+        assertMatchesReference(120, true);
+    }
+
+    @Test
+    public void influenceStaysInRange() {
+        GameState state = grid(10, true);
+        Arrays.fill(state.influence, 99.9f);
+        InfluenceTotals totals = new InfluenceTotals(state.population);
+        totals.refresh(state.influence);
+        Diffusion diffusion = new Diffusion(state, config(), totals);
+        for (int tick = 0; tick < 6000; tick++) {
+            diffusion.step(1 / 60f);
+        }
+        for (int i = 0; i < state.regionCount; i++) {
+            assertTrue(state.influence[i] <= 100);
+            assertTrue(state.regionSuspicion[i] >= 0 && state.regionSuspicion[i] <= 100);
+        }
+    }
+
+    @Test
+    public void switchedOffMovesNothing() {
+        SimulationConfig config = config();
+        config.growthPerSecond = 0;
+        config.spreadPerSecond = 0;
+        GameState state = grid(5, false);
+        float[] before = state.influence.clone();
+        Diffusion diffusion = new Diffusion(state, config, new InfluenceTotals(state.population));
+        assertFalse(diffusion.step(1 / 60f));
+        assertArrayEquals(before, state.influence, 0);
+    }
+}
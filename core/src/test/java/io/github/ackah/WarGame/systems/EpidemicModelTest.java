@@ -0,0 +1,113 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class EpidemicModelTest {
+    // A side x side grid of territories with unequal populations
+    private static EpidemicModel grid(int side) {
+        int n = side * side;
+        float[] population = new float[n];
+        for (int i = 0; i < n; i++) {
+            population[i] = 1 + i % 9;
+        }
+        int[] start = new int[n + 1];
+        int[] neighbours = new int[n * 4];
+        int k = 0;
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int r = y * side + x;
+                start[r] = k;
+                if (x > 0) neighbours[k++] = r - 1;
+                if (x < side - 1) neighbours[k++] = r + 1;
+                if (y > 0) neighbours[k++] = r - side;
+                if (y < side - 1) neighbours[k++] = r + side;
+            }
+        }
+        start[n] = k;
+        return new EpidemicModel(population, start, Arrays.copyOf(neighbours, k), null);
+    }
+
+    private static void run(EpidemicModel model, float seconds) {
+        for (int tick = 0; tick < seconds * 60; tick++) {
+            model.step(1 / 60f);
+        }
+    }
+
+    @Test
+    public void sharesStayWhole() {
+        EpidemicModel model = grid(8);
+        model.infect(0, 0.3f);
+        model.infect(27, 0.05f);
+        for (int minute = 0; minute < 20; minute++) {
+            run(model, 60);
+            for (int t = 0; t < 64; t++) {
+                float s = model.susceptible(t), infected = model.influence(t), d = model.detected(t);
+                assertEquals(100, s + infected + d, 1e-2f);
+                assertTrue(s >= 0 && infected >= 0 && d >= 0);
+            }
+        }
+    }
+
+    @Test
+    public void spreadFollowsTheBorders() {
+        EpidemicModel model = grid(10);
+        model.infect(0, 0.2f);
+        run(model, 120);
+        // Closer territories are further along
+        assertTrue(model.influence(1) > model.influence(2));
+        assertTrue(model.influence(2) > model.influence(99));
+        assertTrue(model.influence(99) > 0);
+    }
+
+    @Test
+    public void aCleanWorldStaysClean() {
+        EpidemicModel model = grid(5);
+        run(model, 300);
+        for (int t = 0; t < 25; t++) {
+            assertEquals(0, model.influence(t), 0);
+            assertEquals(100, model.susceptible(t), 0);
+        }
+    }
+
+    @Test
+    public void territoriesWithoutNeighboursStillSpreadInside() {
+        EpidemicModel model = new EpidemicModel(new float[] {1, 1}, new int[] {0, 0, 0}, new int[0], null);
+        model.infect(0, 0.1f);
+        run(model, 60);
+        assertTrue(model.influence(0) > 10);
+        assertEquals(0, model.influence(1), 0);
+    }
+
+    @Test
+    public void stepsAreFixed() {
+        EpidemicModel model = grid(3);
+        model.infect(4, 0.5f);
+        float before = model.influence(4);
+        // Under one RK4 step of time has built up
+        model.step(0.1f);
+        model.step(0.1f);
+        assertEquals(before, model.influence(4), 0);
+        model.step(0.1f);
+        assertTrue(model.influence(4) != before);
+    }
+
+    @Test
+    public void defaultStepAgreesWithAFineOne() {
+        float[] population = {1, 2};
+        int[] start = {0, 1, 2};
+        int[] neighbours = {1, 0};
+        EpidemicModel coarse = new EpidemicModel(population, start, neighbours, null);
+        EpidemicModel fine = new EpidemicModel(population, start, neighbours, null);
+        fine.stepSeconds = 0.01f;
+        coarse.infect(0, 0.1f);
+        fine.infect(0, 0.1f);
+        run(coarse, 300);
+        run(fine, 300);
+        assertTrue(fine.influence(1) > 5);
+        assertEquals(fine.influence(1), coarse.influence(1), 0.05f);
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class GameRandomTest {
+    private static long[] draw(GameRandom random, int count) {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextLong();
+        }
+        return values;
+    }
+
+    @Test
+    public void sameSeedSameSequence() {
+        assertArrayEquals(draw(new GameRandom(99), 64), draw(new GameRandom(99), 64));
+        assertFalse(Arrays.equals(draw(new GameRandom(99), 64), draw(new GameRandom(100), 64)));
+    }
+
+    @Test
+    public void streamsDoNotDependOnDrawsElsewhere() {
+        GameRandom fresh = new GameRandom(5);
+        GameRandom used = new GameRandom(5);
+        draw(used, 1000);
+        draw(used.stream(2), 1000);
+        assertArrayEquals(draw(fresh.stream(1), 32), draw(used.stream(1), 32));
+        assertEquals(fresh.stream(1).getSeed(), used.stream(1).getSeed());
+    }
+
+    @Test
+    public void streamsDiffer() {
+        GameRandom random = new GameRandom(5);
+        assertFalse(Arrays.equals(draw(random.stream(1), 32), draw(random.stream(2), 32)));
+        assertFalse(Arrays.equals(draw(random, 32), draw(new GameRandom(5).stream(0), 32)));
+    }
+
+    @Test
+    public void splitDependsOnPosition() {
+        GameRandom a = new GameRandom(8);
+        GameRandom b = new GameRandom(8);
+        assertArrayEquals(draw(a.split(), 16), draw(b.split(), 16));
+        assertFalse(Arrays.equals(draw(a.split(), 16), draw(new GameRandom(8).split(), 16)));
+    }
+
+    @Test
+    public void floatsStayInRangeAndSpreadOut() {
+        GameRandom random = new GameRandom(11);
+        int[] buckets = new int[10];
+        int n = 100000;
+        for (int i = 0; i < n; i++) {
+            float f = random.nextFloat();
+            assertTrue(f >= 0 && f < 1);
+            buckets[(int)(f * 10)]++;
+        }
+        for (int count : buckets) {
+            assertEquals(n / 10, count, n / 100);
+        }
+    }
+}
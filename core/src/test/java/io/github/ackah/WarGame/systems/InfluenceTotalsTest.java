@@ -0,0 +1,115 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class InfluenceTotalsTest {
+    // The draw the tree replaces: a linear walk over 25 + influence
+    private static int linearPick(float[] influence, float baseline, float fraction) {
+        double total = 0;
+        for (float value : influence) {
+            total += baseline + value;
+        }
+        double target = fraction * total;
+        for (int i = 0; i < influence.length; i++) {
+            target -= baseline + influence[i];
+            if (target < 0) return i;
+        }
+        return influence.length - 1;
+    }
+
+    @Test
+    public void pickMatchesALinearDraw() {
+        Random random = new Random(3);
+        for (int n : new int[] {1, 2, 6, 37, 256}) {
+            float[] population = new float[n];
+            float[] influence = new float[n];
+            for (int i = 0; i < n; i++) {
+                population[i] = 1 + random.nextInt(1000);
+            }
+            InfluenceTotals totals = new InfluenceTotals(population);
+            for (int round = 0; round < 200; round++) {
+                int region = random.nextInt(n);
+                influence[region] = random.nextInt(5) == 0 ? 0 : random.nextFloat() * 100;
+                totals.set(region, influence[region]);
+                float fraction = random.nextFloat();
+                assertEquals(linearPick(influence, 25f, fraction), totals.pick(25f, fraction));
+            }
+        }
+    }
+
+    @Test
+    public void pickSeesTrackedChanges() {
+        InfluenceTotals totals = new InfluenceTotals(new float[] {1, 1, 1, 1});
+        float[] influence = {0, 0, 100, 0};
+        totals.shift(totals.track(2, 100));
+        // Slots 0 and 1 weigh 25 each out of 200, region 2 holds 125
+        assertEquals(1, totals.pick(25f, 0.2f));
+        assertEquals(2, totals.pick(25f, 0.3f));
+        assertEquals(linearPick(influence, 25f, 0.9f), totals.pick(25f, 0.9f));
+        assertEquals(3, totals.pick(25f, 0.9999f));
+    }
+
+    private static double weightedMean(float[] influence, float[] population, int from, int to) {
+        double people = 0, weighted = 0;
+        for (int i = from; i < to; i++) {
+            people += population[i];
+            weighted += (double)influence[i] * population[i];
+        }
+        return people > 0 ? weighted / people : 0;
+    }
+
+    @Test
+    public void setKeepsGlobalAndRangesCurrent() {
+        Random random = new Random(1);
+        float[] population = new float[50];
+        for (int i = 0; i < population.length; i++) {
+            population[i] = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(5000);
+        }
+        float[] influence = new float[population.length];
+        InfluenceTotals totals = new InfluenceTotals(population);
+        for (int round = 0; round < 2000; round++) {
+            int region = random.nextInt(population.length);
+            influence[region] = random.nextFloat() * 100;
+            totals.set(region, influence[region]);
+            assertEquals(influence[region], totals.get(region), 0);
+            assertEquals(weightedMean(influence, population, 0, population.length), totals.global(), 1e-3);
+            int from = random.nextInt(population.length);
+            int to = from + random.nextInt(population.length + 1 - from);
+            assertEquals(weightedMean(influence, population, from, to), totals.range(from, to), 1e-3);
+        }
+    }
+
+    @Test
+    public void trackedPassesCatchUpOnTheNextRange() {
+        float[] population = {10, 20, 30, 40};
+        InfluenceTotals totals = new InfluenceTotals(population);
+        totals.set(0, 50);
+        float[] influence = {60, 10, 20, 80};
+        double delta = 0;
+        for (int i = 0; i < influence.length; i++) {
+            delta += totals.track(i, influence[i]);
+        }
+        totals.shift(delta);
+        assertEquals(weightedMean(influence, population, 0, 4), totals.global(), 1e-4);
+        assertEquals(weightedMean(influence, population, 1, 3), totals.range(1, 3), 1e-4);
+        // And the tree is live again afterwards
+        totals.set(2, 0);
+        influence[2] = 0;
+        assertEquals(weightedMean(influence, population, 2, 4), totals.range(2, 4), 1e-4);
+    }
+
+    @Test
+    public void refreshTakesEveryValue() {
+        float[] population = {1, 2, 3};
+        InfluenceTotals totals = new InfluenceTotals(population);
+        totals.set(1, 99);
+        float[] loaded = {30, 0, 60};
+        totals.refresh(loaded);
+        assertEquals(0, totals.get(1), 0);
+        assertEquals(weightedMean(loaded, population, 0, 3), totals.global(), 1e-4);
+        assertEquals(0, new InfluenceTotals(new float[0]).global(), 0);
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.github.ackah.aiinfluence.model.GameState;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JournalTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() {
+        file = folder.getRoot().toPath().resolve("run.journal");
+    }
+
+    // Each open and close writes exactly one batch
+    private void logBatch(int region, float value) throws IOException {
+        Journal journal = new Journal(file, 1000);
+        journal.influence(region, value, value / 10);
+        journal.close();
+    }
+
+    private GameState replayed(long from) throws IOException {
+        GameState state = TestStates.continents();
+        state.journalPosition = from;
+        Journal.replay(file, state);
+        return state;
+    }
+
+    @Test
+    public void snapshotPlusJournalRecoversTheRun() throws Exception {
+        Path saveFile = folder.getRoot().toPath().resolve("run.sav");
+        GameState state = TestStates.continents();
+        Simulation simulation = new Simulation(state, SimulationConfig.campaign(), 21);
+        Journal journal = new Journal(file, 5);
+        Autosave autosave = new Autosave(state, saveFile, 2f);
+        simulation.setJournal(journal);
+        autosave.setJournal(journal);
+        for (int second = 0; second < 60; second++) {
+            TestStates.play(simulation, 60, second);
+            autosave.update(1f);
+        }
+        autosave.close();
+        // Everything after the last snapshot is only in the journal
+        TestStates.play(simulation, 1800, 99);
+        // A full interval forces the periodic sync, regions included
+        journal.update(state, 1f);
+        journal.close();
+
+        GameState recovered = SaveSystem.load(saveFile);
+        assertTrue(recovered.clock < state.clock);
+        Journal.replay(file, recovered);
+
+        assertEquals(state.clock, recovered.clock);
+        assertEquals(state.trust, recovered.trust, 0);
+        assertEquals(state.suspicion, recovered.suspicion, 0);
+        assertEquals(state.queryPoints, recovered.queryPoints);
+        assertEquals(state.totalQueries, recovered.totalQueries);
+        assertEquals(state.streak, recovered.streak);
+        assertEquals(state.bestInfluence, recovered.bestInfluence, 0);
+        assertEquals(state.timeSinceLastQuery, recovered.timeSinceLastQuery, 0);
+        assertEquals(state.queryInterval, recovered.queryInterval, 0);
+        assertTrue(state.upgrades.samePurchases(recovered.upgrades));
+        assertEquals(state.currentQuery == null, recovered.currentQuery == null);
+        if (state.currentQuery != null) {
+            assertTrue(state.currentQuery.sameAs(recovered.currentQuery));
+        }
+        assertEquals(state.showingResult, recovered.showingResult);
+        assertEquals(state.resultMessage, recovered.resultMessage);
+        TestStates.assertSameInbox(state.inbox, recovered.inbox);
+        // Passive spread is only logged once a region drifts by half a point
+        for (int i = 0; i < state.regionCount; i++) {
+            assertEquals(state.influence[i], recovered.influence[i], 0.5f);
+        }
+    }
+
+    @Test
+    public void replayStartsAtTheSnapshotPosition() throws IOException {
+        Journal journal = new Journal(file, 1000);
+        journal.influence(0, 10, 0);
+        journal.inboxAdded(0, 1, 50);
+        long snapshot = journal.position();
+        journal.influence(0, 20, 0);
+        journal.inboxAdded(1, 2, 60);
+        long end = journal.position();
+        journal.close();
+
+        GameState state = replayed(snapshot);
+        assertEquals(20, state.influence[0], 0);
+        assertEquals(1, state.inbox.size());
+        assertEquals(1, state.inbox.peekQuery());
+        assertEquals(end, state.journalPosition);
+
+        GameState fromStart = replayed(0);
+        assertEquals(20, fromStart.influence[0], 0);
+        assertEquals(2, fromStart.inbox.size());
+    }
+
+    @Test
+    public void aTornTailIsDroppedAndOverwritten() throws IOException {
+        logBatch(0, 11);
+        logBatch(1, 22);
+        logBatch(2, 33);
+        byte[] data = Files.readAllBytes(file);
+
+        for (int cut = 1; cut <= 7; cut++) {
+            Files.write(file, Arrays.copyOf(data, data.length - cut));
+            GameState state = replayed(0);
+            assertEquals(11, state.influence[0], 0);
+            assertEquals(22, state.influence[1], 0);
+            assertEquals(0, state.influence[2], 0);
+        }
+
+        // Reopening cuts the torn batch off, so new batches are read again
+        logBatch(3, 44);
+        GameState state = replayed(0);
+        assertEquals(22, state.influence[1], 0);
+        assertEquals(0, state.influence[2], 0);
+        assertEquals(44, state.influence[3], 0);
+    }
+
+    @Test
+    public void aCorruptBatchStopsReplay() throws IOException {
+        logBatch(0, 11);
+        int first = (int)Files.size(file);
+        logBatch(1, 22);
+        logBatch(2, 33);
+        byte[] data = Files.readAllBytes(file);
+        // Inside the second batch's events, so only its CRC catches it
+        data[first + 3] ^= 0x40;
+        Files.write(file, data);
+
+        GameState state = replayed(0);
+        assertEquals(11, state.influence[0], 0);
+        assertEquals(0, state.influence[1], 0);
+        assertEquals(0, state.influence[2], 0);
+    }
+
+    @Test
+    public void compactionDropsOnlyWhatTheSnapshotCovers() throws Exception {
+        logBatch(0, 11);
+        logBatch(1, 22);
+        Journal journal = new Journal(file, 1);
+        long snapshot = journal.position();
+        journal.influence(2, 33, 0);
+        long sizeBefore = Files.size(file);
+        journal.compact(snapshot);
+        // Compaction is up to the writer thread; wait for the file to shrink
+        for (int wait = 0; wait < 200 && Files.size(file) >= sizeBefore; wait++) {
+            Thread.sleep(10);
+        }
+        journal.close();
+        assertTrue(Files.size(file) < sizeBefore);
+
+        GameState state = replayed(snapshot);
+        assertEquals(0, state.influence[0], 0);
+        assertEquals(0, state.influence[1], 0);
+        assertEquals(33, state.influence[2], 0);
+
+        // Positions carry on from before the compaction
+        Journal reopened = new Journal(file, 1000);
+        assertEquals(state.journalPosition, reopened.position());
+        reopened.influence(3, 44, 0);
+        reopened.close();
+        assertEquals(44, replayed(snapshot).influence[3], 0);
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import io.github.ackah.aiinfluence.Upgrade;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.Test;
+
+public class QueryDatabaseTest {
+    private static String query(String type, String question, String extra) {
+        return "{\"type\": \"" + type + "\", \"question\": \"" + question + "\", "
+            + "\"responses\": [\"yes\", \"maybe\", \"no\"], "
+            + "\"trust\": [1, 2, 3], \"influence\": [4, 5, 6], \"suspicion\": [7, 8, -9]" + extra + "}\n";
+    }
+
+    // 0 and 1 anywhere, 2 only in Europe, 3 needs the first upgrade, 4 is another type
+    private static QueryDatabase sample() throws IOException {
+        String upgrade = Upgrade.getAllUpgrades().get(0).name;
+        QueryDatabase db = new QueryDatabase();
+        db.load(new StringReader(
+            query("political", "Q0", "")
+            + query("political", "Q1", "")
+            + "\n"
+            + query("political", "Q2", ", \"regions\": [\"Europe\"]")
+            + query("political", "Q3", ", \"requires\": [\"" + upgrade + "\"]")
+            + query("economic", "Q4", "")));
+        return db;
+    }
+
+    // How often each query came up in many picks
+    private static int[] picks(QueryDatabase db, int regionKey, long owned, int type) {
+        int[] counts = new int[db.size() + 1];
+        GameRandom random = new GameRandom(1);
+        for (int i = 0; i < 5000; i++) {
+            counts[db.pick(regionKey, owned, type, random) + 1]++;
+        }
+        return counts;
+    }
+
+    @Test
+    public void contentIsLoadedIntoTables() throws IOException {
+        QueryDatabase db = sample();
+        assertEquals(5, db.size());
+        assertEquals(2, db.typeCount());
+        assertEquals("political", db.typeName(db.typeOf(0)));
+        assertEquals("economic", db.typeName(db.typeOf(4)));
+        assertEquals("Q3", db.question(3));
+        assertEquals("maybe", db.response(3, 1));
+        assertEquals(3, db.trustImpact(1, 2), 0);
+        assertEquals(5, db.influenceImpact(1, 1), 0);
+        assertEquals(-9, db.suspicionImpact(1, 2), 0);
+    }
+
+    @Test
+    public void picksRespectRegionUpgradesAndType() throws IOException {
+        QueryDatabase db = sample();
+        int europe = db.regionKey("Europe");
+        assertEquals(QueryDatabase.ANY_REGION, db.regionKey("Atlantis"));
+
+        int[] anywhere = picks(db, QueryDatabase.ANY_REGION, 0, QueryDatabase.ANY_TYPE);
+        assertEquals(0, anywhere[0]);
+        assertTrue(anywhere[1] > 0 && anywhere[2] > 0 && anywhere[5] > 0);
+        assertEquals(0, anywhere[3]);
+        assertEquals(0, anywhere[4]);
+
+        int[] inEurope = picks(db, europe, 0, QueryDatabase.ANY_TYPE);
+        assertTrue(inEurope[3] > 0);
+        assertEquals(0, inEurope[4]);
+
+        int[] upgraded = picks(db, europe, 1L, QueryDatabase.ANY_TYPE);
+        for (int q = 1; q <= db.size(); q++) {
+            // Five eligible queries picked evenly
+            assertEquals(1000, upgraded[q], 150);
+        }
+
+        int[] economic = picks(db, europe, 1L, db.typeOf(4));
+        assertEquals(5000, economic[5]);
+    }
+
+    @Test
+    public void noEligibleQueryGivesMinusOne() throws IOException {
+        QueryDatabase db = new QueryDatabase();
+        db.load(new StringReader(query("political", "Q0", "")));
+        assertEquals(-1, db.pick(QueryDatabase.ANY_REGION, 0, db.typeCount(), new GameRandom(1)));
+    }
+
+    @Test
+    public void badLinesReportTheirNumber() {
+        QueryDatabase db = new QueryDatabase();
+        try {
+            db.load(new StringReader(query("political", "Q0", "") + "{\"type\": \"political\", \"question\": \"Q1\"}\n"));
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("line 2"));
+        }
+        try {
+            db.load(new StringReader(query("political", "Q0", ", \"requires\": [\"No Such Upgrade\"]")));
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("No Such Upgrade"));
+        }
+    }
+
+    @Test
+    public void shippedContentLoads() {
+        QueryDatabase db = QueryDatabase.getDefault();
+        assertTrue(db.size() > 0);
+        List<Upgrade> upgrades = Upgrade.getAllUpgrades();
+        long all = upgrades.size() >= 64 ? -1L : (1L << upgrades.size()) - 1;
+        for (String continent : TestStates.CONTINENTS) {
+            int key = db.regionKey(continent);
+            assertFalse(db.pick(key, all, QueryDatabase.ANY_TYPE, new GameRandom(2)) < 0);
+        }
+    }
+}
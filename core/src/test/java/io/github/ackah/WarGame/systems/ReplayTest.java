@@ -0,0 +1,74 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.github.ackah.aiinfluence.model.GameState;
+import java.util.Random;
+import org.junit.Test;
+
+public class ReplayTest {
+    // Plays a run through the loop with uneven frames, a speed change and
+    // direct influence edits, recording it from the first tick
+    private static byte[] record(GameState state, SimulationConfig config, long seed) {
+        SimulationLoop loop = new SimulationLoop(new Simulation(state, config, seed));
+        ReplayRecorder recorder = loop.startRecording();
+        Policy policy = Policy.greedy(70);
+        GameRandom policyRandom = new GameRandom(seed + 1);
+        Random frames = new Random(seed);
+        for (int frame = 0; frame < 4000 && !state.won && !state.lost; frame++) {
+            if (frame == 2000) loop.setSpeed(8);
+            policy.act(state, loop.getPendingActions(), policyRandom);
+            if (frames.nextInt(40) == 0) {
+                loop.getPendingActions().add(Actions.APPLY_INFLUENCE, frames.nextInt(state.regionCount), frames.nextFloat() * 4 - 1);
+            }
+            if (frames.nextInt(200) == 0) {
+                loop.getPendingActions().add(Actions.SELECT_REGION, frames.nextInt(state.regionCount + 2) - 1);
+            }
+            loop.advance(frames.nextFloat() * 0.05f);
+        }
+        recorder.finish(loop.getTicks());
+        return recorder.toByteArray();
+    }
+
+    @Test
+    public void playbackReachesTheRecordedState() {
+        GameState recorded = TestStates.continents();
+        byte[] replay = record(recorded, SimulationConfig.campaign(), 12);
+        assertTrue(recorded.totalQueries > 0);
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        TestStates.assertSameState(recorded, player.playToEnd());
+        assertTrue(player.isFinished());
+    }
+
+    @Test
+    public void steppedPlaybackMatchesPlayingToTheEnd() {
+        byte[] replay = record(TestStates.continents(), SimulationConfig.campaign(), 4);
+        ReplayPlayer stepped = new ReplayPlayer(replay);
+        while (!stepped.isFinished()) {
+            assertTrue(stepped.advance(37) > 0);
+        }
+        ReplayPlayer whole = new ReplayPlayer(replay);
+        TestStates.assertSameState(whole.playToEnd(), stepped.getState());
+        assertEquals(whole.getTick(), stepped.getTick());
+        assertEquals(0, stepped.advance(10));
+    }
+
+    @Test
+    public void configTravelsWithTheReplay() {
+        GameState recorded = TestStates.continents();
+        byte[] replay = record(recorded, SimulationConfig.sandbox(), 9);
+        GameState played = new ReplayPlayer(replay).playToEnd();
+        assertEquals(0, played.totalQueries);
+        TestStates.assertSameState(recorded, played);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void otherVersionsAreRejected() {
+        byte[] replay = record(TestStates.continents(), SimulationConfig.campaign(), 1);
+        // The version varint follows the four magic bytes
+        replay[4]++;
+        new ReplayPlayer(replay);
+    }
+}
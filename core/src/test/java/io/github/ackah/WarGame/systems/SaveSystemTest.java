@@ -0,0 +1,122 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.github.ackah.aiinfluence.model.GameState;
+import io.github.ackah.aiinfluence.utils.BinaryWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SaveSystemTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] fullSave(GameState state) {
+        BinaryWriter out = new BinaryWriter();
+        SaveSystem.writeHeader(state, out);
+        SaveSystem.writeChunk(null, state, out, new BinaryWriter());
+        return out.toByteArray();
+    }
+
+    // A run far enough in to have queries, upgrades and an inbox
+    private static Simulation playedRun(long seed) {
+        GameState state = TestStates.continents();
+        Simulation simulation = new Simulation(state, SimulationConfig.campaign(), seed);
+        TestStates.play(simulation, 6000, seed);
+        return simulation;
+    }
+
+    @Test
+    public void fullSaveRoundTrips() {
+        GameState state = playedRun(3).getState();
+        assertTrue(state.totalQueries > 0);
+        assertFalse(state.upgrades.getPurchased().isEmpty());
+        TestStates.assertSameState(state, SaveSystem.read(fullSave(state)));
+    }
+
+    @Test
+    public void chunksOnlyCarryChangesAndApplyInOrder() {
+        Simulation simulation = playedRun(5);
+        GameState state = simulation.getState();
+        GameState previous = new GameState(state.regionNames, state.population);
+        state.copyTo(previous);
+
+        BinaryWriter out = new BinaryWriter();
+        BinaryWriter scratch = new BinaryWriter();
+        SaveSystem.writeHeader(state, out);
+        SaveSystem.writeChunk(null, state, out, scratch);
+        int fullSize = out.size();
+        assertFalse(SaveSystem.writeChunk(previous, state, out, scratch));
+        assertEquals(fullSize, out.size());
+
+        for (int round = 0; round < 5; round++) {
+            TestStates.play(simulation, 300, 100 + round);
+            int before = out.size();
+            assertTrue(SaveSystem.writeChunk(previous, state, out, scratch));
+            assertTrue(out.size() - before < fullSize);
+            state.copyTo(previous);
+        }
+        TestStates.assertSameState(state, SaveSystem.read(out.toByteArray()));
+    }
+
+    @Test
+    public void aTornLastChunkIsIgnored() {
+        Simulation simulation = playedRun(6);
+        GameState state = simulation.getState();
+        GameState saved = new GameState(state.regionNames, state.population);
+        state.copyTo(saved);
+
+        BinaryWriter out = new BinaryWriter();
+        BinaryWriter scratch = new BinaryWriter();
+        SaveSystem.writeHeader(state, out);
+        SaveSystem.writeChunk(null, state, out, scratch);
+        int intact = out.size();
+        TestStates.play(simulation, 600, 7);
+        assertTrue(SaveSystem.writeChunk(saved, state, out, scratch));
+
+        byte[] data = out.toByteArray();
+        for (int cut = intact; cut < data.length; cut += Math.max(1, (data.length - intact) / 7)) {
+            TestStates.assertSameState(saved, SaveSystem.read(Arrays.copyOf(data, cut)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void otherVersionsAreRejected() {
+        byte[] data = fullSave(TestStates.continents());
+        // The version varint follows the four magic bytes
+        data[4]++;
+        SaveSystem.read(data);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void otherFilesAreRejected() {
+        SaveSystem.read(new byte[] {'P', 'K', 3, 4, 0, 0, 0, 0});
+    }
+
+    @Test
+    public void autosaveAppendsAndRewritesOnDisk() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("saves/run.sav");
+        GameState state = TestStates.continents();
+        Simulation simulation = new Simulation(state, SimulationConfig.campaign(), 8);
+        Autosave autosave = new Autosave(state, file, 1f);
+        for (int second = 0; second < 120; second++) {
+            TestStates.play(simulation, 60, second);
+            autosave.update(1f);
+            if (second % 30 == 0) {
+                // Let the worker catch up now and then, so appends happen
+                Thread.sleep(20);
+            }
+        }
+        autosave.close();
+
+        assertTrue(Files.exists(file));
+        assertFalse(Files.exists(file.resolveSibling("run.sav.tmp")));
+        TestStates.assertSameState(state, SaveSystem.load(file));
+    }
+}
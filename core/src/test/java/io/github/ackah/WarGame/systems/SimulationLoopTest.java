@@ -0,0 +1,89 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.github.ackah.aiinfluence.model.GameState;
+import org.junit.Test;
+
+public class SimulationLoopTest {
+    private static final float FRAME = 1 / 60f;
+
+    // Answers whatever is on screen once per frame, the way the screens do
+    private static void answer(SimulationLoop loop) {
+        GameState state = loop.getSimulation().getState();
+        if (state.showingResult) {
+            loop.getPendingActions().add(Actions.DISMISS_RESULT);
+        } else if (state.currentQuery != null) {
+            loop.getPendingActions().add(Actions.RESPOND_QUERY, (int)(loop.getTicks() % 3));
+        }
+    }
+
+    @Test
+    public void fastForwardPlaysTheSameRun() {
+        long target = 60L * 60 * 30;
+        GameState fast = TestStates.continents();
+        SimulationLoop fastLoop = new SimulationLoop(new Simulation(fast, SimulationConfig.campaign(), 7));
+        fastLoop.setBudget(1f);
+        int frames = 0;
+        while (fastLoop.getTicks() < target) {
+            // Fast-forward drops to 1x for each query; the player turns it back up
+            if (fastLoop.getSpeed() < 100) fastLoop.setSpeed(100);
+            answer(fastLoop);
+            fastLoop.advance(FRAME);
+            frames++;
+        }
+
+        GameState slow = TestStates.continents();
+        SimulationLoop slowLoop = new SimulationLoop(new Simulation(slow, SimulationConfig.campaign(), 7));
+        while (slowLoop.getTicks() < fastLoop.getTicks()) {
+            answer(slowLoop);
+            slowLoop.advance(FRAME);
+        }
+        assertTrue(frames < target / 5);
+        assertTrue(fast.totalQueries > 10);
+        TestStates.assertSameState(slow, fast);
+    }
+
+    @Test
+    public void framesAreCutIntoWholeTicks() {
+        SimulationLoop loop = new SimulationLoop(new Simulation(TestStates.continents(), SimulationConfig.sandbox(), 1));
+        assertEquals(3, loop.advance(0.05f + 1e-4f));
+        assertEquals(0.006f, loop.getAlpha(), 1e-3f);
+        assertEquals(0, loop.advance(0.001f));
+        // A stall only ever catches up a quarter of a second
+        assertEquals(15, loop.advance(10f));
+        assertEquals(18, loop.getTicks());
+    }
+
+    @Test
+    public void anExhaustedBudgetLowersTheEffectiveSpeed() {
+        SimulationLoop loop = new SimulationLoop(new Simulation(TestStates.continents(), SimulationConfig.sandbox(), 2));
+        loop.setSpeed(100);
+        loop.setBudget(0);
+        for (int frame = 0; frame < 60; frame++) {
+            // At least one tick always runs, the backlog is dropped
+            assertEquals(1, loop.advance(FRAME));
+        }
+        assertEquals(1, loop.getEffectiveSpeed(), 0.05f);
+
+        loop.setBudget(1f);
+        for (int frame = 0; frame < 60; frame++) {
+            loop.advance(FRAME);
+        }
+        assertEquals(100, loop.getEffectiveSpeed(), 1f);
+    }
+
+    @Test
+    public void queriesDropBackToRealTime() {
+        GameState state = TestStates.continents();
+        SimulationLoop loop = new SimulationLoop(new Simulation(state, SimulationConfig.campaign(), 3));
+        loop.setSpeed(100);
+        loop.setBudget(1f);
+        while (state.currentQuery == null) {
+            loop.advance(FRAME);
+        }
+        assertEquals(1, loop.getSpeed(), 0);
+        assertEquals(1, loop.advance(FRAME));
+    }
+}
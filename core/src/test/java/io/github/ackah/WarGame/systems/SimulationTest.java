@@ -0,0 +1,138 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.badlogic.gdx.Gdx;
+import io.github.ackah.aiinfluence.model.AITrait;
+import io.github.ackah.aiinfluence.model.GameState;
+import io.github.ackah.aiinfluence.model.Modifiers;
+import org.junit.Test;
+
+public class SimulationTest {
+    private static void step(Simulation simulation, int type, int target, float amount) {
+        Actions actions = new Actions();
+        actions.add(type, target, amount);
+        simulation.step(1 / 60f, actions);
+    }
+
+    @Test
+    public void runsWithoutLibgdx() {
+        assertNull(Gdx.files);
+        GameState state = TestStates.continents();
+        Simulation simulation = new Simulation(state, SimulationConfig.campaign(), 1);
+        TestStates.play(simulation, 600, 1);
+        assertEquals(10f, state.gameTime, 1e-3f);
+    }
+
+    @Test
+    public void actionsAreValidated() {
+        // No neighbours, so nothing diffuses into the region between steps
+        GameState state = new GameState(TestStates.CONTINENTS, TestStates.POPULATION);
+        Simulation simulation = new Simulation(state, SimulationConfig.sandbox(), 1);
+
+        step(simulation, Actions.SELECT_REGION, 3, 0);
+        assertEquals(3, state.selectedRegion);
+        step(simulation, Actions.SELECT_REGION, state.regionCount, 0);
+        assertEquals(-1, state.selectedRegion);
+
+        step(simulation, Actions.APPLY_INFLUENCE, 2, 250);
+        assertEquals(100f, state.influence[2], 0);
+        step(simulation, Actions.APPLY_INFLUENCE, 2, -500);
+        assertEquals(0f, state.influence[2], 0);
+        step(simulation, Actions.APPLY_INFLUENCE, -1, 50);
+
+        step(simulation, Actions.SET_MENU_OPEN, 1, 0);
+        assertTrue(state.menuOpen);
+        step(simulation, Actions.SET_MENU_OPEN, 0, 0);
+        assertFalse(state.menuOpen);
+    }
+
+    @Test
+    public void globalInfluenceIsPopulationWeighted() {
+        GameState state = TestStates.continents();
+        Simulation simulation = new Simulation(state, SimulationConfig.sandbox(), 1);
+        // Asia alone holds most of the people
+        step(simulation, Actions.APPLY_INFLUENCE, 4, 100);
+
+        double people = 0;
+        double weighted = 0;
+        for (int i = 0; i < state.regionCount; i++) {
+            people += state.population[i];
+            weighted += state.influence[i] * state.population[i];
+        }
+        assertEquals(weighted / people, state.globalInfluence, 1e-3);
+        assertTrue(state.globalInfluence > 50);
+    }
+
+    @Test
+    public void reachingTheThresholdWins() {
+        GameState state = TestStates.continents();
+        Simulation simulation = new Simulation(state, SimulationConfig.sandbox(), 1);
+        Actions actions = new Actions();
+        for (int i = 0; i < state.regionCount; i++) {
+            actions.add(Actions.APPLY_INFLUENCE, i, 100);
+        }
+        simulation.step(1 / 60f, actions);
+        assertTrue(state.won);
+        assertFalse(state.lost);
+    }
+
+    @Test
+    public void expiredQueriesAreChargedTogether() {
+        GameState state = TestStates.continents();
+        Simulation simulation = new Simulation(state, SimulationConfig.campaign(), 1);
+        // With the menu open nothing is presented, so all three wait out their time
+        state.menuOpen = true;
+        state.inbox.add(0, 1, 0.05f);
+        state.inbox.add(1, 2, 0.05f);
+        state.inbox.add(2, 3, 0.05f);
+        state.inbox.add(3, 4, 60f);
+        for (int t = 0; t < 6; t++) {
+            simulation.step(1 / 60f, new Actions());
+        }
+        assertEquals(1, state.inbox.size());
+        assertEquals(35f, state.trust, 0.5f);
+        assertEquals(30f, state.suspicion, 0.5f);
+    }
+
+    @Test
+    public void rolledTraitsNeverConflict() {
+        GameRandom random = new GameRandom(6);
+        for (int run = 0; run < 1000; run++) {
+            int count = 2 + run % 3;
+            int traits = Simulation.rollTraits(random, count);
+            assertEquals(count, Integer.bitCount(traits));
+            for (AITrait trait : AITrait.values()) {
+                if ((traits & trait.bit()) != 0) {
+                    assertFalse(trait.conflictsWith(traits));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void traitsArePartOfTheSeed() {
+        GameState a = TestStates.continents();
+        GameState b = TestStates.continents();
+        new Simulation(a, SimulationConfig.campaign(), 17).step(1 / 60f, new Actions());
+        new Simulation(b, SimulationConfig.campaign(), 17).step(1 / 60f, new Actions());
+        assertTrue(a.traits != 0);
+        assertEquals(a.traits, b.traits);
+        for (int stat = 0; stat < Modifiers.COUNT; stat++) {
+            assertEquals(a.modifiers.apply(stat, 1), b.modifiers.apply(stat, 1), 0);
+        }
+    }
+
+    @Test
+    public void sameSeedPlaysTheSameRun() {
+        GameState a = TestStates.continents();
+        GameState b = TestStates.continents();
+        TestStates.play(new Simulation(a, SimulationConfig.campaign(), 42), 3600, 9);
+        TestStates.play(new Simulation(b, SimulationConfig.campaign(), 42), 3600, 9);
+        assertTrue(a.totalQueries > 0);
+        TestStates.assertSameState(a, b);
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import io.github.ackah.aiinfluence.model.GameState;
+import org.junit.Test;
+
+public class SimulationTimersTest {
+    private static final float TICK = 1 / 60f;
+
+    // Steps with nothing to do until a query is waiting or shown; returns the game time it took
+    private static float untilQuery(Simulation simulation) {
+        GameState state = simulation.getState();
+        float start = state.gameTime;
+        Actions none = new Actions();
+        while (state.inbox.isEmpty() && state.currentQuery == null) {
+            simulation.step(TICK, none);
+            if (state.gameTime - start > 600) throw new AssertionError("no query spawned");
+        }
+        return state.gameTime - start;
+    }
+
+    @Test
+    public void firstQuerySpawnsAfterTheInterval() {
+        GameState state = TestStates.continents();
+        Simulation simulation = new Simulation(state, SimulationConfig.campaign(), 1);
+        assertEquals(15f, untilQuery(simulation), TICK);
+    }
+
+    @Test
+    public void resumedRunsKeepTheirDeadlines() {
+        GameState state = TestStates.continents();
+        state.setClock(90_000_000L);
+        state.timeSinceLastQuery = 11f;
+        state.queryInterval = 15f;
+        Simulation simulation = new Simulation(state, SimulationConfig.campaign(), 2);
+        // Rebuilt from the saved elapsed time, not started over
+        assertEquals(4f, untilQuery(simulation), TICK);
+    }
+
+    @Test
+    public void unansweredQueriesTimeOut() {
+        GameState state = TestStates.continents();
+        Simulation simulation = new Simulation(state, SimulationConfig.campaign(), 3);
+        untilQuery(simulation);
+        Actions none = new Actions();
+        simulation.step(TICK, none);
+        assertNotNull(state.currentQuery);
+        float shown = state.gameTime;
+        while (state.currentQuery != null) {
+            simulation.step(TICK, none);
+        }
+        assertEquals(SimulationConfig.campaign().queryTimeLimit, state.gameTime - shown, 2 * TICK);
+        assertEquals(0, state.queryTimer, 0);
+        assertNull(state.currentQuery);
+    }
+
+    @Test
+    public void theClockCountsWholeMicroseconds() {
+        GameState state = TestStates.continents();
+        Simulation simulation = new Simulation(state, SimulationConfig.sandbox(), 4);
+        Actions none = new Actions();
+        int ticks = 60 * 60 * 60;
+        for (int t = 0; t < ticks; t++) {
+            simulation.step(TICK, none);
+        }
+        // An hour of float adds would be off by far more than a tick
+        assertEquals(ticks * Math.round(TICK * 1e6), state.clock);
+        assertEquals(state.clock / 1e6, state.gameTime, 1e-3);
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class SpreadThreadTest {
+    private static final int TERRITORIES = 4;
+
+    // Territory t reads ticks + t, so every snapshot can be checked on its own
+    private static class CountingModel implements SpreadModel {
+        volatile boolean failing = false;
+        long ticks = 0;
+
+        @Override
+        public void step(float dt) {
+            if (failing) throw new IllegalStateException("step failed on purpose");
+            ticks++;
+        }
+
+        @Override
+        public float influence(int territory) {
+            return ticks + territory;
+        }
+
+        @Override
+        public void infect(int territory, float fraction) {
+            ticks += 1000;
+        }
+    }
+
+    private SpreadThread thread;
+
+    @After
+    public void tearDown() {
+        if (thread != null) thread.stop();
+    }
+
+    private SpreadThread.Snapshot waitForTick(long tick) throws InterruptedException {
+        for (int wait = 0; wait < 500; wait++) {
+            SpreadThread.Snapshot snapshot = thread.latest();
+            if (snapshot.tick >= tick) return snapshot;
+            Thread.sleep(5);
+        }
+        throw new AssertionError("stuck before tick " + tick);
+    }
+
+    @Test
+    public void snapshotsAreWholeAndMoveForward() throws InterruptedException {
+        thread = new SpreadThread(new CountingModel(), TERRITORIES, 1 / 200f);
+        long last = -1;
+        for (int read = 0; read < 40; read++) {
+            SpreadThread.Snapshot snapshot = thread.latest();
+            assertTrue(snapshot.tick >= last);
+            last = snapshot.tick;
+            float[] held = snapshot.current.clone();
+            // Several ticks publish while this one is held; none may touch it
+            Thread.sleep(10);
+            assertArrayEquals(held, snapshot.current, 0);
+            if (snapshot.tick > 0) {
+                for (int t = 0; t < TERRITORIES; t++) {
+                    assertEquals(snapshot.tick + t, snapshot.current[t], 0);
+                    assertEquals(1, snapshot.current[t] - snapshot.previous[t], 0);
+                    assertEquals(snapshot.current[t] - 0.5f, snapshot.influence(t, 0.5f), 0);
+                }
+            }
+            float alpha = thread.alpha(snapshot);
+            assertTrue(alpha >= 0 && alpha <= 1);
+        }
+        assertTrue(last > 0);
+    }
+
+    @Test
+    public void aFailedTaskKeepsTheModel() throws InterruptedException {
+        thread = new SpreadThread(new CountingModel(), TERRITORIES, 1 / 200f);
+        thread.post(m -> {
+            throw new OutOfMemoryError("task failed on purpose");
+        });
+        thread.infect(0, 0.5f);
+        // The infect after the failure still ran on the same model
+        for (int wait = 0; wait < 500 && thread.latest().current[0] < 1000; wait++) {
+            Thread.sleep(5);
+        }
+        SpreadThread.Snapshot snapshot = thread.latest();
+        assertTrue(snapshot.current[0] >= 1000 + snapshot.tick);
+        assertFalse(snapshot.devices);
+    }
+
+    @Test
+    public void failingTicksLeaveTheLastGoodSnapshot() throws InterruptedException {
+        CountingModel model = new CountingModel();
+        thread = new SpreadThread(model, TERRITORIES, 1 / 200f);
+        waitForTick(3);
+        model.failing = true;
+        Thread.sleep(20);
+        long stuck = thread.latest().tick;
+        Thread.sleep(50);
+        assertEquals(stuck, thread.latest().tick);
+        assertEquals(stuck, thread.latest().current[0], 0);
+
+        model.failing = false;
+        waitForTick(stuck + 3);
+    }
+
+    @Test
+    public void tasksCanSwapTheModel() throws InterruptedException {
+        thread = new SpreadThread(new CountingModel(), TERRITORIES, 1 / 200f);
+        DeviceSimulation devices = new DeviceSimulation(new float[] {1, 1, 1, 1}, 4000, 1);
+        devices.infect(2, 1);
+        thread.post(m -> devices);
+        for (int wait = 0; wait < 500 && !thread.latest().devices; wait++) {
+            Thread.sleep(5);
+        }
+        SpreadThread.Snapshot snapshot = thread.latest();
+        assertTrue(snapshot.devices);
+        assertEquals(4000, snapshot.deviceCount);
+        assertTrue(snapshot.infectedDevices > 0);
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.ackah.aiinfluence.systems;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.github.ackah.aiinfluence.model.GameState;
+import io.github.ackah.aiinfluence.model.QueryInbox;
+
+// Shared fixtures for the simulation tests
+final class TestStates {
+    static final String[] CONTINENTS = {
+        "North America", "South America", "Africa", "Europe", "Asia", "Oceania"
+    };
+    static final float[] POPULATION = {579f, 422f, 1340f, 746f, 4641f, 42f};
+
+    private TestStates() {}
+
+    // The campaign continents, each bordering the next around a ring so
+    // diffusion has something to do
+    static GameState continents() {
+        GameState state = new GameState(CONTINENTS.clone(), POPULATION.clone());
+        int n = state.regionCount;
+        state.neighbours = new int[n * 2];
+        state.neighbourWeights = new float[n * 2];
+        for (int i = 0; i < n; i++) {
+            state.neighbourStart[i + 1] = (i + 1) * 2;
+            state.neighbours[i * 2] = (i + n - 1) % n;
+            state.neighbours[i * 2 + 1] = (i + 1) % n;
+            state.neighbourWeights[i * 2] = 0.5f + i * 0.1f;
+            state.neighbourWeights[i * 2 + 1] = 1f;
+        }
+        return state;
+    }
+
+    // Plays ticks of 1/60s with the greedy policy choosing from its own seed
+    static void play(Simulation simulation, int ticks, long seed) {
+        Policy policy = Policy.greedy(70);
+        GameRandom random = new GameRandom(seed);
+        Actions actions = new Actions();
+        for (int t = 0; t < ticks; t++) {
+            actions.clear();
+            policy.act(simulation.getState(), actions, random);
+            simulation.step(1 / 60f, actions);
+        }
+    }
+
+    // Everything a save or a replay has to bring back; the journal position
+    // depends on where the state came from and is left out
+    static void assertSameState(GameState expected, GameState actual) {
+        assertArrayEquals(expected.regionNames, actual.regionNames);
+        assertArrayEquals(expected.population, actual.population, 0);
+        assertArrayEquals(expected.neighbourStart, actual.neighbourStart);
+        assertArrayEquals(expected.neighbours, actual.neighbours);
+        assertArrayEquals(expected.neighbourWeights, actual.neighbourWeights, 0);
+        assertArrayEquals(expected.influence, actual.influence, 0);
+        assertArrayEquals(expected.regionSuspicion, actual.regionSuspicion, 0);
+
+        assertEquals(expected.globalInfluence, actual.globalInfluence, 0);
+        assertEquals(expected.trust, actual.trust, 0);
+        assertEquals(expected.suspicion, actual.suspicion, 0);
+        assertEquals(expected.queryPoints, actual.queryPoints);
+        assertEquals(expected.totalQueries, actual.totalQueries);
+        assertEquals(expected.clock, actual.clock);
+        assertEquals(expected.gameTime, actual.gameTime, 0);
+        assertEquals(expected.streak, actual.streak);
+        assertEquals(expected.bestInfluence, actual.bestInfluence, 0);
+        assertTrue(expected.upgrades.samePurchases(actual.upgrades));
+        assertEquals(expected.traits, actual.traits);
+
+        if (expected.currentQuery == null) {
+            assertEquals(null, actual.currentQuery);
+        } else {
+            assertTrue(expected.currentQuery.sameAs(actual.currentQuery));
+        }
+        assertEquals(expected.queryRegion, actual.queryRegion);
+        assertEquals(expected.queryTimer, actual.queryTimer, 0);
+        assertEquals(expected.timeSinceLastQuery, actual.timeSinceLastQuery, 0);
+        assertEquals(expected.queryInterval, actual.queryInterval, 0);
+        assertEquals(expected.showingResult, actual.showingResult);
+        assertEquals(expected.resultMessage, actual.resultMessage);
+        assertSameInbox(expected.inbox, actual.inbox);
+
+        assertEquals(expected.selectedRegion, actual.selectedRegion);
+        assertEquals(expected.menuOpen, actual.menuOpen);
+        assertEquals(expected.won, actual.won);
+        assertEquals(expected.lost, actual.lost);
+    }
+
+    static void assertSameInbox(QueryInbox expected, QueryInbox actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.query(i), actual.query(i));
+            assertEquals(expected.region(i), actual.region(i));
+            assertEquals(expected.deadline(i), actual.deadline(i), 0);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.ackah.aiinfluence.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class FenwickTreeTest {
+    private static double sum(double[] values, int from, int to) {
+        double total = 0;
+        for (int i = from; i < to; i++) {
+            total += values[i];
+        }
+        return total;
+    }
+
+    @Test
+    public void rangesMatchPlainSums() {
+        Random random = new Random(1);
+        for (int n : new int[] {1, 2, 7, 64, 1000}) {
+            FenwickTree tree = new FenwickTree(n);
+            double[] values = new double[n];
+            for (int round = 0; round < 500; round++) {
+                int i = random.nextInt(n);
+                double delta = random.nextDouble() * 10 - 5;
+                values[i] += delta;
+                tree.add(i, delta);
+                int from = random.nextInt(n + 1);
+                int to = from + random.nextInt(n + 1 - from);
+                assertEquals(sum(values, from, to), tree.sum(from, to), 1e-9);
+            }
+            assertEquals(sum(values, 0, n), tree.prefix(n), 1e-9);
+        }
+    }
+
+    @Test
+    public void buildMatchesAdding() {
+        Random random = new Random(2);
+        double[] values = new double[333];
+        FenwickTree added = new FenwickTree(values.length);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble();
+            added.add(i, values[i]);
+        }
+        FenwickTree built = new FenwickTree(values.length);
+        built.build(values);
+        for (int end = 0; end <= values.length; end++) {
+            assertEquals(added.prefix(end), built.prefix(end), 1e-9);
+        }
+    }
+
+    @Test
+    public void findWalksToThePassingSlot() {
+        Random random = new Random(3);
+        for (int n : new int[] {1, 5, 8, 100}) {
+            double[] values = new double[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = random.nextInt(4) == 0 ? 0 : random.nextDouble() * 10;
+            }
+            FenwickTree tree = new FenwickTree(n);
+            tree.build(values);
+            double pad = 0.5;
+            for (int draw = 0; draw < 200; draw++) {
+                double target = random.nextDouble() * (sum(values, 0, n) + pad * n);
+                int expected = 0;
+                double left = target;
+                while (expected < n && left >= values[expected] + pad) {
+                    left -= values[expected] + pad;
+                    expected++;
+                }
+                assertEquals(expected, tree.find(target, pad));
+            }
+            // Past the end finds nothing
+            assertEquals(n, tree.find(sum(values, 0, n) + pad * n + 1, pad));
+        }
+    }
+}
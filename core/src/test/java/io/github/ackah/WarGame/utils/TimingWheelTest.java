@@ -0,0 +1,144 @@
+package io.github.ackah.aiinfluence.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TimingWheelTest {
+    // Records each timer's arg with the tick it fired on
+    private static class Recorder implements TimingWheel.Listener {
+        final TimingWheel wheel;
+        final IntArray args = new IntArray();
+        final LongArray ticks = new LongArray();
+
+        Recorder(TimingWheel wheel) {
+            this.wheel = wheel;
+        }
+
+        @Override
+        public void fire(int type, int arg) {
+            args.add(arg);
+            ticks.add(wheel.now());
+        }
+    }
+
+    @Test
+    public void timersCascadeDownEveryLevel() {
+        TimingWheel wheel = new TimingWheel(0);
+        // Level 0, 1, 2 and 3, and one past the range the wheel can tell apart
+        long[] due = {5, 100, 5000, 300000, 20000000};
+        for (int i = 0; i < due.length; i++) {
+            wheel.schedule(due[i], 0, i);
+        }
+
+        Recorder recorder = new Recorder(wheel);
+        wheel.advance(due[due.length - 1], recorder);
+
+        assertEquals(due.length, recorder.args.size);
+        for (int i = 0; i < due.length; i++) {
+            assertEquals(i, recorder.args.get(i));
+            assertEquals(due[i], recorder.ticks.get(i));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void cascadesAcrossLevelBoundaryFromOddStart() {
+        long start = (1L << 24) - 3;
+        TimingWheel wheel = new TimingWheel(start);
+        wheel.schedule(start + 4, 0, 0);
+        wheel.schedule(start + 64 * 64 + 1, 0, 1);
+
+        Recorder recorder = new Recorder(wheel);
+        for (long tick = start + 1; tick <= start + 64 * 64 + 1; tick++) {
+            wheel.advance(tick, recorder);
+        }
+        assertEquals(2, recorder.args.size);
+        assertEquals(start + 4, recorder.ticks.get(0));
+        assertEquals(start + 64 * 64 + 1, recorder.ticks.get(1));
+    }
+
+    @Test
+    public void sameTickFiresInScheduleOrder() {
+        TimingWheel wheel = new TimingWheel(10);
+        wheel.schedule(5000, 0, 0);
+        wheel.schedule(5000, 0, 1);
+        wheel.schedule(5000, 0, 2);
+
+        Recorder recorder = new Recorder(wheel);
+        wheel.advance(6000, recorder);
+        assertEquals(3, recorder.args.size);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, recorder.args.get(i));
+        }
+    }
+
+    @Test
+    public void staleHandleCannotCancelReusedTimer() {
+        TimingWheel wheel = new TimingWheel(0);
+        int first = wheel.schedule(50, 0, 1);
+        assertTrue(wheel.cancel(first));
+        assertFalse(wheel.cancel(first));
+
+        // Reuses the freed timer under a new generation
+        int second = wheel.schedule(60, 0, 2);
+        assertFalse(wheel.cancel(first));
+        assertEquals(1, wheel.size());
+
+        Recorder recorder = new Recorder(wheel);
+        wheel.advance(60, recorder);
+        assertEquals(1, recorder.args.size);
+        assertEquals(2, recorder.args.get(0));
+
+        // Fired timers can't be cancelled either
+        assertFalse(wheel.cancel(second));
+    }
+
+    @Test
+    public void matchesSortedScheduleUnderRandomUse() {
+        Random random = new Random(42);
+        TimingWheel wheel = new TimingWheel(1000);
+        List<long[]> expected = new ArrayList<>(); // {due, arg}
+        IntArray handles = new IntArray();
+        IntArray handleArgs = new IntArray();
+        Recorder recorder = new Recorder(wheel);
+        boolean[] cancelled = new boolean[20000];
+
+        int next = 0;
+        for (int step = 0; step < 2000; step++) {
+            for (int k = random.nextInt(10); k > 0; k--) {
+                long delay = 1 + (long)Math.pow(2, random.nextDouble() * 22);
+                long due = wheel.now() + delay;
+                handles.add(wheel.schedule(due, 0, next));
+                handleArgs.add(next);
+                expected.add(new long[] {due, next});
+                next++;
+            }
+            if (handles.size > 0 && random.nextInt(3) == 0) {
+                int pick = random.nextInt(handles.size);
+                int arg = handleArgs.get(pick);
+                boolean live = !cancelled[arg] && !recorder.args.contains(arg);
+                assertEquals(live, wheel.cancel(handles.get(pick)));
+                if (live) cancelled[arg] = true;
+            }
+            wheel.advance(wheel.now() + random.nextInt(2000), recorder);
+        }
+        wheel.advance(wheel.now() + (1L << 23), recorder);
+
+        expected.removeIf(e -> cancelled[(int)e[1]]);
+        expected.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        assertEquals(expected.size(), recorder.args.size);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i)[1], recorder.args.get(i));
+            assertEquals(expected.get(i)[0], recorder.ticks.get(i));
+        }
+        assertEquals(0, wheel.size());
+    }
+}